@@ -0,0 +1,71 @@
+package org.dbs.pi4j.myrestgpio.common;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Overhead of the {@link LogAspect} around a method annotated with {@link LogExecutionTime}, compared with a direct
+ * call and with a CGLIB proxy of the same class without the annotation, as Spring builds them for the controllers.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class LogAspectBenchmark {
+
+    public static class Endpoint {
+
+        private int counter;
+
+        @LogExecutionTime(value = "/api/gpio/", valueType = "GET bench")
+        public int timed() {
+            return ++counter;
+        }
+
+        public int plain() {
+            return ++counter;
+        }
+    }
+
+    private Endpoint direct;
+    private Endpoint proxied;
+
+    @Setup
+    public void setup() {
+        direct = new Endpoint();
+
+        final AspectJProxyFactory factory = new AspectJProxyFactory(new Endpoint());
+        factory.setProxyTargetClass(true);
+        factory.addAspect(new LogAspect(new SimpleMeterRegistry()));
+        proxied = factory.getProxy();
+    }
+
+    @Benchmark
+    public int direct() {
+        return direct.timed();
+    }
+
+    @Benchmark
+    public int proxyWithoutAdvice() {
+        return proxied.plain();
+    }
+
+    @Benchmark
+    public int proxyWithLogExecutionTime() {
+        return proxied.timed();
+    }
+}
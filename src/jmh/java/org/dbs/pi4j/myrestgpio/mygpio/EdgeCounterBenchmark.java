@@ -0,0 +1,52 @@
+package org.dbs.pi4j.myrestgpio.mygpio;
+
+import com.pi4j.io.gpio.digital.DigitalState;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of counting an edge on the listener thread, alone and while another thread ticks the rate window and reads
+ * the count, which contends on the same {@link java.util.concurrent.atomic.LongAdder} cells.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Group)
+public class EdgeCounterBenchmark {
+
+    private final EdgeCounter counter = new EdgeCounter(13, EdgeMode.BOTH, 242);
+    private boolean high;
+
+    @Benchmark
+    @Group("edge")
+    public void onEdge() {
+        high = !high;
+        counter.onEdge(high ? DigitalState.HIGH : DigitalState.LOW);
+    }
+
+    @Benchmark
+    @Group("polled")
+    public void onEdgePolled() {
+        high = !high;
+        counter.onEdge(high ? DigitalState.HIGH : DigitalState.LOW);
+    }
+
+    @Benchmark
+    @Group("polled")
+    public EdgeCount read() {
+        counter.tick(System.nanoTime());
+        return counter.read(false);
+    }
+}
@@ -0,0 +1,56 @@
+package org.dbs.pi4j.myrestgpio.mygpio;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.dbs.pi4j.myrestgpio.configuration.HistoryProperties;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of recording a transition in a ring of 8192 entries, and of a stats or a 200-point series query over all of
+ * it, the copy of the ring taken under its monitor included.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class HistoryRingBenchmark {
+
+    private final PinHistory history = new PinHistory(new HistoryProperties(), new SimpleMeterRegistry());
+    private final HistoryRing ring = new HistoryRing(history, 13, PinKind.DIGITAL_INPUT, 8192);
+    private int value;
+
+    @Setup
+    public void fill() {
+        for (int i = 0; i < 8192; i++) {
+            record();
+        }
+    }
+
+    @Benchmark
+    public void record() {
+        value ^= 1;
+        ring.record(value);
+    }
+
+    @Benchmark
+    public HistoryStats stats() {
+        return ring.slice(0, Long.MAX_VALUE, Integer.MAX_VALUE).stats();
+    }
+
+    @Benchmark
+    public HistorySeries series() {
+        return ring.slice(0, Long.MAX_VALUE, Integer.MAX_VALUE).series(200);
+    }
+}
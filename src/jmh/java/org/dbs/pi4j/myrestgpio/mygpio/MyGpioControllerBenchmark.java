@@ -0,0 +1,115 @@
+package org.dbs.pi4j.myrestgpio.mygpio;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of the {@link MyGpioController} operations on the virtual backend without latency: the lookup in the registry,
+ * the shadow state, the command log and the event bus, without the cost of the hardware.
+ * <p>The {@code contended} group toggles outputs from one thread while three threads read inputs, as the REST layer
+ * does under load.</p>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MyGpioControllerBenchmark {
+
+    @State(Scope.Benchmark)
+    public static class Gpio {
+        VirtualGpio gpio;
+        MyGpioController controller;
+
+        @Setup(Level.Trial)
+        public void setup() throws IOException {
+            gpio = new VirtualGpio();
+            controller = gpio.getController();
+        }
+
+        @TearDown(Level.Trial)
+        public void tearDown() throws IOException, InterruptedException {
+            gpio.close();
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class Cursor {
+        int index;
+        int value;
+
+        int nextOutput() {
+            index = (index + 1) % VirtualGpio.OUTPUTS.length;
+            return VirtualGpio.OUTPUTS[index];
+        }
+
+        int nextInput() {
+            index = (index + 1) % VirtualGpio.INPUTS.length;
+            return VirtualGpio.INPUTS[index];
+        }
+
+        int nextValue() {
+            value ^= 1;
+            return value;
+        }
+    }
+
+    @Benchmark
+    public boolean setPinDigitalState(Gpio gpio, Cursor cursor) {
+        return gpio.controller.setPinDigitalState(cursor.nextOutput(), cursor.nextValue());
+    }
+
+    @Benchmark
+    public boolean setPinDigitalStateUnchanged(Gpio gpio, Cursor cursor) {
+        return gpio.controller.setPinDigitalState(cursor.nextOutput(), 0);
+    }
+
+    @Benchmark
+    public boolean togglePin(Gpio gpio, Cursor cursor) {
+        return gpio.controller.togglePin(cursor.nextOutput());
+    }
+
+    @Benchmark
+    public Object getState(Gpio gpio, Cursor cursor) {
+        return gpio.controller.getState(cursor.nextInput());
+    }
+
+    @Benchmark
+    public Object getStateFresh(Gpio gpio, Cursor cursor) {
+        return gpio.controller.getState(cursor.nextInput(), true);
+    }
+
+    @Benchmark
+    public Object getPinState(Gpio gpio, Cursor cursor) {
+        return gpio.controller.getPinState(cursor.nextInput(), false);
+    }
+
+    @Benchmark
+    @Group("contended")
+    @GroupThreads(1)
+    public boolean contendedToggle(Gpio gpio, Cursor cursor) {
+        return gpio.controller.togglePin(cursor.nextOutput());
+    }
+
+    @Benchmark
+    @Group("contended")
+    @GroupThreads(3)
+    public Object contendedGetState(Gpio gpio, Cursor cursor) {
+        return gpio.controller.getState(cursor.nextInput());
+    }
+}
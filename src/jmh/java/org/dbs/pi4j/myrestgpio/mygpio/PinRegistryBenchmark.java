@@ -0,0 +1,102 @@
+package org.dbs.pi4j.myrestgpio.mygpio;
+
+import com.pi4j.io.gpio.digital.DigitalOutput;
+import com.pi4j.io.gpio.digital.DigitalState;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.lang.reflect.Proxy;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the {@link PinRegistry} with the former {@code HashMap<Integer, Object>} for the lookup and type dispatch
+ * done by every pin operation, with 1, 4 and 16 concurrent threads.
+ * <p>The plain {@link HashMap} is only correct because the benchmark never provisions during the measurement; the
+ * synchronized map is the cheapest correct equivalent of the former map.</p>
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public abstract class PinRegistryBenchmark {
+
+    private static final int[] ADDRESSES = {2, 3, 4, 5, 6, 7, 8, 9, 10, 11, 12, 13, 16, 17, 18, 19, 20, 21, 22, 23};
+
+    @State(Scope.Benchmark)
+    public static class Pins {
+        final Map<Integer, Object> hashMap = new HashMap<>();
+        final Map<Integer, Object> synchronizedMap = Collections.synchronizedMap(new HashMap<>());
+        final PinRegistry registry = new PinRegistry();
+
+        @Setup
+        public void setup() {
+            for (int address : ADDRESSES) {
+                final DigitalOutput output = (DigitalOutput) Proxy.newProxyInstance(DigitalOutput.class.getClassLoader(),
+                    new Class<?>[]{DigitalOutput.class}, (proxy, method, args) -> null);
+                hashMap.put(address, output);
+                synchronizedMap.put(address, output);
+                registry.provision(address, pinAddress -> new DigitalOutputHandle(pinAddress, output, DigitalState.LOW));
+            }
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class Cursor {
+        int index;
+
+        int next() {
+            index = (index + 1) % ADDRESSES.length;
+            return ADDRESSES[index];
+        }
+    }
+
+    @Benchmark
+    public Object hashMap(Pins pins, Cursor cursor) {
+        return asOutput(pins.hashMap.get(cursor.next()));
+    }
+
+    @Benchmark
+    public Object synchronizedMap(Pins pins, Cursor cursor) {
+        return asOutput(pins.synchronizedMap.get(cursor.next()));
+    }
+
+    @Benchmark
+    public Object registry(Pins pins, Cursor cursor) {
+        return pins.registry.require(cursor.next()).asDigitalOutput();
+    }
+
+    private static DigitalOutput asOutput(Object provisionedPin) {
+        if (provisionedPin == null) {
+            throw new IllegalArgumentException("There is no pin provisioned at the given address");
+        } else if (provisionedPin instanceof DigitalOutput) {
+            return (DigitalOutput) provisionedPin;
+        } else {
+            throw new IllegalArgumentException("The provisioned pin at the given address is not of the type GpioPinDigitalOutput");
+        }
+    }
+
+    @Threads(1)
+    public static class OneThread extends PinRegistryBenchmark {
+    }
+
+    @Threads(4)
+    public static class FourThreads extends PinRegistryBenchmark {
+    }
+
+    @Threads(16)
+    public static class SixteenThreads extends PinRegistryBenchmark {
+    }
+}
@@ -0,0 +1,75 @@
+package org.dbs.pi4j.myrestgpio.mygpio;
+
+import com.pi4j.io.pwm.PwmType;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.dbs.pi4j.myrestgpio.configuration.JournalProperties;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Time an output level or a duty cycle write spends in the journal monitor: encoding, sealing and copying one record
+ * to the mapped file. The syncs and the snapshot writes of the compactions happen on the {@code gpio-journal} thread,
+ * on whatever disk the temporary directory is, and are not part of this figure.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ProvisioningJournalBenchmark {
+
+    private Path directory;
+    private ProvisioningJournal journal;
+    private boolean high;
+    private float dutyCycle;
+
+    @Setup(Level.Trial)
+    public void setup() throws IOException {
+        directory = Files.createTempDirectory("jmh-journal");
+        final JournalProperties properties = new JournalProperties();
+        properties.setDirectory(directory.toString());
+        journal = new ProvisioningJournal(properties, new SimpleMeterRegistry());
+        for (int address : VirtualGpio.OUTPUTS) {
+            journal.provisionedOutput(address, "out" + address);
+        }
+        journal.provisionedPwm(18, "pwm18", PwmType.SOFTWARE, 1000);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        journal.shutdown();
+        try (Stream<Path> files = Files.walk(directory)) {
+            files.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+        }
+    }
+
+    @Benchmark
+    public void outputLevel() {
+        high = !high;
+        journal.outputLevel(VirtualGpio.OUTPUTS[0], high);
+    }
+
+    @Benchmark
+    public void dutyCycle() {
+        dutyCycle = dutyCycle >= 100 ? 0 : dutyCycle + 1;
+        journal.dutyCycle(18, dutyCycle);
+    }
+}
@@ -0,0 +1,98 @@
+package org.dbs.pi4j.myrestgpio.mygpio;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.dbs.pi4j.myrestgpio.common.CommandLog;
+import org.dbs.pi4j.myrestgpio.configuration.CommandLogProperties;
+import org.dbs.pi4j.myrestgpio.configuration.EdgeProperties;
+import org.dbs.pi4j.myrestgpio.configuration.EventProperties;
+import org.dbs.pi4j.myrestgpio.configuration.HistoryProperties;
+import org.dbs.pi4j.myrestgpio.configuration.InputProperties;
+import org.dbs.pi4j.myrestgpio.configuration.JournalProperties;
+import org.dbs.pi4j.myrestgpio.configuration.PwmProperties;
+import org.dbs.pi4j.myrestgpio.configuration.SequenceProperties;
+import org.dbs.pi4j.myrestgpio.configuration.StartupProperties;
+import org.dbs.pi4j.myrestgpio.configuration.ThreadingProperties;
+import org.dbs.pi4j.myrestgpio.configuration.VirtualGpioProperties;
+import org.dbs.pi4j.myrestgpio.myvirtual.VirtualGpioBackend;
+
+import java.io.File;
+import java.io.IOException;
+
+/**
+ * A {@link MyGpioController} wired by hand on the virtual backend, without latency nor signals, as the Spring context
+ * would wire it with the {@code virtual} profile.
+ */
+public class VirtualGpio {
+
+    public static final int[] OUTPUTS = {2, 3, 4, 5, 6, 7, 8, 9, 10, 11};
+    public static final int[] INPUTS = {16, 17, 18, 19};
+
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final File commandLogFile;
+    private final CommandLog commandLog;
+    private final PinEventBus pinEventBus;
+    private final PulseScheduler pulseScheduler;
+    private final SequenceEngine sequenceEngine;
+    private final PwmFader pwmFader;
+    private final EdgeCounters edgeCounters;
+    private final InputEventLoop inputEvents;
+    private final VirtualGpioBackend backend;
+    private final MyGpioController controller;
+
+    public VirtualGpio() throws IOException {
+        commandLogFile = File.createTempFile("jmh-command", ".log");
+        final CommandLogProperties commandLogProperties = new CommandLogProperties();
+        commandLogProperties.setFile(commandLogFile.getPath());
+        commandLog = new CommandLog(commandLogProperties, meterRegistry);
+
+        pinEventBus = new PinEventBus(new EventProperties(), meterRegistry);
+        pulseScheduler = new PulseScheduler(meterRegistry);
+        sequenceEngine = new SequenceEngine(new SequenceProperties(), meterRegistry);
+        final PwmProperties pwmProperties = new PwmProperties();
+        pwmFader = new PwmFader(pwmProperties, meterRegistry);
+        edgeCounters = new EdgeCounters(new EdgeProperties(), meterRegistry);
+        inputEvents = new InputEventLoop(new InputProperties(), meterRegistry);
+        final JournalProperties journalProperties = new JournalProperties();
+        journalProperties.setEnabled(false);
+        final ProvisioningJournal journal = new ProvisioningJournal(journalProperties, meterRegistry);
+        backend = new VirtualGpioBackend(new VirtualGpioProperties());
+
+        final StartupProperties startupProperties = new StartupProperties();
+        startupProperties.setTestPin(-1);
+        controller = new MyGpioController(backend, new GpioExecutor(new ThreadingProperties()), pulseScheduler,
+            sequenceEngine, pwmFader, pwmProperties, edgeCounters, inputEvents, journal,
+            new PinHistory(new HistoryProperties(), meterRegistry), pinEventBus, commandLog, startupProperties);
+
+        for (int address : OUTPUTS) {
+            controller.provisionDigitalOutputPin(address, "out" + address);
+        }
+        for (int address : INPUTS) {
+            controller.provisionDigitalInputPin(address, "in" + address);
+        }
+    }
+
+    public MyGpioController getController() {
+        return controller;
+    }
+
+    public VirtualGpioBackend getBackend() {
+        return backend;
+    }
+
+    public MeterRegistry getMeterRegistry() {
+        return meterRegistry;
+    }
+
+    public void close() throws IOException, InterruptedException {
+        backend.shutdown();
+        pwmFader.shutdown();
+        edgeCounters.shutdown();
+        inputEvents.shutdown();
+        sequenceEngine.shutdown();
+        pulseScheduler.shutdown();
+        pinEventBus.shutdown();
+        commandLog.shutdown();
+        commandLogFile.delete();
+    }
+}
@@ -0,0 +1,85 @@
+package org.dbs.pi4j.myrestgpio.myrest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.dbs.pi4j.myrestgpio.mygpio.MyGpioController;
+import org.dbs.pi4j.myrestgpio.mygpio.VirtualGpio;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of the {@code provision/list} body: building the {@link org.dbs.pi4j.myrestgpio.myrest.dto.PinDTO} list and
+ * serializing it to JSON, with 20 provisioned pins.
+ * <p>{@code cached} is a request while no pin changes, {@code rebuilt} a request after every pin change, and the
+ * {@code churn} group reads the list while another thread keeps toggling outputs.</p>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ProvisionListBenchmark {
+
+    private VirtualGpio gpio;
+    private MyGpioController controller;
+    private ProvisionListSnapshot snapshot;
+    private int toggled;
+
+    @Setup(Level.Trial)
+    public void setup() throws IOException {
+        gpio = new VirtualGpio();
+        controller = gpio.getController();
+        snapshot = new ProvisionListSnapshot(controller, new ObjectMapper());
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException, InterruptedException {
+        gpio.close();
+    }
+
+    @Benchmark
+    public byte[] cached() {
+        return snapshot.get().getJson();
+    }
+
+    @Benchmark
+    public byte[] rebuilt() {
+        controller.togglePin(VirtualGpio.OUTPUTS[0]);
+        return snapshot.get().getJson();
+    }
+
+    @Benchmark
+    public byte[] changedSince() {
+        return snapshot.getChangedSince(controller.getProvisionVersion() - 5);
+    }
+
+    @Benchmark
+    @Group("churn")
+    @GroupThreads(3)
+    public byte[] churnRead() {
+        return snapshot.get().getJson();
+    }
+
+    @Benchmark
+    @Group("churn")
+    @GroupThreads(1)
+    public boolean churnToggle() {
+        toggled = (toggled + 1) % VirtualGpio.OUTPUTS.length;
+        return controller.togglePin(VirtualGpio.OUTPUTS[toggled]);
+    }
+}
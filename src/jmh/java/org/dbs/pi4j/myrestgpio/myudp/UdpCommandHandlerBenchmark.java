@@ -0,0 +1,92 @@
+package org.dbs.pi4j.myrestgpio.myudp;
+
+import org.dbs.pi4j.myrestgpio.mygpio.VirtualGpio;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of a UDP command packet from the received buffer to the reply, on the virtual backend without latency: one
+ * toggle, and a frame of the rig switching all the outputs at once. Run with {@code -prof gc} to check that the
+ * decoding allocates nothing.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class UdpCommandHandlerBenchmark {
+
+    private VirtualGpio gpio;
+    private UdpCommandHandler handler;
+    private ByteBuffer toggle;
+    private ByteBuffer frame;
+    private ByteBuffer stale;
+    private final ByteBuffer reply = ByteBuffer.allocateDirect(UdpProtocol.HEADER_SIZE + UdpProtocol.MAX_COMMANDS);
+    private int seq;
+    private int value;
+
+    @Setup(Level.Trial)
+    public void setup() throws IOException {
+        gpio = new VirtualGpio();
+        handler = new UdpCommandHandler(gpio.getController(), 64, TimeUnit.SECONDS.toNanos(5));
+
+        toggle = ByteBuffer.allocateDirect(UdpProtocol.MAX_PACKET_SIZE);
+        UdpProtocol.putHeader(toggle, UdpProtocol.FLAG_ACK, 1, 0, 1);
+        UdpProtocol.putCommand(toggle, UdpProtocol.OP_TOGGLE, VirtualGpio.OUTPUTS[0], 0);
+        toggle.flip();
+
+        frame = ByteBuffer.allocateDirect(UdpProtocol.MAX_PACKET_SIZE);
+        UdpProtocol.putHeader(frame, 0, 2, 0, VirtualGpio.OUTPUTS.length);
+        for (int address : VirtualGpio.OUTPUTS) {
+            UdpProtocol.putCommand(frame, UdpProtocol.OP_SET, address, 0);
+        }
+        frame.flip();
+
+        stale = ByteBuffer.allocateDirect(UdpProtocol.MAX_PACKET_SIZE);
+        UdpProtocol.putHeader(stale, 0, 3, 0, 1);
+        UdpProtocol.putCommand(stale, UdpProtocol.OP_TOGGLE, VirtualGpio.OUTPUTS[0], 0);
+        stale.flip();
+        handler.handle(stale.duplicate(), reply);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException, InterruptedException {
+        gpio.close();
+    }
+
+    @Benchmark
+    public int toggle() {
+        toggle.putInt(8, ++seq);
+        return handler.handle(toggle, reply);
+    }
+
+    @Benchmark
+    public int frame() {
+        frame.putInt(8, ++seq);
+        value ^= 1;
+        for (int index = 0; index < VirtualGpio.OUTPUTS.length; index++) {
+            frame.putShort(UdpProtocol.HEADER_SIZE + index * UdpProtocol.COMMAND_SIZE + 2, (short) value);
+        }
+        return handler.handle(frame, reply);
+    }
+
+    @Benchmark
+    public int stale() {
+        return handler.handle(stale, reply);
+    }
+}
@@ -0,0 +1,83 @@
+package org.dbs.pi4j.myrestgpio.mywebsocket;
+
+import org.dbs.pi4j.myrestgpio.mygpio.VirtualGpio;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Server-side cost of a WebSocket command frame, from the payload to the reply, on the virtual backend without
+ * latency. Compare with {@code MyGpioControllerBenchmark} for the cost of the frame parsing and of the reply.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class GpioCommandProcessorBenchmark {
+
+    private static final CommandSession NO_SESSION = new CommandSession() {
+        @Override
+        public void watch(int[] addresses) {
+        }
+
+        @Override
+        public void unwatch() {
+        }
+    };
+
+    private VirtualGpio gpio;
+    private GpioCommandProcessor processor;
+    private String[] toggles;
+    private String[] reads;
+    private int index;
+
+    @Setup(Level.Trial)
+    public void setup() throws IOException {
+        gpio = new VirtualGpio();
+        processor = new GpioCommandProcessor(gpio.getController(), gpio.getMeterRegistry());
+        toggles = new String[VirtualGpio.OUTPUTS.length];
+        for (int i = 0; i < toggles.length; i++) {
+            toggles[i] = (1000 + i) + " toggle " + VirtualGpio.OUTPUTS[i];
+        }
+        reads = new String[VirtualGpio.INPUTS.length];
+        for (int i = 0; i < reads.length; i++) {
+            reads[i] = (2000 + i) + " read " + VirtualGpio.INPUTS[i];
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException, InterruptedException {
+        gpio.close();
+    }
+
+    @Benchmark
+    public String toggle() {
+        index = (index + 1) % toggles.length;
+        return processor.process(toggles[index], NO_SESSION);
+    }
+
+    @Benchmark
+    public String read() {
+        index = (index + 1) % reads.length;
+        return processor.process(reads[index], NO_SESSION);
+    }
+
+    @Benchmark
+    public String error() {
+        return processor.process("3000 read 63", NO_SESSION);
+    }
+}
@@ -0,0 +1,65 @@
+package org.dbs.pi4j.myrestgpio.loadtest;
+
+import lombok.Getter;
+
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadInfo;
+import java.lang.management.ThreadMXBean;
+
+/**
+ * Snapshot of the GC activity, of the platform threads, and of the bytes allocated by the threads of the service:
+ * Tomcat workers and GPIO threads. The load generator runs in the same JVM, its own threads are left out of the
+ * allocation. Virtual threads are not listed by the JVM, their allocation is not counted.
+ */
+@Getter
+public class JvmStats {
+
+    private final long gcCount;
+    private final long gcTimeMs;
+    private final long serverAllocatedBytes;
+    private final int peakThreads;
+
+    private JvmStats(long gcCount, long gcTimeMs, long serverAllocatedBytes, int peakThreads) {
+        this.gcCount = gcCount;
+        this.gcTimeMs = gcTimeMs;
+        this.serverAllocatedBytes = serverAllocatedBytes;
+        this.peakThreads = peakThreads;
+    }
+
+    /**
+     * Start measuring the peak number of platform threads from now.
+     */
+    public static void resetPeakThreads() {
+        ManagementFactory.getThreadMXBean().resetPeakThreadCount();
+    }
+
+    public static JvmStats capture() {
+        long count = 0;
+        long time = 0;
+        for (final GarbageCollectorMXBean collector : ManagementFactory.getGarbageCollectorMXBeans()) {
+            count += Math.max(0, collector.getCollectionCount());
+            time += Math.max(0, collector.getCollectionTime());
+        }
+        return new JvmStats(count, time, serverAllocatedBytes(), ManagementFactory.getThreadMXBean().getPeakThreadCount());
+    }
+
+    private static long serverAllocatedBytes() {
+        final ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        if (!(threads instanceof com.sun.management.ThreadMXBean)) {
+            return -1;
+        }
+        final com.sun.management.ThreadMXBean allocation = (com.sun.management.ThreadMXBean) threads;
+        long total = 0;
+        for (final ThreadInfo info : threads.getThreadInfo(threads.getAllThreadIds())) {
+            if (info != null && isServerThread(info.getThreadName())) {
+                total += Math.max(0, allocation.getThreadAllocatedBytes(info.getThreadId()));
+            }
+        }
+        return total;
+    }
+
+    private static boolean isServerThread(String name) {
+        return name.startsWith("http-nio-") || name.startsWith("gpio-");
+    }
+}
@@ -0,0 +1,92 @@
+package org.dbs.pi4j.myrestgpio.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.dbs.pi4j.myrestgpio.MyRestGpioApplication;
+import org.dbs.pi4j.myrestgpio.myudp.UdpCommandListener;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.File;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * End-to-end load test of the REST API, used as a performance gate before a deployment.
+ * <p>The service is started in this JVM with the {@code virtual} profile on a random port, then each scenario is
+ * run in turn at a fixed arrival rate. The results are printed and written as JSON; the process exits with 1 if a
+ * scenario exceeds the p99 latency or the error rate of the gate.</p>
+ * <p>Run with: {@code mvn -Ploadtest verify -Dloadtest.args="rate=500 duration=30s scenarios=toggle,mixed"}</p>
+ */
+public class LoadTest {
+
+    public static void main(String[] args) throws Exception {
+        final LoadTestOptions options = new LoadTestOptions(args);
+
+        // The devtools restart would run this method again in a new class loader
+        System.setProperty("spring.devtools.restart.enabled", "false");
+        final ConfigurableApplicationContext context = new SpringApplicationBuilder(MyRestGpioApplication.class)
+            .profiles("virtual")
+            .run("--server.port=0", "--gpio.command-log.file=target/loadtest-command.log",
+                "--gpio.threads.virtual=" + "virtual".equals(options.getThreads()),
+                "--gpio.virtual.latency=" + options.getLatency().toNanos() + "ns",
+                "--gpio.udp.enabled=true", "--gpio.udp.port=0", "--gpio.journal.enabled=false");
+        final int exitCode;
+        try {
+            final int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+            final int udpPort = context.getBean(UdpCommandListener.class).getLocalPort();
+            exitCode = run(options, "http://localhost:" + port, udpPort);
+        } finally {
+            context.close();
+        }
+        System.exit(exitCode);
+    }
+
+    private static int run(LoadTestOptions options, String baseUrl, int udpPort) throws Exception {
+        final HttpClient client = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofSeconds(5))
+            .build();
+        client.send(HttpRequest.newBuilder(URI.create(baseUrl + "/api/gpio/provision/digital/input/5/button"))
+            .POST(HttpRequest.BodyPublishers.noBody()).build(), HttpResponse.BodyHandlers.discarding());
+
+        final List<String> names = options.getMix() != null ? List.of("custom") : options.getScenarios();
+        final ScenarioRunner runner = new ScenarioRunner(client, baseUrl, options);
+        final UdpScenarioRunner udpRunner = new UdpScenarioRunner(udpPort, options);
+        final List<ScenarioResult> results = new ArrayList<>();
+        for (final String name : names) {
+            System.out.printf("Running %s at %d req/s for %s after %s of warmup, %s threads, GPIO latency %s%n",
+                name.trim(), options.getRate(), options.getDuration(), options.getWarmup(), options.getThreads(),
+                options.getLatency());
+            if (UdpScenarioRunner.SCENARIO.equals(name.trim())) {
+                results.add(udpRunner.run());
+            } else {
+                results.add(runner.run(options.getMix() != null ? Scenario.custom(options.getMix())
+                    : Scenario.builtIn(name.trim())));
+            }
+        }
+
+        System.out.println();
+        ScenarioResult.printHeader(System.out);
+        int exitCode = 0;
+        for (final ScenarioResult result : results) {
+            result.print(System.out);
+            if (result.getP99Ms() > options.getMaxP99().toMillis() || result.getErrorRate() > options.getMaxErrorRate()) {
+                System.out.printf("FAILED: %s exceeds the gate (p99 %s, error rate %s)%n", result.getScenario(),
+                    options.getMaxP99(), options.getMaxErrorRate());
+                exitCode = 1;
+            }
+        }
+
+        final File file = new File(options.getResult());
+        new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT).writeValue(file, results);
+        System.out.println("Results written to " + file.getAbsolutePath());
+        return exitCode;
+    }
+}
@@ -0,0 +1,67 @@
+package org.dbs.pi4j.myrestgpio.loadtest;
+
+import lombok.Getter;
+import org.springframework.boot.convert.DurationStyle;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Options of the load test, given as {@code key=value} arguments.
+ * <ul>
+ *     <li>{@code scenarios}: comma separated names of the scenarios to run, see {@link Scenario}; {@code udp} toggles
+ *     through the UDP command listener, see {@link UdpScenarioRunner}.</li>
+ *     <li>{@code mix}: a custom scenario, {@code METHOD path weight} entries separated by commas.</li>
+ *     <li>{@code rate}: the arrival rate in requests per second.</li>
+ *     <li>{@code duration}, {@code warmup}: the measured and unmeasured time of each scenario.</li>
+ *     <li>{@code max-p99}, {@code max-error-rate}: the performance gate, the run fails if a scenario exceeds them.</li>
+ *     <li>{@code max-outstanding}: requests in flight beyond which new arrivals are dropped and counted as errors.</li>
+ *     <li>{@code threads}: {@code platform} to serve the requests on the Tomcat pool, {@code virtual} on virtual
+ *     threads (Java 21).</li>
+ *     <li>{@code latency}: the cost of each native GPIO call of the virtual backend, to simulate slow hardware.</li>
+ * </ul>
+ */
+@Getter
+public class LoadTestOptions {
+
+    private final List<String> scenarios;
+    private final String mix;
+    private final int rate;
+    private final Duration duration;
+    private final Duration warmup;
+    private final Duration maxP99;
+    private final double maxErrorRate;
+    private final int maxOutstanding;
+    private final String result;
+    private final String threads;
+    private final Duration latency;
+
+    public LoadTestOptions(String[] args) {
+        final Map<String, String> options = new HashMap<>();
+        for (final String arg : args) {
+            final int separator = arg.indexOf('=');
+            if (separator <= 0) {
+                throw new IllegalArgumentException("Expected key=value, got " + arg);
+            }
+            options.put(arg.substring(0, separator), arg.substring(separator + 1));
+        }
+
+        this.scenarios = Arrays.asList(options.getOrDefault("scenarios", "toggle,read,mixed,info,udp").split(","));
+        this.mix = options.get("mix");
+        this.rate = Integer.parseInt(options.getOrDefault("rate", "200"));
+        this.duration = DurationStyle.detectAndParse(options.getOrDefault("duration", "20s"));
+        this.warmup = DurationStyle.detectAndParse(options.getOrDefault("warmup", "5s"));
+        this.maxP99 = DurationStyle.detectAndParse(options.getOrDefault("max-p99", "50ms"));
+        this.maxErrorRate = Double.parseDouble(options.getOrDefault("max-error-rate", "0.001"));
+        this.maxOutstanding = Integer.parseInt(options.getOrDefault("max-outstanding", "2000"));
+        this.result = options.getOrDefault("result", "target/loadtest-result.json");
+        this.threads = options.getOrDefault("threads", "platform");
+        this.latency = DurationStyle.detectAndParse(options.getOrDefault("latency", "20us"));
+        if (!"platform".equals(threads) && !"virtual".equals(threads)) {
+            throw new IllegalArgumentException("Expected threads=platform or threads=virtual, got " + threads);
+        }
+    }
+}
@@ -0,0 +1,101 @@
+package org.dbs.pi4j.myrestgpio.loadtest;
+
+import lombok.Getter;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * A weighted mix of requests. Output 23 is provisioned by the startup test of the service, input 5 is provisioned by
+ * the load test and driven by a square signal of the virtual profile.
+ */
+@Getter
+public class Scenario {
+
+    private final String name;
+    private final List<Request> requests;
+    private final int totalWeight;
+
+    public Scenario(String name, List<Request> requests) {
+        if (requests.isEmpty()) {
+            throw new IllegalArgumentException("The scenario " + name + " has no request");
+        }
+        this.name = name;
+        this.requests = Collections.unmodifiableList(requests);
+        this.totalWeight = requests.stream().mapToInt(Request::getWeight).sum();
+    }
+
+    /**
+     * @return A request drawn according to the weights.
+     */
+    public Request next() {
+        int draw = ThreadLocalRandom.current().nextInt(totalWeight);
+        for (final Request request : requests) {
+            draw -= request.getWeight();
+            if (draw < 0) {
+                return request;
+            }
+        }
+        return requests.get(requests.size() - 1);
+    }
+
+    /**
+     * @param name The name of a built-in scenario: toggle, read, mixed or info.
+     * @return The scenario.
+     */
+    public static Scenario builtIn(String name) {
+        switch (name) {
+            case "toggle":
+                return new Scenario(name, List.of(
+                    new Request("POST", "/api/gpio/digital/toggle/23", 1)));
+            case "read":
+                return new Scenario(name, List.of(
+                    new Request("GET", "/api/gpio/state/5", 1)));
+            case "mixed":
+                return new Scenario(name, List.of(
+                    new Request("POST", "/api/gpio/digital/toggle/23", 40),
+                    new Request("GET", "/api/gpio/state/5", 30),
+                    new Request("GET", "/api/gpio/provision/list", 20),
+                    new Request("GET", "/api/info/system", 10)));
+            case "info":
+                return new Scenario(name, List.of(
+                    new Request("GET", "/api/info/os", 1),
+                    new Request("GET", "/api/info/java", 1),
+                    new Request("GET", "/api/info/network", 1),
+                    new Request("GET", "/api/info/system", 1)));
+            default:
+                throw new IllegalArgumentException("Unknown scenario " + name);
+        }
+    }
+
+    /**
+     * @param mix {@code METHOD path weight} entries separated by commas.
+     * @return The custom scenario.
+     */
+    public static Scenario custom(String mix) {
+        final List<Request> requests = new ArrayList<>();
+        for (final String entry : mix.split(",")) {
+            final String[] parts = entry.trim().split("\\s+");
+            if (parts.length < 2) {
+                throw new IllegalArgumentException("Expected METHOD path [weight], got " + entry);
+            }
+            requests.add(new Request(parts[0].toUpperCase(), parts[1], parts.length > 2 ? Integer.parseInt(parts[2]) : 1));
+        }
+        return new Scenario("custom", requests);
+    }
+
+    @Getter
+    public static class Request {
+        private final String method;
+        private final String path;
+        private final int weight;
+
+        public Request(String method, String path, int weight) {
+            this.method = method;
+            this.path = path;
+            this.weight = weight;
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package org.dbs.pi4j.myrestgpio.loadtest;
+
+import lombok.Getter;
+import org.HdrHistogram.Histogram;
+
+import java.io.PrintStream;
+
+/**
+ * Outcome of a scenario: latency percentiles from the intended start of each request (so that a stalled server is
+ * not hidden by the generator waiting for it), error counts and JVM figures over the measured window.
+ */
+@Getter
+public class ScenarioResult {
+
+    private final String scenario;
+    private final int targetRate;
+    private final double achievedRate;
+    private final long requests;
+    private final long errors;
+    private final long dropped;
+    private final double errorRate;
+    private final double p50Ms;
+    private final double p90Ms;
+    private final double p99Ms;
+    private final double p999Ms;
+    private final double maxMs;
+    private final long gcCount;
+    private final long gcTimeMs;
+    private final long allocatedBytesPerRequest;
+    private final int peakThreads;
+
+    ScenarioResult(String scenario, int targetRate, double seconds, Histogram latencies, long errors, long dropped,
+                   JvmStats before, JvmStats after) {
+        this.scenario = scenario;
+        this.targetRate = targetRate;
+        this.requests = latencies.getTotalCount() + dropped;
+        this.achievedRate = latencies.getTotalCount() / seconds;
+        this.errors = errors;
+        this.dropped = dropped;
+        this.errorRate = requests == 0 ? 0 : (double) (errors + dropped) / requests;
+        this.p50Ms = latencies.getValueAtPercentile(50) / 1000.0;
+        this.p90Ms = latencies.getValueAtPercentile(90) / 1000.0;
+        this.p99Ms = latencies.getValueAtPercentile(99) / 1000.0;
+        this.p999Ms = latencies.getValueAtPercentile(99.9) / 1000.0;
+        this.maxMs = latencies.getMaxValue() / 1000.0;
+        this.gcCount = after.getGcCount() - before.getGcCount();
+        this.gcTimeMs = after.getGcTimeMs() - before.getGcTimeMs();
+        this.allocatedBytesPerRequest = latencies.getTotalCount() == 0 || before.getServerAllocatedBytes() < 0 ? -1
+            : (after.getServerAllocatedBytes() - before.getServerAllocatedBytes()) / latencies.getTotalCount();
+        this.peakThreads = after.getPeakThreads();
+    }
+
+    static void printHeader(PrintStream out) {
+        out.printf("%-10s %7s %9s %9s %7s %8s %8s %8s %8s %8s %8s %5s %7s %10s %7s%n", "scenario", "rate",
+            "achieved", "requests", "errors", "err%", "p50 ms", "p90 ms", "p99 ms", "p99.9 ms", "max ms", "gc", "gc ms",
+            "alloc B/req", "threads");
+    }
+
+    void print(PrintStream out) {
+        out.printf("%-10s %7d %9.1f %9d %7d %8.3f %8.2f %8.2f %8.2f %8.2f %8.2f %5d %7d %10d %7d%n", scenario,
+            targetRate, achievedRate, requests, errors + dropped, errorRate * 100, p50Ms, p90Ms, p99Ms, p999Ms, maxMs,
+            gcCount, gcTimeMs, allocatedBytesPerRequest, peakThreads);
+    }
+}
@@ -0,0 +1,103 @@
+package org.dbs.pi4j.myrestgpio.loadtest;
+
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Open-loop load generator: requests are sent at a fixed arrival rate whatever the response times, and the latency of
+ * a request is measured from the time it was due, not from the time it was actually sent.
+ */
+public class ScenarioRunner {
+
+    private static final long HIGHEST_LATENCY_MICROS = TimeUnit.MINUTES.toMicros(1);
+
+    private final HttpClient client;
+    private final String baseUrl;
+    private final LoadTestOptions options;
+
+    public ScenarioRunner(HttpClient client, String baseUrl, LoadTestOptions options) {
+        this.client = client;
+        this.baseUrl = baseUrl;
+        this.options = options;
+    }
+
+    public ScenarioResult run(Scenario scenario) throws InterruptedException {
+        final Recorder recorder = new Recorder(HIGHEST_LATENCY_MICROS, 3);
+        final AtomicLong errors = new AtomicLong();
+        final AtomicLong dropped = new AtomicLong();
+        final AtomicInteger outstanding = new AtomicInteger();
+
+        final long interval = TimeUnit.SECONDS.toNanos(1) / options.getRate();
+        final long start = System.nanoTime();
+        final long measureStart = start + options.getWarmup().toNanos();
+        final long end = measureStart + options.getDuration().toNanos();
+
+        JvmStats before = null;
+        for (long index = 0; ; index++) {
+            final long intended = start + index * interval;
+            if (intended >= end) {
+                break;
+            }
+            final boolean measured = intended >= measureStart;
+            if (measured && before == null) {
+                JvmStats.resetPeakThreads();
+                before = JvmStats.capture();
+                recorder.reset();
+            }
+
+            final long wait = intended - System.nanoTime();
+            if (wait > 0) {
+                LockSupport.parkNanos(wait);
+            }
+
+            if (outstanding.get() >= options.getMaxOutstanding()) {
+                if (measured) {
+                    dropped.incrementAndGet();
+                }
+                continue;
+            }
+            outstanding.incrementAndGet();
+            send(scenario.next()).whenComplete((response, failure) -> {
+                outstanding.decrementAndGet();
+                if (!measured) {
+                    return;
+                }
+                recorder.recordValue(Math.min(HIGHEST_LATENCY_MICROS,
+                    TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - intended)));
+                if (failure != null || response.statusCode() >= 400) {
+                    errors.incrementAndGet();
+                }
+            });
+        }
+
+        final long drainDeadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (outstanding.get() > 0 && System.nanoTime() < drainDeadline) {
+            Thread.sleep(10);
+        }
+        dropped.addAndGet(outstanding.get());
+
+        final JvmStats after = JvmStats.capture();
+        final Histogram latencies = recorder.getIntervalHistogram();
+        return new ScenarioResult(scenario.getName(), options.getRate(), options.getDuration().toNanos() / 1e9,
+            latencies, errors.get(), dropped.get(), before != null ? before : after, after);
+    }
+
+    private CompletableFuture<HttpResponse<Void>> send(Scenario.Request request) {
+        final HttpRequest httpRequest = HttpRequest.newBuilder(URI.create(baseUrl + request.getPath()))
+            .timeout(Duration.ofSeconds(10))
+            .method(request.getMethod(), HttpRequest.BodyPublishers.noBody())
+            .build();
+        return client.sendAsync(httpRequest, HttpResponse.BodyHandlers.discarding());
+    }
+}
@@ -0,0 +1,130 @@
+package org.dbs.pi4j.myrestgpio.loadtest;
+
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+import org.dbs.pi4j.myrestgpio.myudp.UdpProtocol;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.DatagramChannel;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Open-loop load generator of the UDP command listener, the counterpart of {@link ScenarioRunner} for the REST API:
+ * each packet toggles output 23 and asks for a reply, the latency is measured from the time the packet was due to the
+ * reply. A packet without reply is counted as dropped.
+ */
+public class UdpScenarioRunner {
+
+    public static final String SCENARIO = "udp";
+
+    private static final long HIGHEST_LATENCY_MICROS = TimeUnit.MINUTES.toMicros(1);
+    private static final int IN_FLIGHT = 1 << 16;
+    private static final int SENDER_ID = 0x4C54;
+
+    private final int port;
+    private final LoadTestOptions options;
+
+    public UdpScenarioRunner(int port, LoadTestOptions options) {
+        this.port = port;
+        this.options = options;
+    }
+
+    public ScenarioResult run() throws IOException, InterruptedException {
+        final Recorder recorder = new Recorder(HIGHEST_LATENCY_MICROS, 3);
+        final AtomicLong errors = new AtomicLong();
+        final AtomicLong replies = new AtomicLong();
+        final AtomicLongArray intendedBySeq = new AtomicLongArray(IN_FLIGHT);
+
+        final long interval = TimeUnit.SECONDS.toNanos(1) / options.getRate();
+        final long start = System.nanoTime();
+        final long measureStart = start + options.getWarmup().toNanos();
+        final long end = measureStart + options.getDuration().toNanos();
+
+        try (DatagramChannel channel = DatagramChannel.open()) {
+            channel.connect(new InetSocketAddress("localhost", port));
+            final Thread receiver = new Thread(() -> receive(channel, intendedBySeq, measureStart, recorder, errors,
+                replies), "loadtest-udp");
+            receiver.setDaemon(true);
+            receiver.start();
+
+            final ByteBuffer packet = ByteBuffer.allocateDirect(UdpProtocol.HEADER_SIZE + UdpProtocol.COMMAND_SIZE);
+            JvmStats before = null;
+            long sent = 0;
+            long dropped = 0;
+            int seq = 0;
+            for (long index = 0; ; index++) {
+                final long intended = start + index * interval;
+                if (intended >= end) {
+                    break;
+                }
+                final boolean measured = intended >= measureStart;
+                if (measured && before == null) {
+                    JvmStats.resetPeakThreads();
+                    before = JvmStats.capture();
+                    recorder.reset();
+                    sent = 0;
+                    replies.set(0);
+                }
+
+                final long wait = intended - System.nanoTime();
+                if (wait > 0) {
+                    LockSupport.parkNanos(wait);
+                }
+                if (sent - replies.get() >= Math.min(options.getMaxOutstanding(), IN_FLIGHT)) {
+                    if (measured) {
+                        dropped++;
+                    }
+                    continue;
+                }
+
+                seq++;
+                intendedBySeq.set(seq & (IN_FLIGHT - 1), intended);
+                packet.clear();
+                UdpProtocol.putHeader(packet, UdpProtocol.FLAG_ACK, SENDER_ID, seq, 1);
+                UdpProtocol.putCommand(packet, UdpProtocol.OP_TOGGLE, 23, 0);
+                packet.flip();
+                channel.write(packet);
+                sent++;
+            }
+
+            final long drainDeadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(2);
+            while (replies.get() < sent && System.nanoTime() < drainDeadline) {
+                Thread.sleep(10);
+            }
+            dropped += Math.max(0, sent - replies.get());
+
+            final JvmStats after = JvmStats.capture();
+            final Histogram latencies = recorder.getIntervalHistogram();
+            return new ScenarioResult(SCENARIO, options.getRate(), options.getDuration().toNanos() / 1e9, latencies,
+                errors.get(), dropped, before != null ? before : after, after);
+        }
+    }
+
+    private static void receive(DatagramChannel channel, AtomicLongArray intendedBySeq, long measureStart,
+                                Recorder recorder, AtomicLong errors, AtomicLong replies) {
+        final ByteBuffer reply = ByteBuffer.allocateDirect(UdpProtocol.HEADER_SIZE + UdpProtocol.MAX_COMMANDS);
+        while (channel.isOpen()) {
+            try {
+                reply.clear();
+                channel.read(reply);
+                final long now = System.nanoTime();
+                final long intended = intendedBySeq.get(reply.getInt(8) & (IN_FLIGHT - 1));
+                if (intended < measureStart) {
+                    continue;
+                }
+                recorder.recordValue(Math.min(HIGHEST_LATENCY_MICROS, TimeUnit.NANOSECONDS.toMicros(now - intended)));
+                if (reply.get(UdpProtocol.HEADER_SIZE) != UdpProtocol.STATUS_OK) {
+                    errors.incrementAndGet();
+                }
+                replies.incrementAndGet();
+            } catch (IOException ex) {
+                return;
+            }
+        }
+    }
+}
@@ -2,12 +2,20 @@ package org.dbs.pi4j.myrestgpio;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.context.metrics.buffering.BufferingApplicationStartup;
 
 @SpringBootApplication
 public class MyRestGpioApplication {
 
+    /**
+     * Number of startup steps kept for the startup report and the {@code startup} actuator endpoint.
+     */
+    private static final int STARTUP_STEPS = 4096;
+
     public static void main(String[] args) {
-        SpringApplication.run(MyRestGpioApplication.class, args);
+        SpringApplication application = new SpringApplication(MyRestGpioApplication.class);
+        application.setApplicationStartup(new BufferingApplicationStartup(STARTUP_STEPS));
+        application.run(args);
     }
 
 }
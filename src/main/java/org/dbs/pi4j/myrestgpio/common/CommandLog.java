@@ -0,0 +1,203 @@
+package org.dbs.pi4j.myrestgpio.common;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.dbs.pi4j.myrestgpio.configuration.CommandLogProperties;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PreDestroy;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Structured log of the GPIO commands, kept off the request path.
+ * <p>Request threads only write the command into a lock-free {@link PrimitiveRing}; a single background thread drains
+ * it and writes the commands in batches, with one flush per batch. Commands which failed or changed a pin state are
+ * always kept, the others are sampled. When the ring is full the command is dropped and counted, the request never
+ * waits for the log.</p>
+ */
+@Component
+@Slf4j
+public class CommandLog {
+
+    /**
+     * The logged commands.
+     */
+    public enum Command {
+        PROVISION_INPUT,
+        PROVISION_OUTPUT,
+        READ,
+        SET,
+        TOGGLE,
+        PULSE,
+        SEQUENCE,
+        PROVISION_PWM,
+        PWM_DUTY,
+        PWM_FREQUENCY,
+        PWM_RAMP,
+        EDGE_RESET
+    }
+
+    private static final Logger COMMAND_LOGGER = LoggerFactory.getLogger("gpio.command");
+    private static final Command[] COMMANDS = Command.values();
+
+    private static final int FIELD_TIMESTAMP = 0;
+    private static final int FIELD_COMMAND = 1;
+    private static final int FLAG_CHANGED = 1;
+    private static final int FLAG_ERROR = 2;
+    private static final int BATCH_SIZE = 256;
+
+    private final PrimitiveRing ring;
+    private final int sampleRate;
+    private final long flushIntervalNanos;
+    private final Writer fileWriter;
+    private final StringBuilder batch = new StringBuilder(BATCH_SIZE * 48);
+    private final PrimitiveRing.RecordHandler formatter = this::format;
+    private final Thread writer;
+    private volatile boolean running = true;
+
+    private final AtomicLong dropped = new AtomicLong();
+    private final AtomicLong sampledOut = new AtomicLong();
+    private volatile long written;
+
+    public CommandLog(CommandLogProperties properties, MeterRegistry meterRegistry) throws IOException {
+        this.ring = new PrimitiveRing(properties.getCapacity(), 2);
+        this.sampleRate = Math.max(1, properties.getSampleRate());
+        this.flushIntervalNanos = properties.getFlushInterval().toNanos();
+        this.fileWriter = openFile(properties.getFile());
+
+        Gauge.builder("gpio.command.log.pending", ring, PrimitiveRing::size).register(meterRegistry);
+        FunctionCounter.builder("gpio.command.log.dropped", dropped, AtomicLong::get)
+            .description("Commands dropped because the log buffer was full")
+            .register(meterRegistry);
+        FunctionCounter.builder("gpio.command.log.sampled.out", sampledOut, AtomicLong::get).register(meterRegistry);
+        FunctionCounter.builder("gpio.command.log.written", this, commandLog -> commandLog.written).register(meterRegistry);
+
+        this.writer = new Thread(this::run, "gpio-command-log");
+        this.writer.setDaemon(true);
+        this.writer.setPriority(Thread.MIN_PRIORITY);
+        this.writer.start();
+    }
+
+    private static Writer openFile(String file) throws IOException {
+        if (file == null || file.isEmpty()) {
+            return null;
+        }
+        final Path path = Paths.get(file);
+        if (path.getParent() != null) {
+            Files.createDirectories(path.getParent());
+        }
+        return new BufferedWriter(Files.newBufferedWriter(path, StandardCharsets.UTF_8,
+            StandardOpenOption.CREATE, StandardOpenOption.APPEND, StandardOpenOption.WRITE), 16 * 1024);
+    }
+
+    /**
+     * Log a successful command.
+     *
+     * @param command The command.
+     * @param address The address of the GPIO pin.
+     * @param value The value of the command (level, state read, duration, duty cycle percent, frequency).
+     * @param changed True if the command changed the state of the pin.
+     */
+    public void record(final Command command, final int address, final int value, final boolean changed) {
+        if (!changed && sampleRate > 1 && ThreadLocalRandom.current().nextInt(sampleRate) != 0) {
+            sampledOut.incrementAndGet();
+            return;
+        }
+        append(command, address, value, changed ? FLAG_CHANGED : 0);
+    }
+
+    /**
+     * Log a failed command, failures are never sampled out.
+     *
+     * @param command The command.
+     * @param address The address of the GPIO pin.
+     * @param value The value of the command.
+     */
+    public void recordError(final Command command, final int address, final int value) {
+        append(command, address, value, FLAG_ERROR);
+    }
+
+    private void append(Command command, int address, int value, int flags) {
+        final long position = ring.claim();
+        if (position < 0) {
+            dropped.incrementAndGet();
+            return;
+        }
+        ring.put(position, FIELD_TIMESTAMP, System.currentTimeMillis());
+        ring.put(position, FIELD_COMMAND, ((long) command.ordinal() << 56)
+            | ((long) (flags & 0xFF) << 48)
+            | ((long) (address & 0xFFFF) << 32)
+            | (value & 0xFFFFFFFFL));
+        ring.publish(position);
+    }
+
+    private void run() {
+        while (running) {
+            final int count = ring.drain(formatter, BATCH_SIZE);
+            if (count > 0) {
+                flush(count);
+            }
+            if (count < BATCH_SIZE) {
+                LockSupport.parkNanos(flushIntervalNanos);
+            }
+        }
+        final int count = ring.drain(formatter, Integer.MAX_VALUE);
+        if (count > 0) {
+            flush(count);
+        }
+    }
+
+    private void format(PrimitiveRing ring, long position) {
+        final long packed = ring.get(position, FIELD_COMMAND);
+        final int flags = (int) (packed >>> 48) & 0xFF;
+
+        batch.append(Instant.ofEpochMilli(ring.get(position, FIELD_TIMESTAMP)))
+            .append(' ').append(COMMANDS[(int) (packed >>> 56)])
+            .append(" address=").append((short) (packed >>> 32))
+            .append(" value=").append((int) packed)
+            .append((flags & FLAG_ERROR) != 0 ? " error" : ((flags & FLAG_CHANGED) != 0 ? " changed" : ""))
+            .append('\n');
+    }
+
+    private void flush(int count) {
+        try {
+            if (fileWriter != null) {
+                fileWriter.append(batch);
+                fileWriter.flush();
+            } else {
+                COMMAND_LOGGER.info("{} command(s)\n{}", count, batch);
+            }
+            written += count;
+        } catch (IOException ex) {
+            log.error("Unable to write the command log: {}", ex.getMessage());
+        } finally {
+            batch.setLength(0);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() throws IOException, InterruptedException {
+        running = false;
+        LockSupport.unpark(writer);
+        writer.join(TimeUnit.SECONDS.toMillis(5));
+        if (fileWriter != null) {
+            fileWriter.close();
+        }
+    }
+}
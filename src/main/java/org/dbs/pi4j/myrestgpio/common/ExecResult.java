@@ -0,0 +1,23 @@
+package org.dbs.pi4j.myrestgpio.common;
+
+import lombok.Value;
+
+import java.util.List;
+
+/**
+ * Outcome of a command run by the {@link ProcessExecutor}.
+ */
+@Value
+public class ExecResult {
+    int exitCode;
+    List<String> lines;
+    boolean timedOut;
+    boolean truncated;
+
+    /**
+     * @return True if the command completed with a zero exit code within its limits.
+     */
+    public boolean isSuccess() {
+        return exitCode == 0 && !timedOut && !truncated;
+    }
+}
@@ -1,5 +1,7 @@
 package org.dbs.pi4j.myrestgpio.common;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import lombok.extern.slf4j.Slf4j;
 import org.aspectj.lang.ProceedingJoinPoint;
 import org.aspectj.lang.annotation.AfterThrowing;
@@ -10,15 +12,32 @@ import org.aspectj.lang.reflect.MethodSignature;
 import org.slf4j.MDC;
 import org.springframework.context.annotation.Configuration;
 
-import com.codahale.metrics.Timer;
+import java.lang.reflect.Method;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
 
 @Slf4j
 @Aspect
 @Configuration
 public class LogAspect {
 
+    /**
+     * Name of the timer recording the latency of the methods annotated with {@link LogExecutionTime}.
+     */
+    public static final String API_TIMER = "gpio.api.requests";
+
     private String packageApiName ="org.dbs.pi4j.myrestgpio.myrest";
 
+    private final MeterRegistry meterRegistry;
+    private final ConcurrentMap<Method, EndpointTimers> timers = new ConcurrentHashMap<>();
+    private final Function<Method, EndpointTimers> timersFactory = this::createTimers;
+
+    public LogAspect(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
     @Pointcut("@annotation(org.dbs.pi4j.myrestgpio.common.LogException)")
     public void logException() {
     }
@@ -28,22 +47,66 @@ public class LogAspect {
         log.error(ex.getMessage(), ex);
     }
 
+    /**
+     * Record the latency of the annotated method in a timer per endpoint and outcome. The timers are created on the
+     * first call of each endpoint; afterwards a call costs a map lookup and the recording in the histogram.
+     */
     @Around("@annotation(org.dbs.pi4j.myrestgpio.common.LogExecutionTime)")
     public Object metricGlobal(final ProceedingJoinPoint proceedingJoinPoint) throws Throwable {
-        ProceedingJoinPoint pjp;
-        MethodSignature method = (MethodSignature) proceedingJoinPoint.getSignature();
-        LogExecutionTime ann = method.getMethod().getAnnotation(LogExecutionTime.class);
-        Timer timer = new Timer();
-        Timer.Context context = timer.time();
+        final Method method = ((MethodSignature) proceedingJoinPoint.getSignature()).getMethod();
+        EndpointTimers endpointTimers = timers.get(method);
+        if (endpointTimers == null) {
+            endpointTimers = timers.computeIfAbsent(method, timersFactory);
+        }
+
+        final long start = System.nanoTime();
+        boolean success = false;
         try {
-            return proceedingJoinPoint.proceed();
+            final Object result = proceedingJoinPoint.proceed();
+            success = true;
+            return result;
         } finally {
-            double timeInSecond = context.stop() / 1000000000.0;
-            MDC.put("endPoints", ann.value());
-            MDC.put("metrics", String.valueOf(timeInSecond));
-            log.info("Temps écoulé pour l'API {} ({}) : {} sec", ann.valueType(), proceedingJoinPoint.getSignature().getName(), timeInSecond);
-            MDC.remove("metrics");
-            MDC.remove("endPoints");
+            final long elapsed = System.nanoTime() - start;
+            (success ? endpointTimers.success : endpointTimers.error).record(elapsed, TimeUnit.NANOSECONDS);
+            if (log.isDebugEnabled()) {
+                logElapsedTime(proceedingJoinPoint, endpointTimers.annotation, elapsed);
+            }
+        }
+    }
+
+    private void logElapsedTime(ProceedingJoinPoint proceedingJoinPoint, LogExecutionTime ann, long elapsed) {
+        double timeInSecond = elapsed / 1000000000.0;
+        MDC.put("endPoints", ann.value());
+        MDC.put("metrics", String.valueOf(timeInSecond));
+        log.debug("Temps écoulé pour l'API {} ({}) : {} sec", ann.valueType(), proceedingJoinPoint.getSignature().getName(), timeInSecond);
+        MDC.remove("metrics");
+        MDC.remove("endPoints");
+    }
+
+    private EndpointTimers createTimers(Method method) {
+        final LogExecutionTime ann = method.getAnnotation(LogExecutionTime.class);
+        return new EndpointTimers(ann, createTimer(ann, "success"), createTimer(ann, "error"));
+    }
+
+    private Timer createTimer(LogExecutionTime ann, String outcome) {
+        return Timer.builder(API_TIMER)
+            .description("Latency of the REST API")
+            .tag("endpoint", ann.valueType())
+            .tag("outcome", outcome)
+            .publishPercentiles(0.5, 0.95, 0.99)
+            .publishPercentileHistogram()
+            .register(meterRegistry);
+    }
+
+    private static class EndpointTimers {
+        private final LogExecutionTime annotation;
+        private final Timer success;
+        private final Timer error;
+
+        EndpointTimers(LogExecutionTime annotation, Timer success, Timer error) {
+            this.annotation = annotation;
+            this.success = success;
+            this.error = error;
         }
     }
 }
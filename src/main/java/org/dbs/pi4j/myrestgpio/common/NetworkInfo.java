@@ -28,101 +28,269 @@ package org.dbs.pi4j.myrestgpio.common;
  */
 
 
+import lombok.extern.slf4j.Slf4j;
+import org.dbs.pi4j.myrestgpio.configuration.InfoProperties;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PreDestroy;
 import java.io.IOException;
+import java.net.Inet6Address;
+import java.net.InetAddress;
+import java.net.NetworkInterface;
+import java.net.SocketException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
 
+/**
+ * Network information of the board, read without spawning any process.
+ * <p>The host name and the name servers are read from {@code /etc/hostname} and {@code /etc/resolv.conf}, the
+ * addresses come from {@link NetworkInterface}. Everything is cached for {@code gpio.info.network-ttl}; a
+ * {@link WatchService} on {@code /etc} expires the cache as soon as one of these files changes.</p>
+ * <p>The reverse DNS lookups can take the resolver timeout per address, so an expired cache is refreshed on a
+ * background thread while the callers keep getting the previous information; only the very first call waits.</p>
+ */
+@Component
+@Slf4j
 public class NetworkInfo {
 
-    // private constructor
-    private NetworkInfo() {
-        // forbid object construction
+    private static final Path ETC = Paths.get("/etc");
+    private static final Path HOSTNAME_FILE = ETC.resolve("hostname");
+    private static final Path RESOLV_CONF = ETC.resolve("resolv.conf");
+    private static final Set<Path> WATCHED_FILES = Set.of(Paths.get("hostname"), Paths.get("resolv.conf"), Paths.get("hosts"));
+
+    private final long ttlNanos;
+    private volatile Snapshot snapshot;
+    private volatile boolean expired;
+    private final AtomicBoolean refreshing = new AtomicBoolean();
+    private WatchService watchService;
+
+    public NetworkInfo(InfoProperties properties) {
+        this.ttlNanos = properties.getNetworkTtl().toNanos();
+        startWatching();
+    }
+
+    public String getHostname() {
+        return snapshot().hostname;
+    }
+
+    public String getFQDN() {
+        return snapshot().fqdn;
+    }
+
+    public String[] getIPAddresses() {
+        return snapshot().ipAddresses.clone();
+    }
+
+    public String getIPAddress() {
+        final String[] ipAddresses = snapshot().ipAddresses;
+        return ipAddresses.length > 0 ? ipAddresses[0] : null;
+    }
+
+    public String[] getFQDNs() {
+        return snapshot().fqdns.clone();
+    }
+
+    public String[] getNameservers() {
+        return snapshot().nameservers.clone();
+    }
+
+    /**
+     * Expire the cached information, the next call starts reading it again.
+     */
+    public void invalidate() {
+        expired = true;
+    }
+
+    private Snapshot snapshot() {
+        final Snapshot current = snapshot;
+        if (current == null) {
+            return refresh();
+        }
+        if ((expired || System.nanoTime() - current.loadedAt >= ttlNanos) && refreshing.compareAndSet(false, true)) {
+            final Thread refresher = new Thread(() -> {
+                try {
+                    refresh();
+                } finally {
+                    refreshing.set(false);
+                }
+            }, "network-info-refresh");
+            refresher.setDaemon(true);
+            refresher.start();
+        }
+        return current;
+    }
+
+    private Snapshot refresh() {
+        expired = false;
+        final Snapshot loaded = load();
+        snapshot = loaded;
+        return loaded;
+    }
+
+    private static Snapshot load() {
+        final List<InetAddress> addresses = readAddresses();
+
+        final String[] ipAddresses = new String[addresses.size()];
+        final Set<String> fqdns = new LinkedHashSet<>();
+        for (int index = 0; index < addresses.size(); index++) {
+            final InetAddress address = addresses.get(index);
+            ipAddresses[index] = hostAddress(address);
+
+            final String name = address.getCanonicalHostName();
+            if (name.contains(".") && !name.equals(address.getHostAddress())) {
+                fqdns.add(name);
+            }
+        }
+
+        return new Snapshot(readHostname(), readFqdn(), ipAddresses, fqdns.toArray(new String[0]), readNameservers());
     }
 
-    public static String getHostname() throws IOException, InterruptedException {
-        return ExecUtil.execute("hostname --short")[0];
+    private static String readHostname() {
+        String hostname = null;
+        try {
+            if (Files.isReadable(HOSTNAME_FILE)) {
+                hostname = Files.readAllLines(HOSTNAME_FILE, StandardCharsets.UTF_8).stream()
+                    .map(String::trim)
+                    .filter(line -> !line.isEmpty() && !line.startsWith("#"))
+                    .findFirst()
+                    .orElse(null);
+            }
+            if (hostname == null) {
+                hostname = InetAddress.getLocalHost().getHostName();
+            }
+        } catch (IOException ex) {
+            log.error("Unable to read the host name: {}", ex.getMessage());
+            return null;
+        }
+        final int dot = hostname.indexOf('.');
+        return dot > 0 ? hostname.substring(0, dot) : hostname;
     }
 
-    public static String getFQDN() throws IOException, InterruptedException {
-        return ExecUtil.execute("hostname --fqdn")[0];
+    private static String readFqdn() {
+        try {
+            return InetAddress.getLocalHost().getCanonicalHostName();
+        } catch (IOException ex) {
+            log.error("Unable to resolve the FQDN: {}", ex.getMessage());
+            return null;
+        }
     }
 
-    public static String[] getIPAddresses() throws IOException, InterruptedException {
-        return ExecUtil.execute("hostname --all-ip-addresses", " ");
+    /**
+     * Same addresses as {@code hostname --all-ip-addresses}: all the addresses of the interfaces which are up,
+     * except loopback and link-local addresses.
+     */
+    private static List<InetAddress> readAddresses() {
+        final List<InetAddress> addresses = new ArrayList<>();
+        try {
+            for (final NetworkInterface networkInterface : Collections.list(NetworkInterface.getNetworkInterfaces())) {
+                if (!networkInterface.isUp() || networkInterface.isLoopback()) {
+                    continue;
+                }
+                for (final InetAddress address : Collections.list(networkInterface.getInetAddresses())) {
+                    if (!address.isLoopbackAddress() && !address.isLinkLocalAddress()) {
+                        addresses.add(address);
+                    }
+                }
+            }
+        } catch (SocketException ex) {
+            log.error("Unable to list the network interfaces: {}", ex.getMessage());
+        }
+        return addresses;
     }
 
-    public static String getIPAddress() throws IOException, InterruptedException {
-        return ExecUtil.execute("hostname -i")[0];
+    private static String hostAddress(InetAddress address) {
+        final String hostAddress = address.getHostAddress();
+        final int scope = hostAddress.indexOf('%');
+        return address instanceof Inet6Address && scope > 0 ? hostAddress.substring(0, scope) : hostAddress;
     }
 
-    public static String[] getFQDNs() throws IOException, InterruptedException {
-        return ExecUtil.execute("hostname --all-fqdns", " ");
+    private static String[] readNameservers() {
+        final List<String> result = new ArrayList<>();
+        try {
+            for (final String line : Files.readAllLines(RESOLV_CONF, StandardCharsets.UTF_8)) {
+                final String trimmed = line.trim();
+                if (trimmed.startsWith("nameserver")) {
+                    result.add(trimmed.substring(10).trim());
+                }
+            }
+        } catch (IOException ex) {
+            log.error("Unable to read {}: {}", RESOLV_CONF, ex.getMessage());
+        }
+        return result.toArray(new String[0]);
+    }
+
+    private void startWatching() {
+        try {
+            watchService = FileSystems.getDefault().newWatchService();
+            ETC.register(watchService, StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_MODIFY,
+                StandardWatchEventKinds.ENTRY_DELETE);
+        } catch (IOException | RuntimeException ex) {
+            log.warn("Unable to watch {}, network information only refreshed every {} s: {}", ETC,
+                ttlNanos / 1_000_000_000L, ex.getMessage());
+            return;
+        }
+
+        final Thread watcher = new Thread(this::watch, "network-info-watcher");
+        watcher.setDaemon(true);
+        watcher.start();
     }
 
-    public static String[] getNameservers() throws IOException, InterruptedException {
-        String[] nameservers = ExecUtil.execute("cat /etc/resolv.conf");
-        List<String> result = new ArrayList<>();
-        for (String nameserver : nameservers) {
-            if (nameserver.startsWith("nameserver")) {
-                result.add(nameserver.substring(11).trim());
+    private void watch() {
+        try {
+            while (true) {
+                final WatchKey key = watchService.take();
+                for (final WatchEvent<?> event : key.pollEvents()) {
+                    if (event.kind() == StandardWatchEventKinds.OVERFLOW || WATCHED_FILES.contains((Path) event.context())) {
+                        log.debug("{} changed, dropping the cached network information", event.context());
+                        invalidate();
+                    }
+                }
+                if (!key.reset()) {
+                    return;
+                }
             }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        } catch (ClosedWatchServiceException ex) {
+            // stopped
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() throws IOException {
+        if (watchService != null) {
+            watchService.close();
         }
-        return result.toArray(new String[result.size()]);
-    }
-
-//    public static Map<String,NetworkInterface> getNetworkInterfaces() throws IOException, InterruptedException {
-//
-//        Map<String,NetworkInterface> interfaces = new HashMap<String, NetworkInterface>();
-//
-//        List<String> result = new ArrayList<String>();
-//        Process p = Runtime.getRuntime().exec("ifconfig");
-//        p.waitFor();
-//        BufferedReader reader = new BufferedReader(new InputStreamReader(p.getInputStream()));
-//        String line = reader.readLine();
-//        String key = null;
-//        while (line != null) {
-//
-//            if (!line.isEmpty()) {
-//
-//                // if the line does start with string data and not spaces, then
-//                // it is a new interface record
-//                if (!line.startsWith("  ")) {
-//
-//                    String[] parts = line.split(" ", 2);
-//                    key = parts[0].trim();
-//                    //interfaces.put(key, value);
-//                }
-//
-//                if (key != null && !key.isEmpty()) {
-//
-//                    String[] properties = line.split("  ");
-//                    for (String property : properties) {
-//                        String[] propparts = property.split(":",2);
-//
-//                    }
-//                }
-//
-////                if (split != null || split.isEmpty()) {
-////                    result.add(line.trim());
-////                    System.out.println(line.trim());
-////                } else {
-////                    String[] parts = line.trim().split(split);
-////                    for (String part : parts) {
-////                        if (part != null && !part.isEmpty()) {
-////                            result.add(part.trim());
-////                            System.out.println(part.trim());
-////                        }
-////                    }
-////                }
-//            }
-//            line = reader.readLine();
-//        }
-//
-//
-//
-//        //throw new RuntimeException("Invalid command: " + command);
-//
-//        return interfaces;
-//    }
+    }
 
+    private static class Snapshot {
+        private final long loadedAt = System.nanoTime();
+        private final String hostname;
+        private final String fqdn;
+        private final String[] ipAddresses;
+        private final String[] fqdns;
+        private final String[] nameservers;
+
+        Snapshot(String hostname, String fqdn, String[] ipAddresses, String[] fqdns, String[] nameservers) {
+            this.hostname = hostname;
+            this.fqdn = fqdn;
+            this.ipAddresses = ipAddresses;
+            this.fqdns = fqdns;
+            this.nameservers = nameservers;
+        }
+    }
 }
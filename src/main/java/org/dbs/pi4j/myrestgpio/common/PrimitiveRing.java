@@ -0,0 +1,125 @@
+package org.dbs.pi4j.myrestgpio.common;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Bounded, lock-free, multi-producer single-consumer ring of fixed-width records made of {@code long} fields.
+ * <p>Records are written in place, so neither producers nor the consumer allocate. A producer {@link #claim()}s a
+ * slot, {@link #put(long, int, long)}s the fields and {@link #publish(long)}es it; the consumer reads the published
+ * records in order with {@link #drain(RecordHandler, int)}. When the ring is full, {@link #claim()} fails instead of
+ * blocking, the caller decides what to do with the record.</p>
+ * <p>Each slot carries a sequence number telling whether it is free for the producer of a given lap or published for
+ * the consumer (Vyukov bounded queue).</p>
+ */
+public class PrimitiveRing {
+
+    /**
+     * Receives the records drained from the ring.
+     */
+    public interface RecordHandler {
+        /**
+         * @param ring The ring, to read the fields with {@link #get(long, int)}.
+         * @param position The position of the record, only valid during the call.
+         */
+        void onRecord(PrimitiveRing ring, long position);
+    }
+
+    private final int capacity;
+    private final int mask;
+    private final int width;
+    private final long[] data;
+    private final AtomicLongArray sequences;
+    private final AtomicLong tail = new AtomicLong();
+    private volatile long head;
+
+    /**
+     * @param capacity The number of records, rounded up to a power of two.
+     * @param width The number of {@code long} fields of a record.
+     */
+    public PrimitiveRing(int capacity, int width) {
+        this.capacity = Integer.highestOneBit(Math.max(2, capacity - 1)) << 1;
+        this.mask = this.capacity - 1;
+        this.width = width;
+        this.data = new long[this.capacity * width];
+        this.sequences = new AtomicLongArray(this.capacity);
+        for (int index = 0; index < this.capacity; index++) {
+            sequences.set(index, index);
+        }
+    }
+
+    /**
+     * Claim a slot for a new record.
+     *
+     * @return The position of the slot, or -1 if the ring is full.
+     */
+    public long claim() {
+        while (true) {
+            final long position = tail.get();
+            final long sequence = sequences.get((int) (position & mask));
+            if (sequence == position) {
+                if (tail.compareAndSet(position, position + 1)) {
+                    return position;
+                }
+            } else if (sequence < position) {
+                return -1;
+            }
+        }
+    }
+
+    /**
+     * Write a field of a claimed record.
+     */
+    public void put(long position, int field, long value) {
+        data[(int) (position & mask) * width + field] = value;
+    }
+
+    /**
+     * Make a claimed record visible to the consumer.
+     */
+    public void publish(long position) {
+        sequences.lazySet((int) (position & mask), position + 1);
+    }
+
+    /**
+     * Read a field of the record being drained.
+     */
+    public long get(long position, int field) {
+        return data[(int) (position & mask) * width + field];
+    }
+
+    /**
+     * Hand the published records to the handler, in order. Must only be called by the consumer thread.
+     *
+     * @param handler The handler.
+     * @param max The maximum number of records to drain.
+     * @return The number of records drained.
+     */
+    public int drain(RecordHandler handler, int max) {
+        long position = head;
+        int count = 0;
+        while (count < max) {
+            final int index = (int) (position & mask);
+            if (sequences.get(index) != position + 1) {
+                break;
+            }
+            handler.onRecord(this, position);
+            sequences.lazySet(index, position + capacity);
+            position++;
+            count++;
+        }
+        head = position;
+        return count;
+    }
+
+    /**
+     * @return The approximate number of records waiting for the consumer.
+     */
+    public int size() {
+        return (int) Math.max(0, tail.get() - head);
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+}
@@ -0,0 +1,262 @@
+package org.dbs.pi4j.myrestgpio.common;
+
+import lombok.extern.slf4j.Slf4j;
+import org.dbs.pi4j.myrestgpio.configuration.ProcessProperties;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PreDestroy;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * Runs external commands with bounded time, memory and concurrency.
+ * <p>Standard output and standard error are drained concurrently from the start, so a command writing more than the
+ * pipe buffer never blocks; only the first bytes of the standard error are kept, the rest is read and discarded. The
+ * output is streamed line by line to a consumer. A command is killed when it runs longer than {@code gpio.exec.timeout}
+ * or writes more than {@code gpio.exec.max-output-bytes}, and at most {@code gpio.exec.max-concurrent} commands run at
+ * the same time. Results of idempotent commands can be cached.</p>
+ */
+@Component
+@Slf4j
+public class ProcessExecutor {
+
+    private static final int MAX_STDERR_BYTES = 4 * 1024;
+
+    private final Duration timeout;
+    private final int maxOutputBytes;
+    private final Semaphore permits;
+    private final ExecutorService drainers;
+    private final Map<String, CachedResult> cache = new ConcurrentHashMap<>();
+
+    public ProcessExecutor(ProcessProperties properties) {
+        this.timeout = properties.getTimeout();
+        this.maxOutputBytes = properties.getMaxOutputBytes();
+        this.permits = new Semaphore(Math.max(1, properties.getMaxConcurrent()), true);
+        this.drainers = Executors.newCachedThreadPool(runnable -> {
+            Thread thread = new Thread(runnable, "exec-drain");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Run a command and collect its non-empty output lines.
+     *
+     * @param command The command and its arguments.
+     * @return The {@link ExecResult}.
+     * @throws IOException If the command cannot be started, or too many commands are running.
+     * @throws InterruptedException If the calling thread is interrupted while waiting.
+     */
+    public ExecResult execute(final String... command) throws IOException, InterruptedException {
+        final Outcome<List<String>> outcome = run(Arrays.asList(command), () -> {
+            final List<String> lines = new ArrayList<>();
+            return new LineSink<>(lines, line -> {
+                if (!line.isEmpty()) {
+                    lines.add(line.trim());
+                }
+            });
+        });
+        final List<String> lines = outcome.output != null ? outcome.output : List.of();
+        return new ExecResult(outcome.exitCode, lines, outcome.timedOut, outcome.truncated);
+    }
+
+    /**
+     * Run an idempotent command, its successful result is reused for the given time.
+     *
+     * @param ttl How long the result is reused.
+     * @param command The command and its arguments.
+     * @return The {@link ExecResult}.
+     * @throws IOException If the command cannot be started, or too many commands are running.
+     * @throws InterruptedException If the calling thread is interrupted while waiting.
+     */
+    public ExecResult executeCached(final Duration ttl, final String... command) throws IOException, InterruptedException {
+        final String key = String.join(" ", command);
+        final CachedResult cached = cache.get(key);
+        if (cached != null && System.nanoTime() < cached.expiresAt) {
+            return cached.result;
+        }
+
+        final ExecResult result = execute(command);
+        if (result.isSuccess()) {
+            cache.put(key, new CachedResult(result, System.nanoTime() + ttl.toNanos()));
+        }
+        return result;
+    }
+
+    /**
+     * Run a command and stream its output lines to the consumer, from a drain thread.
+     *
+     * @param command The command and its arguments.
+     * @param stdout Receives each line of the standard output.
+     * @return The exit code of the command, -1 if it was killed.
+     * @throws IOException If the command cannot be started, or too many commands are running.
+     * @throws InterruptedException If the calling thread is interrupted while waiting.
+     */
+    public int stream(final List<String> command, final Consumer<String> stdout) throws IOException, InterruptedException {
+        return run(command, () -> new LineSink<Void>(null, stdout)).exitCode;
+    }
+
+    /**
+     * @param stdout Creates, on the drain thread, the sink of the standard output; its result is only handed over
+     *               once the drain has completed, a drain still blocked in a read after the deadline keeps it.
+     */
+    private <T> Outcome<T> run(List<String> command, Supplier<LineSink<T>> stdout)
+        throws IOException, InterruptedException {
+        final long deadline = System.nanoTime() + timeout.toNanos();
+        if (!permits.tryAcquire(timeout.toNanos(), TimeUnit.NANOSECONDS)) {
+            throw new IOException("Too many external commands running, unable to run " + command.get(0));
+        }
+
+        Process process = null;
+        try {
+            process = new ProcessBuilder(command).start();
+            process.getOutputStream().close();
+
+            final AtomicBoolean truncated = new AtomicBoolean();
+            final Process started = process;
+            final Future<T> out = drainers.submit(() -> {
+                final LineSink<T> sink = stdout.get();
+                if (!readLines(started.getInputStream(), maxOutputBytes, sink.consumer)) {
+                    truncated.set(true);
+                    started.destroyForcibly();
+                }
+                return sink.result;
+            });
+            final Future<ByteArrayOutputStream> err = drainers.submit(() -> {
+                final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+                final InputStream input = started.getErrorStream();
+                if (!readLines(input, MAX_STDERR_BYTES,
+                    line -> bytes.writeBytes((line + '\n').getBytes(StandardCharsets.UTF_8)))) {
+                    // Only the start of stderr is kept, but the pipe is read to the end so the command never blocks
+                    bytes.writeBytes("...\n".getBytes(StandardCharsets.UTF_8));
+                    input.transferTo(OutputStream.nullOutputStream());
+                }
+                return bytes;
+            });
+
+            final boolean completed = process.waitFor(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+            if (!completed) {
+                log.warn("Command {} did not complete within {} ms, killing it", command.get(0), timeout.toMillis());
+                process.destroyForcibly();
+            }
+            final T output = await(out, deadline);
+            final ByteArrayOutputStream stderr = await(err, deadline);
+
+            if (stderr != null && stderr.size() > 0 && log.isDebugEnabled()) {
+                log.debug("Command {} wrote on stderr: {}", command.get(0), stderr.toString(StandardCharsets.UTF_8));
+            }
+            final int exitCode = completed && !truncated.get() ? process.exitValue() : -1;
+            return new Outcome<>(exitCode, !completed, truncated.get(), output);
+        } finally {
+            if (process != null && process.isAlive()) {
+                process.destroyForcibly();
+            }
+            permits.release();
+        }
+    }
+
+    /**
+     * @return The result of the drain, null if it is still blocked after the deadline.
+     */
+    private static <T> T await(Future<T> drain, long deadline) throws InterruptedException, IOException {
+        try {
+            return drain.get(Math.max(0, deadline - System.nanoTime()) + TimeUnit.SECONDS.toNanos(1),
+                TimeUnit.NANOSECONDS);
+        } catch (ExecutionException ex) {
+            throw new IOException("Unable to read the command output", ex.getCause());
+        } catch (TimeoutException ex) {
+            drain.cancel(true);
+            return null;
+        }
+    }
+
+    /**
+     * Split a stream into lines, without ever holding more than the given number of bytes.
+     *
+     * @return False if the limit was reached before the end of the stream.
+     */
+    private static boolean readLines(InputStream input, int limit, Consumer<String> consumer) throws IOException {
+        final byte[] buffer = new byte[4096];
+        final ByteArrayOutputStream line = new ByteArrayOutputStream(256);
+        int total = 0;
+        int read;
+        while ((read = input.read(buffer)) != -1) {
+            total += read;
+            if (total > limit) {
+                return false;
+            }
+            int start = 0;
+            for (int index = 0; index < read; index++) {
+                if (buffer[index] == '\n') {
+                    line.write(buffer, start, index - start);
+                    consumer.accept(line.toString(StandardCharsets.UTF_8));
+                    line.reset();
+                    start = index + 1;
+                }
+            }
+            line.write(buffer, start, read - start);
+        }
+        if (line.size() > 0) {
+            consumer.accept(line.toString(StandardCharsets.UTF_8));
+        }
+        return true;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        drainers.shutdownNow();
+    }
+
+    private static class Outcome<T> {
+        private final int exitCode;
+        private final boolean timedOut;
+        private final boolean truncated;
+        private final T output;
+
+        Outcome(int exitCode, boolean timedOut, boolean truncated, T output) {
+            this.exitCode = exitCode;
+            this.timedOut = timedOut;
+            this.truncated = truncated;
+            this.output = output;
+        }
+    }
+
+    private static class LineSink<T> {
+        private final T result;
+        private final Consumer<String> consumer;
+
+        LineSink(T result, Consumer<String> consumer) {
+            this.result = result;
+            this.consumer = consumer;
+        }
+    }
+
+    private static class CachedResult {
+        private final ExecResult result;
+        private final long expiresAt;
+
+        CachedResult(ExecResult result, long expiresAt) {
+            this.result = result;
+            this.expiresAt = expiresAt;
+        }
+    }
+}
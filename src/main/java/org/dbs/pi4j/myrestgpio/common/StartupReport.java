@@ -0,0 +1,77 @@
+package org.dbs.pi4j.myrestgpio.common;
+
+import lombok.extern.slf4j.Slf4j;
+import org.dbs.pi4j.myrestgpio.configuration.StartupProperties;
+import org.dbs.pi4j.myrestgpio.mygpio.MyGpioController;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.boot.context.metrics.buffering.BufferingApplicationStartup;
+import org.springframework.boot.context.metrics.buffering.StartupTimeline.TimelineEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.metrics.ApplicationStartup;
+import org.springframework.core.metrics.StartupStep;
+import org.springframework.stereotype.Component;
+
+import java.lang.management.ManagementFactory;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Logs where the startup time went once the service is ready: the time from the start of the JVM to the web server
+ * and to the GPIO layer, and the slowest startup steps recorded by the {@link BufferingApplicationStartup}.
+ * <p>A warning is logged when the GPIO layer is ready later than {@code gpio.startup.budget}. The full timeline is
+ * served by the {@code startup} actuator endpoint.</p>
+ */
+@Component
+@Slf4j
+public class StartupReport {
+
+    private final ApplicationStartup applicationStartup;
+    private final MyGpioController myGpioController;
+    private final StartupProperties properties;
+
+    public StartupReport(ApplicationStartup applicationStartup, MyGpioController myGpioController,
+                         StartupProperties properties) {
+        this.applicationStartup = applicationStartup;
+        this.myGpioController = myGpioController;
+        this.properties = properties;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        final long applicationReady = ManagementFactory.getRuntimeMXBean().getUptime();
+        log.info("Application ready {} ms after the start of the JVM", applicationReady);
+        if (applicationStartup instanceof BufferingApplicationStartup && properties.getReportSteps() > 0) {
+            log.info("Slowest startup steps:{}", describeSlowestSteps((BufferingApplicationStartup) applicationStartup));
+        }
+
+        myGpioController.readiness().whenComplete((initDuration, ex) -> {
+            if (ex != null) {
+                return;
+            }
+            final long gpioReady = ManagementFactory.getRuntimeMXBean().getUptime();
+            log.info("Service ready {} ms after the start of the JVM, GPIO layer initialized in {} ms", gpioReady,
+                initDuration.toMillis());
+            if (gpioReady > properties.getBudget().toMillis()) {
+                log.warn("Startup took {} ms, over the budget of {} ms", gpioReady, properties.getBudget().toMillis());
+            }
+        });
+    }
+
+    private String describeSlowestSteps(BufferingApplicationStartup startup) {
+        final List<TimelineEvent> events = startup.getBufferedTimeline().getEvents();
+        return events.stream()
+            .sorted(Comparator.comparing(TimelineEvent::getDuration).reversed())
+            .limit(properties.getReportSteps())
+            .map(event -> String.format("%n%8d ms  %s", event.getDuration().toMillis(), describe(event.getStartupStep())))
+            .collect(Collectors.joining());
+    }
+
+    private static String describe(StartupStep step) {
+        final StringBuilder description = new StringBuilder(step.getName());
+        for (StartupStep.Tag tag : step.getTags()) {
+            description.append(' ').append(tag.getKey()).append('=').append(tag.getValue());
+        }
+        return description.toString();
+    }
+}
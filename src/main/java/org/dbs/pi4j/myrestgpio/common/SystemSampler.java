@@ -0,0 +1,457 @@
+package org.dbs.pi4j.myrestgpio.common;
+
+import lombok.extern.slf4j.Slf4j;
+import org.dbs.pi4j.myrestgpio.configuration.InfoProperties;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PreDestroy;
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.lang.management.MemoryUsage;
+import java.lang.management.OperatingSystemMXBean;
+import java.lang.management.RuntimeMXBean;
+import java.lang.management.ThreadMXBean;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Background sampler of the system telemetry: load, CPU usage and temperature, memory, firmware throttling state
+ * and JVM figures.
+ * <p>A single thread reads {@code /proc}, {@code /sys} and the JVM MXBeans every {@code gpio.info.sample-interval},
+ * parsing the files from one reused buffer. Requests are served from the latest {@link SystemSnapshot}; the last
+ * {@code gpio.info.history-size} snapshots are kept so that a client can get a trend in one call.</p>
+ */
+@Component
+@Slf4j
+public class SystemSampler {
+
+    private static final Path PROC_LOADAVG = Paths.get("/proc/loadavg");
+    private static final Path PROC_MEMINFO = Paths.get("/proc/meminfo");
+    private static final Path PROC_STAT = Paths.get("/proc/stat");
+    private static final Path PROC_CPUINFO = Paths.get("/proc/cpuinfo");
+    private static final Path PROC_VERSION = Paths.get("/proc/version");
+    private static final Path THERMAL = Paths.get("/sys/class/thermal");
+    private static final Path FIRMWARE_THROTTLED = Paths.get("/sys/devices/platform/soc/soc:firmware/get_throttled");
+
+    private final ProcessExecutor processExecutor;
+    private final ScheduledExecutorService scheduler;
+    private final byte[] buffer = new byte[16 * 1024];
+    private int length;
+
+    private final SystemSnapshot[] history;
+    private int historyNext;
+    private int historyCount;
+    private volatile SystemSnapshot latest;
+
+    private volatile Map<String, String> osInfo = Collections.emptyMap();
+    private Path cpuTemperatureFile;
+    private boolean vcgencmdAvailable = true;
+    private boolean throttledFileAvailable;
+    private long previousCpuTotal;
+    private long previousCpuIdle;
+
+    public SystemSampler(InfoProperties properties, ProcessExecutor processExecutor) {
+        this.processExecutor = processExecutor;
+        this.history = new SystemSnapshot[Math.max(1, properties.getHistorySize())];
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "system-sampler");
+            thread.setDaemon(true);
+            thread.setPriority(Thread.MIN_PRIORITY);
+            return thread;
+        });
+
+        final long interval = properties.getSampleInterval().toMillis();
+        scheduler.execute(this::initialize);
+        scheduler.scheduleWithFixedDelay(this::sample, 0, interval, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * @return The latest snapshot, null until the first sample is taken.
+     */
+    public SystemSnapshot getLatest() {
+        return latest;
+    }
+
+    /**
+     * @param since Only the snapshots taken after this time, in milliseconds since the epoch.
+     * @return The snapshots of the history, oldest first.
+     */
+    public List<SystemSnapshot> getHistory(final long since) {
+        synchronized (history) {
+            final List<SystemSnapshot> snapshots = new ArrayList<>(historyCount);
+            for (int index = 0; index < historyCount; index++) {
+                final SystemSnapshot snapshot = history[(historyNext - historyCount + index + history.length) % history.length];
+                if (snapshot.getTimestamp() > since) {
+                    snapshots.add(snapshot);
+                }
+            }
+            return snapshots;
+        }
+    }
+
+    /**
+     * @return The static information of the operating system and the board, read once at startup.
+     */
+    public Map<String, String> getOsInfo() {
+        return osInfo;
+    }
+
+    private void initialize() {
+        final Map<String, String> info = new TreeMap<>();
+        info.put("Name", System.getProperty("os.name"));
+        info.put("Version", System.getProperty("os.version"));
+        info.put("Architecture", System.getProperty("os.arch"));
+
+        if (load(PROC_VERSION)) {
+            info.put("Kernel", text(0, lineEnd(0)).trim());
+        }
+        if (load(PROC_CPUINFO)) {
+            putCpuInfo(info, "Hardware", "Hardware");
+            putCpuInfo(info, "Revision", "Revision");
+            putCpuInfo(info, "Serial", "Serial");
+            putCpuInfo(info, "Model", "Model");
+            putCpuInfo(info, "CpuModel", "model name");
+        }
+        info.put("Processors", String.valueOf(Runtime.getRuntime().availableProcessors()));
+        putFirmware(info);
+        osInfo = Collections.unmodifiableMap(info);
+
+        cpuTemperatureFile = findCpuTemperatureFile();
+        probeThrottling();
+    }
+
+    /**
+     * Pick the source of the throttling state once: the firmware file, else {@code vcgencmd} if a first call
+     * succeeds, else none, so that a board without either never forks a process per sample.
+     */
+    private void probeThrottling() {
+        throttledFileAvailable = Files.isReadable(FIRMWARE_THROTTLED);
+        if (!throttledFileAvailable && vcgencmdAvailable) {
+            readThrottledFromVcgencmd();
+        }
+        if (!throttledFileAvailable && !vcgencmdAvailable) {
+            log.info("Throttling state not available on this board");
+        }
+    }
+
+    private void putCpuInfo(Map<String, String> info, String name, String key) {
+        final int value = valueIndex(key);
+        if (value >= 0) {
+            info.put(name, text(value, lineEnd(value)).trim());
+        }
+    }
+
+    private void putFirmware(Map<String, String> info) {
+        try {
+            final ExecResult result = processExecutor.executeCached(Duration.ofHours(1), "vcgencmd", "version");
+            if (result.isSuccess() && result.getLines().size() >= 3) {
+                info.put("FirmwareDate", result.getLines().get(0));
+                info.put("FirmwareBuild", result.getLines().get(2));
+            }
+        } catch (IOException ex) {
+            log.debug("Firmware version not available: {}", ex.getMessage());
+            vcgencmdAvailable = false;
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static Path findCpuTemperatureFile() {
+        Path first = null;
+        try (DirectoryStream<Path> zones = Files.newDirectoryStream(THERMAL, "thermal_zone*")) {
+            for (final Path zone : zones) {
+                final Path temp = zone.resolve("temp");
+                if (!Files.isReadable(temp)) {
+                    continue;
+                }
+                final String type = Files.readString(zone.resolve("type"), StandardCharsets.UTF_8).trim();
+                if (type.contains("cpu")) {
+                    return temp;
+                }
+                if (first == null) {
+                    first = temp;
+                }
+            }
+        } catch (IOException ex) {
+            log.debug("No thermal zone available: {}", ex.getMessage());
+        }
+        return first;
+    }
+
+    private void sample() {
+        try {
+            final SystemSnapshot.SystemSnapshotBuilder snapshot = SystemSnapshot.builder()
+                .timestamp(System.currentTimeMillis());
+            sampleLoad(snapshot);
+            sampleCpuUsage(snapshot);
+            sampleMemory(snapshot);
+            sampleTemperature(snapshot);
+            sampleThrottling(snapshot);
+            sampleJvm(snapshot);
+
+            final SystemSnapshot built = snapshot.build();
+            synchronized (history) {
+                history[historyNext] = built;
+                historyNext = (historyNext + 1) % history.length;
+                historyCount = Math.min(historyCount + 1, history.length);
+            }
+            latest = built;
+        } catch (RuntimeException ex) {
+            log.error("Unable to sample the system telemetry", ex);
+        }
+    }
+
+    private void sampleLoad(SystemSnapshot.SystemSnapshotBuilder snapshot) {
+        if (load(PROC_LOADAVG)) {
+            int index = 0;
+            snapshot.load1(parseDecimal(index));
+            index = nextField(index);
+            snapshot.load5(parseDecimal(index));
+            index = nextField(index);
+            snapshot.load15(parseDecimal(index));
+        } else {
+            snapshot.load1(-1).load5(-1).load15(-1);
+        }
+    }
+
+    private void sampleCpuUsage(SystemSnapshot.SystemSnapshotBuilder snapshot) {
+        if (!load(PROC_STAT)) {
+            snapshot.cpuUsage(-1);
+            return;
+        }
+        // cpu  user nice system idle iowait irq softirq steal
+        long total = 0;
+        long idle = 0;
+        int index = nextField(0);
+        for (int field = 0; field < 8 && index < length; field++) {
+            final long value = parseLong(index);
+            total += value;
+            if (field == 3 || field == 4) {
+                idle += value;
+            }
+            index = nextField(index);
+        }
+        final long totalDelta = total - previousCpuTotal;
+        snapshot.cpuUsage(previousCpuTotal == 0 || totalDelta <= 0 ? -1
+            : 100.0 * (totalDelta - (idle - previousCpuIdle)) / totalDelta);
+        previousCpuTotal = total;
+        previousCpuIdle = idle;
+    }
+
+    private void sampleMemory(SystemSnapshot.SystemSnapshotBuilder snapshot) {
+        if (load(PROC_MEMINFO)) {
+            snapshot.memTotalKb(parseLong(valueIndex("MemTotal")))
+                .memAvailableKb(parseLong(valueIndex("MemAvailable")))
+                .swapTotalKb(parseLong(valueIndex("SwapTotal")))
+                .swapFreeKb(parseLong(valueIndex("SwapFree")));
+        } else {
+            snapshot.memTotalKb(-1).memAvailableKb(-1).swapTotalKb(-1).swapFreeKb(-1);
+        }
+    }
+
+    private void sampleTemperature(SystemSnapshot.SystemSnapshotBuilder snapshot) {
+        if (cpuTemperatureFile != null && load(cpuTemperatureFile)) {
+            snapshot.cpuTemperature(parseLong(0) / 1000.0);
+        } else {
+            snapshot.cpuTemperature(-1);
+        }
+    }
+
+    private void sampleThrottling(SystemSnapshot.SystemSnapshotBuilder snapshot) {
+        int throttled = -1;
+        if (throttledFileAvailable && load(FIRMWARE_THROTTLED)) {
+            throttled = (int) parseHex(0);
+        } else if (vcgencmdAvailable) {
+            throttled = readThrottledFromVcgencmd();
+        }
+        snapshot.throttled(throttled);
+        if (throttled >= 0) {
+            snapshot.underVoltage((throttled & 0x1) != 0)
+                .frequencyCapped((throttled & 0x2) != 0)
+                .throttling((throttled & 0x4) != 0)
+                .softTemperatureLimit((throttled & 0x8) != 0);
+        }
+    }
+
+    private int readThrottledFromVcgencmd() {
+        try {
+            final ExecResult result = processExecutor.execute("vcgencmd", "get_throttled");
+            if (result.isSuccess() && !result.getLines().isEmpty()) {
+                final String line = result.getLines().get(0);
+                return Integer.parseUnsignedInt(line.substring(line.indexOf("0x") + 2), 16);
+            }
+            log.debug("Throttling state not available, vcgencmd exited with {}", result.getExitCode());
+            vcgencmdAvailable = false;
+        } catch (IOException | RuntimeException ex) {
+            log.debug("Throttling state not available: {}", ex.getMessage());
+            vcgencmdAvailable = false;
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+        return -1;
+    }
+
+    private static void sampleJvm(SystemSnapshot.SystemSnapshotBuilder snapshot) {
+        final MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+        final MemoryUsage heap = memory.getHeapMemoryUsage();
+        snapshot.heapUsed(heap.getUsed())
+            .heapCommitted(heap.getCommitted())
+            .heapMax(heap.getMax())
+            .nonHeapUsed(memory.getNonHeapMemoryUsage().getUsed());
+
+        final ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        snapshot.threadCount(threads.getThreadCount());
+
+        long gcCount = 0;
+        long gcTime = 0;
+        for (final GarbageCollectorMXBean collector : ManagementFactory.getGarbageCollectorMXBeans()) {
+            gcCount += Math.max(0, collector.getCollectionCount());
+            gcTime += Math.max(0, collector.getCollectionTime());
+        }
+        snapshot.gcCount(gcCount).gcTimeMs(gcTime);
+
+        final OperatingSystemMXBean os = ManagementFactory.getOperatingSystemMXBean();
+        snapshot.processCpuLoad(os instanceof com.sun.management.OperatingSystemMXBean
+            ? ((com.sun.management.OperatingSystemMXBean) os).getProcessCpuLoad() * 100.0 : -1);
+
+        final RuntimeMXBean runtime = ManagementFactory.getRuntimeMXBean();
+        snapshot.uptimeMs(runtime.getUptime());
+    }
+
+    /**
+     * Read a file in the shared buffer.
+     */
+    private boolean load(Path path) {
+        length = 0;
+        if (path == null) {
+            return false;
+        }
+        try (InputStream input = Files.newInputStream(path)) {
+            int read;
+            while (length < buffer.length && (read = input.read(buffer, length, buffer.length - length)) > 0) {
+                length += read;
+            }
+            return true;
+        } catch (IOException ex) {
+            return false;
+        }
+    }
+
+    /**
+     * @return The index of the value of a {@code key: value} line at the start of a line, -1 if not found.
+     */
+    private int valueIndex(String key) {
+        for (int line = 0; line < length; line = lineEnd(line) + 1) {
+            if (startsWith(line, key)) {
+                int index = line + key.length();
+                while (index < length && (buffer[index] == ' ' || buffer[index] == '\t')) {
+                    index++;
+                }
+                if (index < length && buffer[index] == ':') {
+                    index++;
+                    while (index < length && (buffer[index] == ' ' || buffer[index] == '\t')) {
+                        index++;
+                    }
+                    return index;
+                }
+            }
+        }
+        return -1;
+    }
+
+    private boolean startsWith(int index, String key) {
+        if (index + key.length() > length) {
+            return false;
+        }
+        for (int offset = 0; offset < key.length(); offset++) {
+            if (buffer[index + offset] != key.charAt(offset)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private int lineEnd(int index) {
+        while (index < length && buffer[index] != '\n') {
+            index++;
+        }
+        return index;
+    }
+
+    private int nextField(int index) {
+        while (index < length && buffer[index] != ' ' && buffer[index] != '\n') {
+            index++;
+        }
+        while (index < length && buffer[index] == ' ') {
+            index++;
+        }
+        return index;
+    }
+
+    private long parseLong(int index) {
+        if (index < 0) {
+            return -1;
+        }
+        long value = 0;
+        while (index < length && buffer[index] >= '0' && buffer[index] <= '9') {
+            value = value * 10 + (buffer[index++] - '0');
+        }
+        return value;
+    }
+
+    private long parseHex(int index) {
+        if (startsWith(index, "0x")) {
+            index += 2;
+        }
+        long value = 0;
+        while (index < length) {
+            final int digit = Character.digit(buffer[index++], 16);
+            if (digit < 0) {
+                break;
+            }
+            value = value * 16 + digit;
+        }
+        return value;
+    }
+
+    private double parseDecimal(int index) {
+        long integer = 0;
+        while (index < length && buffer[index] >= '0' && buffer[index] <= '9') {
+            integer = integer * 10 + (buffer[index++] - '0');
+        }
+        long fraction = 0;
+        long scale = 1;
+        if (index < length && buffer[index] == '.') {
+            index++;
+            while (index < length && buffer[index] >= '0' && buffer[index] <= '9') {
+                fraction = fraction * 10 + (buffer[index++] - '0');
+                scale *= 10;
+            }
+        }
+        return integer + (double) fraction / scale;
+    }
+
+    private String text(int from, int to) {
+        return new String(buffer, from, to - from, StandardCharsets.UTF_8);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        scheduler.shutdownNow();
+    }
+}
@@ -0,0 +1,44 @@
+package org.dbs.pi4j.myrestgpio.common;
+
+import lombok.Builder;
+import lombok.Value;
+
+/**
+ * One sample of the system telemetry taken by the {@link SystemSampler}. Values which cannot be read on the running
+ * system are -1.
+ */
+@Value
+@Builder
+public class SystemSnapshot {
+    long timestamp;
+
+    double load1;
+    double load5;
+    double load15;
+    double cpuUsage;
+    double cpuTemperature;
+
+    long memTotalKb;
+    long memAvailableKb;
+    long swapTotalKb;
+    long swapFreeKb;
+
+    /**
+     * Raw throttling flags of the firmware ({@code vcgencmd get_throttled}).
+     */
+    int throttled;
+    boolean underVoltage;
+    boolean frequencyCapped;
+    boolean throttling;
+    boolean softTemperatureLimit;
+
+    long heapUsed;
+    long heapCommitted;
+    long heapMax;
+    long nonHeapUsed;
+    int threadCount;
+    long gcCount;
+    long gcTimeMs;
+    double processCpuLoad;
+    long uptimeMs;
+}
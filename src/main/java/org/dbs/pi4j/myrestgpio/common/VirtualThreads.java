@@ -0,0 +1,39 @@
+package org.dbs.pi4j.myrestgpio.common;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.lang.reflect.InvocationTargetException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Access to the virtual threads of Java 21, through reflection so that the service still builds and runs on Java 11.
+ */
+@Slf4j
+public final class VirtualThreads {
+
+    private VirtualThreads() {
+    }
+
+    /**
+     * @return True if the running JVM has virtual threads.
+     */
+    public static boolean isSupported() {
+        return Runtime.version().feature() >= 21;
+    }
+
+    /**
+     * @return An executor starting a new virtual thread for each task, null if the running JVM has no virtual threads.
+     */
+    public static ExecutorService newPerTaskExecutor() {
+        if (!isSupported()) {
+            return null;
+        }
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (NoSuchMethodException | IllegalAccessException | InvocationTargetException ex) {
+            log.warn("Virtual threads not available on Java {}: {}", Runtime.version(), ex.getMessage());
+            return null;
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package org.dbs.pi4j.myrestgpio.configuration;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Settings of the GPIO command log, see {@link org.dbs.pi4j.myrestgpio.common.CommandLog}.
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "gpio.command-log")
+public class CommandLogProperties {
+
+    /**
+     * Number of commands the ring buffer holds before commands are dropped.
+     */
+    private int capacity = 4096;
+
+    /**
+     * One in this many commands which neither failed nor changed a pin state is written, 1 writes them all.
+     */
+    private int sampleRate = 100;
+
+    /**
+     * File the commands are appended to, the commands go to the 'gpio.command' logger when not set.
+     */
+    private String file;
+
+    /**
+     * Maximum delay between a command and its write.
+     */
+    private Duration flushInterval = Duration.ofMillis(500);
+}
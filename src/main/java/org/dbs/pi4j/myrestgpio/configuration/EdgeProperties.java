@@ -0,0 +1,21 @@
+package org.dbs.pi4j.myrestgpio.configuration;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Settings of the edge counters, see {@link org.dbs.pi4j.myrestgpio.mygpio.EdgeCounters}.
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "gpio.edges")
+public class EdgeProperties {
+
+    /**
+     * Interval between two records of the totals, the resolution of the 1s, 10s and 60s rates.
+     */
+    private Duration tick = Duration.ofMillis(250);
+}
@@ -0,0 +1,21 @@
+package org.dbs.pi4j.myrestgpio.configuration;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Settings of the pin event streams, see {@link org.dbs.pi4j.myrestgpio.mygpio.PinEventBus}.
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "gpio.events")
+public class EventProperties {
+
+    /**
+     * Time a write to a streaming client may block before the client is disconnected.
+     */
+    private Duration writeTimeout = Duration.ofSeconds(5);
+}
@@ -0,0 +1,29 @@
+package org.dbs.pi4j.myrestgpio.configuration;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * Settings of the pin state history, see {@link org.dbs.pi4j.myrestgpio.mygpio.PinHistory}.
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "gpio.history")
+public class HistoryProperties {
+
+    /**
+     * True to record the transitions of every provisioned pin.
+     */
+    private boolean enabled = true;
+
+    /**
+     * Number of transitions kept per pin, 8 bytes each: 8192 keeps 2.5 MB for 40 pins.
+     */
+    private int capacity = 8192;
+
+    /**
+     * Maximum number of transitions or points returned by a history query.
+     */
+    private int maxPoints = 10000;
+}
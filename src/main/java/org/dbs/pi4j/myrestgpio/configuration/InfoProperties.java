@@ -0,0 +1,31 @@
+package org.dbs.pi4j.myrestgpio.configuration;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Settings of the board information exposed by {@link org.dbs.pi4j.myrestgpio.myrest.InfoRestController}.
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "gpio.info")
+public class InfoProperties {
+
+    /**
+     * How long the network information is cached, it is also refreshed when the watched files change.
+     */
+    private Duration networkTtl = Duration.ofSeconds(60);
+
+    /**
+     * Interval between two samples of the system telemetry.
+     */
+    private Duration sampleInterval = Duration.ofSeconds(5);
+
+    /**
+     * Number of system telemetry samples kept in the history.
+     */
+    private int historySize = 120;
+}
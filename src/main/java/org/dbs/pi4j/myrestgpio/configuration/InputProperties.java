@@ -0,0 +1,26 @@
+package org.dbs.pi4j.myrestgpio.configuration;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Settings of the input filtering, see {@link org.dbs.pi4j.myrestgpio.mygpio.InputEventLoop}.
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "gpio.inputs")
+public class InputProperties {
+
+    /**
+     * Number of raw edges queued for the filters; when full, the pin is read again once the queue has drained.
+     */
+    private int queueCapacity = 8192;
+
+    /**
+     * Time between the samples of a majority vote, 0 to take them back-to-back.
+     */
+    private Duration majorityInterval = Duration.ofNanos(100_000);
+}
@@ -0,0 +1,42 @@
+package org.dbs.pi4j.myrestgpio.configuration;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+
+/**
+ * Settings of the provisioning journal, see {@link org.dbs.pi4j.myrestgpio.mygpio.ProvisioningJournal}.
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "gpio.journal")
+public class JournalProperties {
+
+    /**
+     * True to journal the provisioning and the output levels, and restore them at startup.
+     */
+    private boolean enabled = true;
+
+    /**
+     * Directory of the journal and snapshot files, a volume when running in a container.
+     */
+    private String directory = "data";
+
+    /**
+     * Size of the memory-mapped journal file.
+     */
+    private DataSize size = DataSize.ofMegabytes(1);
+
+    /**
+     * Maximum delay between a change and its write to the disk, the writes of this delay are synced together.
+     */
+    private Duration syncInterval = Duration.ofMillis(200);
+
+    /**
+     * Fill ratio of the journal, in percent, at which it is compacted into the snapshot.
+     */
+    private int compactionThreshold = 75;
+}
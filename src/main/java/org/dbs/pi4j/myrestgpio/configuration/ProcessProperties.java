@@ -0,0 +1,31 @@
+package org.dbs.pi4j.myrestgpio.configuration;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Limits applied to the external commands run by {@link org.dbs.pi4j.myrestgpio.common.ProcessExecutor}.
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "gpio.exec")
+public class ProcessProperties {
+
+    /**
+     * Maximum run time of a command, it is killed afterwards.
+     */
+    private Duration timeout = Duration.ofSeconds(5);
+
+    /**
+     * Maximum number of bytes read from the standard output of a command, it is killed afterwards.
+     */
+    private int maxOutputBytes = 64 * 1024;
+
+    /**
+     * Maximum number of commands running at the same time.
+     */
+    private int maxConcurrent = 2;
+}
@@ -0,0 +1,26 @@
+package org.dbs.pi4j.myrestgpio.configuration;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Settings of the PWM pins, see {@link org.dbs.pi4j.myrestgpio.mygpio.PwmFader}.
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "gpio.pwm")
+public class PwmProperties {
+
+    /**
+     * Frequency in Hz of a PWM pin provisioned without an explicit frequency.
+     */
+    private int defaultFrequency = 1000;
+
+    /**
+     * Interval between two duty cycle updates of a ramp.
+     */
+    private Duration rampInterval = Duration.ofMillis(20);
+}
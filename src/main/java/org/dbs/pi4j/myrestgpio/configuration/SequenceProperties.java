@@ -0,0 +1,36 @@
+package org.dbs.pi4j.myrestgpio.configuration;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Settings of the output sequences, see {@link org.dbs.pi4j.myrestgpio.mygpio.SequenceEngine}.
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "gpio.sequence")
+public class SequenceProperties {
+
+    /**
+     * Maximum number of sequences running at the same time, each one has its own thread.
+     */
+    private int maxRunning = 2;
+
+    /**
+     * Maximum number of steps of a sequence.
+     */
+    private int maxSteps = 10000;
+
+    /**
+     * Time before a step during which the sequence thread busy-spins instead of parking, 0 to never spin.
+     */
+    private Duration spinThreshold = Duration.ofNanos(200_000);
+
+    /**
+     * Number of ended sequences kept for their status.
+     */
+    private int retainEnded = 32;
+}
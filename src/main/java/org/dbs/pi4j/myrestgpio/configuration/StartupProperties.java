@@ -0,0 +1,31 @@
+package org.dbs.pi4j.myrestgpio.configuration;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Settings of the start of the service.
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "gpio.startup")
+public class StartupProperties {
+
+    /**
+     * Address of the output provisioned and set high at startup to show the service is up, negative to disable.
+     */
+    private int testPin = 23;
+
+    /**
+     * Time from the start of the JVM to a ready GPIO layer, a warning is logged beyond it.
+     */
+    private Duration budget = Duration.ofSeconds(20);
+
+    /**
+     * Number of the slowest startup steps written in the startup report.
+     */
+    private int reportSteps = 10;
+}
@@ -2,6 +2,7 @@ package org.dbs.pi4j.myrestgpio.configuration;
 
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
 
 import springfox.documentation.builders.ApiInfoBuilder;
 import springfox.documentation.builders.PathSelectors;
@@ -12,7 +13,12 @@ import springfox.documentation.spi.DocumentationType;
 import springfox.documentation.spring.web.plugins.Docket;
 import springfox.documentation.swagger2.annotations.EnableSwagger2;
 
+/**
+ * Runtime scanning of the REST handlers and Swagger UI, only with the {@code dev} Spring profile.
+ * <p>Otherwise the OpenAPI document generated at build time is served as the static resource {@code /openapi.json}.</p>
+ */
 @Configuration
+@Profile("dev")
 @EnableSwagger2
 public class SwaggerConfig {
     public static final String DEFAULT_INCLUDE_PATTERN ="/api/.*";
@@ -1,29 +1,32 @@
 package org.dbs.pi4j.myrestgpio.configuration;
 
 import lombok.extern.slf4j.Slf4j;
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Controller;
 import org.springframework.web.bind.annotation.RequestMapping;
 
 /**
- * Resource redirection to swagger api documentation
+ * Resource redirection to swagger api documentation: the Swagger UI with the {@code dev} profile, the OpenAPI
+ * document generated at build time otherwise.
  */
 @Controller
 @Slf4j
 public class SwaggerResource {
 
-    /**
-     * Default constructor
-     */
-    public SwaggerResource() {
-        super();
+    private final boolean swaggerEnabled;
+
+    public SwaggerResource(@Value("${springfox.documentation.enabled:false}") boolean swaggerEnabled) {
+        this.swaggerEnabled = swaggerEnabled;
     }
 
     @RequestMapping(value = "/")
     public String index() {
-        log.info("swagger-ui.html");
-        return "redirect:swagger-ui/";
+        if (swaggerEnabled) {
+            log.info("swagger-ui.html");
+            return "redirect:swagger-ui/";
+        }
+        log.info("openapi.json");
+        return "redirect:openapi.json";
     }
 
 }
@@ -0,0 +1,24 @@
+package org.dbs.pi4j.myrestgpio.configuration;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * Settings of the threads serving the requests, see {@link org.dbs.pi4j.myrestgpio.mygpio.GpioExecutor}.
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "gpio.threads")
+public class ThreadingProperties {
+
+    /**
+     * True to run each request on a virtual thread instead of the Tomcat pool, ignored before Java 21.
+     */
+    private boolean virtual = false;
+
+    /**
+     * Number of platform threads making the native GPIO calls when the requests run on virtual threads.
+     */
+    private int gpioPoolSize = 2;
+}
@@ -0,0 +1,40 @@
+package org.dbs.pi4j.myrestgpio.configuration;
+
+import lombok.extern.slf4j.Slf4j;
+import org.dbs.pi4j.myrestgpio.common.VirtualThreads;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.embedded.tomcat.TomcatServletWebServerFactory;
+import org.springframework.boot.web.server.WebServerFactoryCustomizer;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PreDestroy;
+import java.util.concurrent.ExecutorService;
+
+/**
+ * Runs the requests on virtual threads instead of the Tomcat pool when {@code gpio.threads.virtual} is set, so that
+ * thousands of concurrent or slow requests cost no platform thread each. Before Java 21 the Tomcat pool is kept.
+ */
+@Component
+@ConditionalOnProperty(prefix = "gpio.threads", name = "virtual", havingValue = "true")
+@Slf4j
+public class TomcatThreadsCustomizer implements WebServerFactoryCustomizer<TomcatServletWebServerFactory> {
+
+    private final ExecutorService executor = VirtualThreads.newPerTaskExecutor();
+
+    @Override
+    public void customize(TomcatServletWebServerFactory factory) {
+        if (executor == null) {
+            log.warn("Virtual threads require Java 21, requests run on the Tomcat pool on Java {}", Runtime.version());
+            return;
+        }
+        log.info("Requests run on virtual threads");
+        factory.addProtocolHandlerCustomizers(protocolHandler -> protocolHandler.setExecutor(executor));
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (executor != null) {
+            executor.shutdown();
+        }
+    }
+}
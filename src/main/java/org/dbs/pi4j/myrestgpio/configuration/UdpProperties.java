@@ -0,0 +1,51 @@
+package org.dbs.pi4j.myrestgpio.configuration;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Settings of the UDP command listener, see {@link org.dbs.pi4j.myrestgpio.myudp.UdpCommandListener}.
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "gpio.udp")
+public class UdpProperties {
+
+    /**
+     * True to listen for UDP commands.
+     */
+    private boolean enabled = false;
+
+    /**
+     * UDP port, 0 for a random port.
+     */
+    private int port = 9096;
+
+    /**
+     * Multicast group joined to receive the commands sent to several boards at once, none if not set.
+     */
+    private String multicastGroup;
+
+    /**
+     * Name of the network interface the multicast group is joined on, the first multicast capable interface if not set.
+     */
+    private String multicastInterface;
+
+    /**
+     * Size of the socket receive buffer in bytes, absorbs the bursts of packets.
+     */
+    private int receiveBufferSize = 256 * 1024;
+
+    /**
+     * Number of senders whose last sequence number is remembered, the oldest one is forgotten beyond it.
+     */
+    private int maxSenders = 64;
+
+    /**
+     * Silence after which the next sequence number of a sender is accepted whatever it is, as after a restart.
+     */
+    private Duration senderTimeout = Duration.ofSeconds(5);
+}
@@ -0,0 +1,74 @@
+package org.dbs.pi4j.myrestgpio.configuration;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Settings of the virtual GPIO backend, active with the {@code virtual} profile, see
+ * {@link org.dbs.pi4j.myrestgpio.myvirtual.VirtualGpioBackend}.
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "gpio.virtual")
+public class VirtualGpioProperties {
+
+    /**
+     * Artificial latency added to every call to a virtual pin, to mimic the native calls.
+     */
+    private Duration latency = Duration.ZERO;
+
+    /**
+     * Scripted signals driving the virtual input pins.
+     */
+    private List<Signal> signals = new ArrayList<>();
+
+    public enum SignalType {
+        /**
+         * Regular square wave, {@code rate} periods per second.
+         */
+        SQUARE,
+        /**
+         * Random edges, {@code rate} edges per second on average.
+         */
+        NOISE,
+        /**
+         * {@code burst-count} edges at {@code rate} edges per second, every {@code burst-interval}.
+         */
+        BURST
+    }
+
+    @Data
+    public static class Signal {
+
+        /**
+         * Address of the driven pin.
+         */
+        private int address;
+
+        /**
+         * Shape of the signal.
+         */
+        private SignalType type = SignalType.SQUARE;
+
+        /**
+         * Rate of the signal, in Hz.
+         */
+        private double rate = 1;
+
+        /**
+         * Number of edges of a burst, rising and falling alike: a burst of 50 edges is 25 pulses. An odd count leaves
+         * the pin at the opposite level after each burst.
+         */
+        private int burstCount = 10;
+
+        /**
+         * Interval between the start of two bursts.
+         */
+        private Duration burstInterval = Duration.ofSeconds(1);
+    }
+}
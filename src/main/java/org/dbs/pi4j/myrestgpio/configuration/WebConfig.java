@@ -0,0 +1,24 @@
+package org.dbs.pi4j.myrestgpio.configuration;
+
+import org.dbs.pi4j.myrestgpio.myrest.GpioReadinessInterceptor;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+/**
+ * Spring MVC settings of the REST interface.
+ */
+@Configuration
+public class WebConfig implements WebMvcConfigurer {
+
+    private final GpioReadinessInterceptor gpioReadinessInterceptor;
+
+    public WebConfig(GpioReadinessInterceptor gpioReadinessInterceptor) {
+        this.gpioReadinessInterceptor = gpioReadinessInterceptor;
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(gpioReadinessInterceptor).addPathPatterns("/api/gpio/**", "/api/info/platform");
+    }
+}
@@ -0,0 +1,50 @@
+package org.dbs.pi4j.myrestgpio.configuration;
+
+import org.dbs.pi4j.myrestgpio.mywebsocket.GpioHandshakeInterceptor;
+import org.dbs.pi4j.myrestgpio.mywebsocket.GpioWebSocketHandler;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.socket.config.annotation.EnableWebSocket;
+import org.springframework.web.socket.config.annotation.WebSocketConfigurer;
+import org.springframework.web.socket.config.annotation.WebSocketHandlerRegistry;
+import org.springframework.web.socket.server.standard.ServletServerContainerFactoryBean;
+
+/**
+ * WebSocket command channel on {@code /ws/gpio}, open to the same origin and {@code gpio.websocket.allowed-origins}.
+ */
+@Configuration
+@EnableWebSocket
+public class WebSocketConfig implements WebSocketConfigurer {
+
+    public static final String PATH = "/ws/gpio";
+
+    private final GpioWebSocketHandler gpioWebSocketHandler;
+    private final GpioHandshakeInterceptor gpioHandshakeInterceptor;
+    private final WebSocketProperties properties;
+
+    public WebSocketConfig(GpioWebSocketHandler gpioWebSocketHandler, GpioHandshakeInterceptor gpioHandshakeInterceptor,
+                           WebSocketProperties properties) {
+        this.gpioWebSocketHandler = gpioWebSocketHandler;
+        this.gpioHandshakeInterceptor = gpioHandshakeInterceptor;
+        this.properties = properties;
+    }
+
+    @Override
+    public void registerWebSocketHandlers(WebSocketHandlerRegistry registry) {
+        registry.addHandler(gpioWebSocketHandler, PATH)
+            .addInterceptors(gpioHandshakeInterceptor)
+            .setAllowedOrigins(properties.getAllowedOrigins().toArray(new String[0]));
+    }
+
+    /**
+     * Small frame buffers: the command frames are a few bytes long and every connection holds its buffers.
+     */
+    @Bean
+    public ServletServerContainerFactoryBean createWebSocketContainer() {
+        final ServletServerContainerFactoryBean container = new ServletServerContainerFactoryBean();
+        container.setMaxTextMessageBufferSize(properties.getMaxFrameSize());
+        container.setMaxBinaryMessageBufferSize(properties.getMaxFrameSize());
+        container.setMaxSessionIdleTimeout(properties.getIdleTimeout().toMillis());
+        return container;
+    }
+}
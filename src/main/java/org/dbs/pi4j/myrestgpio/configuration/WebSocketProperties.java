@@ -0,0 +1,44 @@
+package org.dbs.pi4j.myrestgpio.configuration;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Settings of the WebSocket command channel, see {@link org.dbs.pi4j.myrestgpio.mywebsocket.GpioWebSocketHandler}.
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "gpio.websocket")
+public class WebSocketProperties {
+
+    /**
+     * Largest command frame accepted, in characters.
+     */
+    private int maxFrameSize = 1024;
+
+    /**
+     * Time a send to a client may take before the client is disconnected.
+     */
+    private Duration sendTimeLimit = Duration.ofSeconds(5);
+
+    /**
+     * Bytes of replies and events buffered for a slow client before it is disconnected.
+     */
+    private int bufferSizeLimit = 256 * 1024;
+
+    /**
+     * Time without any frame after which a connection is closed.
+     */
+    private Duration idleTimeout = Duration.ofMinutes(5);
+
+    /**
+     * Origins of the web pages allowed to open the channel, e.g. {@code http://dashboard.local:8080}; by default
+     * only the pages served by this application. Clients sending no {@code Origin} header are always accepted.
+     */
+    private List<String> allowedOrigins = new ArrayList<>();
+}
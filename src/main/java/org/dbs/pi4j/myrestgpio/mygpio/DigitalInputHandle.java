@@ -0,0 +1,64 @@
+package org.dbs.pi4j.myrestgpio.mygpio;
+
+import com.pi4j.io.gpio.digital.DigitalInput;
+import com.pi4j.io.gpio.digital.DigitalState;
+
+/**
+ * {@link PinHandle} of a pin provisioned as digital input, with its {@link EdgeCounter} in counting mode.
+ * <p>The states delivered by the listener of the pin are tracked apart from the shadow state: a fresh read refreshes
+ * the shadow state but must not swallow the change the listener is about to deliver.</p>
+ */
+public class DigitalInputHandle extends DigitalPinHandle {
+
+    private final DigitalInput input;
+    private final EdgeCounter edgeCounter;
+    private DigitalState delivered;
+
+    public DigitalInputHandle(int address, DigitalInput input) {
+        this(address, input, null);
+    }
+
+    public DigitalInputHandle(int address, DigitalInput input, EdgeCounter edgeCounter) {
+        super(address, input.state());
+        this.input = input;
+        this.edgeCounter = edgeCounter;
+        this.delivered = getState();
+    }
+
+    /**
+     * Take a state delivered by the listener of the pin, and refresh the shadow state.
+     *
+     * @param current The state of the pin.
+     * @return True if the state differs from the last one delivered, whether or not a fresh read saw it first.
+     */
+    synchronized boolean deliver(DigitalState current) {
+        update(current);
+        if (current == delivered) {
+            return false;
+        }
+        delivered = current;
+        return true;
+    }
+
+    /**
+     * @return The counter of the edges, null if the pin is not in counting mode.
+     */
+    public EdgeCounter getEdgeCounter() {
+        return edgeCounter;
+    }
+
+    @Override
+    public PinKind getKind() {
+        return PinKind.DIGITAL_INPUT;
+    }
+
+    @Override
+    public DigitalInput getIo() {
+        return input;
+    }
+
+    @Override
+    public DigitalInputHandle asDigitalInput() {
+        return this;
+    }
+}
@@ -0,0 +1,75 @@
+package org.dbs.pi4j.myrestgpio.mygpio;
+
+import com.pi4j.io.gpio.digital.DigitalOutput;
+import com.pi4j.io.gpio.digital.DigitalState;
+
+/**
+ * {@link PinHandle} of a pin provisioned as digital output.
+ * <p>Writes are serialized per pin so that the shadow state always matches the last level written, and the changes
+ * reach the {@link ProvisioningJournal} in the order they were written.</p>
+ */
+public class DigitalOutputHandle extends DigitalPinHandle {
+
+    private final DigitalOutput output;
+
+    public DigitalOutputHandle(int address, DigitalOutput output, DigitalState initial) {
+        super(address, initial);
+        this.output = output;
+    }
+
+    @Override
+    public PinKind getKind() {
+        return PinKind.DIGITAL_OUTPUT;
+    }
+
+    @Override
+    public DigitalOutput getIo() {
+        return output;
+    }
+
+    @Override
+    public DigitalOutputHandle asDigitalOutput() {
+        return this;
+    }
+
+    /**
+     * Drive the output.
+     *
+     * @param high True to set the output high, false to set it low.
+     * @return True if the state of the output changed.
+     */
+    public synchronized boolean set(boolean high) {
+        return set(high, true);
+    }
+
+    /**
+     * Drive the output.
+     *
+     * @param high True to set the output high, false to set it low.
+     * @param journaled False for a transient level, like the high of a pulse, which must not be restored after a
+     *                  restart: the journal then keeps the level written before.
+     * @return True if the state of the output changed.
+     */
+    synchronized boolean set(boolean high, boolean journaled) {
+        final DigitalState next = high ? DigitalState.HIGH : DigitalState.LOW;
+        output.state(next);
+        if (!update(next)) {
+            return false;
+        }
+        final ProvisioningJournal journal = journal();
+        if (journaled && journal != null) {
+            journal.outputLevel(getAddress(), high);
+        }
+        return true;
+    }
+
+    /**
+     * Toggle the output.
+     *
+     * @return The new state.
+     */
+    public synchronized DigitalState toggle() {
+        set(!getState().isHigh());
+        return getState();
+    }
+}
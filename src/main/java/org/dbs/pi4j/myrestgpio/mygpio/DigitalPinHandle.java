@@ -0,0 +1,70 @@
+package org.dbs.pi4j.myrestgpio.mygpio;
+
+import com.pi4j.io.gpio.digital.Digital;
+import com.pi4j.io.gpio.digital.DigitalState;
+
+/**
+ * {@link PinHandle} of a digital pin, keeping a shadow copy of the pin state.
+ * <p>The shadow state is updated by the state change listener of inputs and by the writes on outputs, reads are
+ * served from it without any call to the GPIO provider. {@link #readState()} reads the hardware and refreshes the
+ * shadow state.</p>
+ */
+public abstract class DigitalPinHandle extends PinHandle {
+
+    private volatile DigitalState state;
+    private volatile long lastChanged;
+
+    protected DigitalPinHandle(int address, DigitalState initial) {
+        super(address);
+        this.state = initial;
+        this.lastChanged = System.currentTimeMillis();
+    }
+
+    @Override
+    public abstract Digital<?, ?, ?> getIo();
+
+    @Override
+    public Number getValue(boolean fresh) {
+        return (fresh ? readState() : state).getValue();
+    }
+
+    @Override
+    public long getLastChanged() {
+        return lastChanged;
+    }
+
+    /**
+     * @return The shadow state of the pin.
+     */
+    public DigitalState getState() {
+        return state;
+    }
+
+    /**
+     * Read the state from the hardware and refresh the shadow state.
+     *
+     * @return The state read from the pin.
+     */
+    public DigitalState readState() {
+        final DigitalState current = getIo().state();
+        update(current);
+        return current;
+    }
+
+    /**
+     * Update the shadow state, atomically with its version and history.
+     *
+     * @param current The state of the pin.
+     * @return True if the state changed.
+     */
+    synchronized boolean update(DigitalState current) {
+        if (current == state) {
+            return false;
+        }
+        state = current;
+        lastChanged = System.currentTimeMillis();
+        markChanged();
+        recordHistory(current == DigitalState.HIGH ? 1 : 0);
+        return true;
+    }
+}
@@ -0,0 +1,63 @@
+package org.dbs.pi4j.myrestgpio.mygpio;
+
+import com.pi4j.io.gpio.digital.DigitalState;
+
+/**
+ * Holds each state for a minimum time, a hysteresis in time: a change arriving sooner is held until the dwell time
+ * has passed, and then only the latest level is passed on. A chattering line is reduced to at most one change per
+ * dwell time, and its final level is never lost.
+ */
+class DwellFilter implements InputFilter {
+
+    private final long dwellNanos;
+    private DigitalState current;
+    private DigitalState latest;
+    private long lastChange;
+    private boolean pending;
+
+    DwellFilter(long dwellNanos, DigitalState initial) {
+        this.dwellNanos = dwellNanos;
+        this.current = initial;
+        this.lastChange = System.nanoTime() - dwellNanos;
+    }
+
+    @Override
+    public DigitalState onState(DigitalState state, long time) {
+        if (pending) {
+            latest = state;
+            return null;
+        }
+        if (state == current) {
+            return null;
+        }
+        if (time - lastChange >= dwellNanos) {
+            current = state;
+            lastChange = time;
+            return state;
+        }
+        latest = state;
+        pending = true;
+        return null;
+    }
+
+    @Override
+    public boolean isPending() {
+        return pending;
+    }
+
+    @Override
+    public long getDeadline() {
+        return lastChange + dwellNanos;
+    }
+
+    @Override
+    public DigitalState poll(long now) {
+        pending = false;
+        if (latest == current) {
+            return null;
+        }
+        current = latest;
+        lastChange = now;
+        return current;
+    }
+}
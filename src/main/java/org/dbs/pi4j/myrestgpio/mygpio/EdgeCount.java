@@ -0,0 +1,24 @@
+package org.dbs.pi4j.myrestgpio.mygpio;
+
+import lombok.Value;
+
+/**
+ * The edges counted on an input pin, as read by {@link EdgeCounter#read(boolean)}.
+ */
+@Value
+public class EdgeCount {
+    int address;
+    EdgeMode mode;
+    /** Edges counted since the last reset. */
+    long count;
+    long rising;
+    long falling;
+    /** Edges counted since the pin was provisioned. */
+    long total;
+    /** Edges per second over the last second, 10 seconds and minute. */
+    double rate1s;
+    double rate10s;
+    double rate60s;
+    /** Time of the last reset, in milliseconds since the epoch. */
+    long since;
+}
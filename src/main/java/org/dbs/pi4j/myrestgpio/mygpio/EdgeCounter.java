@@ -0,0 +1,129 @@
+package org.dbs.pi4j.myrestgpio.mygpio;
+
+import com.pi4j.io.gpio.digital.DigitalState;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counts the edges of an input pin, for flow meters and anemometers.
+ * <p>An edge only increments a {@link LongAdder}: nothing is allocated nor locked, so the counting keeps up with the
+ * edge rate of the provider. The adders are never reset, a reset moves the base the count is measured from; the read
+ * and the move happen under the counter monitor, so each edge is counted in exactly one of two successive readings.
+ * The {@link EdgeCounters} ticker records the total at each tick in a ring, the rates are computed from it.</p>
+ */
+public class EdgeCounter {
+
+    private static final long[] WINDOWS_NANOS = {
+        TimeUnit.SECONDS.toNanos(1), TimeUnit.SECONDS.toNanos(10), TimeUnit.SECONDS.toNanos(60)};
+
+    private final int address;
+    private final EdgeMode mode;
+    private final LongAdder rising = new LongAdder();
+    private final LongAdder falling = new LongAdder();
+
+    // Guarded by this
+    private long risingBase;
+    private long fallingBase;
+    private long since;
+    private final long[] tickTotals;
+    private final long[] tickTimes;
+    private long ticks;
+
+    /**
+     * @param address The address of the input pin.
+     * @param mode The edges counted.
+     * @param slots The number of ticks kept, enough to cover the longest rate window.
+     */
+    EdgeCounter(int address, EdgeMode mode, int slots) {
+        this.address = address;
+        this.mode = mode;
+        this.tickTotals = new long[slots];
+        this.tickTimes = new long[slots];
+        this.since = System.currentTimeMillis();
+        tick(System.nanoTime());
+    }
+
+    public int getAddress() {
+        return address;
+    }
+
+    public EdgeMode getMode() {
+        return mode;
+    }
+
+    /**
+     * Count an edge, called by the state change listener of the pin.
+     *
+     * @param state The new state of the pin.
+     */
+    public void onEdge(DigitalState state) {
+        if (state == DigitalState.HIGH) {
+            if (mode.countsRising()) {
+                rising.increment();
+            }
+        } else if (state == DigitalState.LOW && mode.countsFalling()) {
+            falling.increment();
+        }
+    }
+
+    /**
+     * @return The edges counted since the pin was provisioned.
+     */
+    public long getTotal() {
+        return rising.sum() + falling.sum();
+    }
+
+    /**
+     * Record the total for the rates, called by the {@link EdgeCounters} ticker.
+     *
+     * @param now The current {@link System#nanoTime()}.
+     */
+    synchronized void tick(long now) {
+        final int slot = (int) (ticks++ % tickTotals.length);
+        tickTotals[slot] = getTotal();
+        tickTimes[slot] = now;
+    }
+
+    /**
+     * Read the counts and the rates.
+     *
+     * @param reset True to restart the count from zero, atomically with the read.
+     * @return The {@link EdgeCount} before the reset.
+     */
+    public synchronized EdgeCount read(boolean reset) {
+        final long now = System.nanoTime();
+        final long risingTotal = rising.sum();
+        final long fallingTotal = falling.sum();
+        final long total = risingTotal + fallingTotal;
+        final EdgeCount count = new EdgeCount(address, mode,
+            total - risingBase - fallingBase, risingTotal - risingBase, fallingTotal - fallingBase, total,
+            rate(total, now, WINDOWS_NANOS[0]), rate(total, now, WINDOWS_NANOS[1]), rate(total, now, WINDOWS_NANOS[2]),
+            since);
+        if (reset) {
+            risingBase = risingTotal;
+            fallingBase = fallingTotal;
+            since = System.currentTimeMillis();
+        }
+        return count;
+    }
+
+    /**
+     * @return The edges per second from the oldest tick within the window to now.
+     */
+    private double rate(long total, long now, long window) {
+        final int kept = (int) Math.min(ticks, tickTotals.length);
+        int oldest = -1;
+        for (int back = 1; back <= kept; back++) {
+            final int slot = (int) ((ticks - back) % tickTotals.length);
+            if (now - tickTimes[slot] > window) {
+                break;
+            }
+            oldest = slot;
+        }
+        if (oldest < 0 || now == tickTimes[oldest]) {
+            return 0;
+        }
+        return (total - tickTotals[oldest]) * 1e9 / (now - tickTimes[oldest]);
+    }
+}
@@ -0,0 +1,79 @@
+package org.dbs.pi4j.myrestgpio.mygpio;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.dbs.pi4j.myrestgpio.configuration.EdgeProperties;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PreDestroy;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The {@link EdgeCounter}s of the input pins provisioned in counting mode, and the {@code gpio-edges} ticker recording
+ * their totals every {@code gpio.edges.tick} for the rates.
+ */
+@Component
+@Slf4j
+public class EdgeCounters {
+
+    private static final long LONGEST_WINDOW_NANOS = TimeUnit.SECONDS.toNanos(60);
+
+    private final MeterRegistry meterRegistry;
+    private final int slots;
+    private final List<EdgeCounter> counters = new CopyOnWriteArrayList<>();
+    private final ScheduledExecutorService ticker;
+
+    public EdgeCounters(EdgeProperties properties, MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+        final long tickNanos = Math.max(TimeUnit.MILLISECONDS.toNanos(10), properties.getTick().toNanos());
+        this.slots = (int) (LONGEST_WINDOW_NANOS / tickNanos) + 2;
+        this.ticker = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "gpio-edges");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.ticker.scheduleAtFixedRate(this::tick, tickNanos, tickNanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Create the counter of an input pin.
+     *
+     * @param address The address of the GPIO pin.
+     * @param mode The edges counted.
+     * @return The {@link EdgeCounter}.
+     */
+    public EdgeCounter create(final int address, final EdgeMode mode) {
+        final EdgeCounter counter = new EdgeCounter(address, mode, slots);
+        counters.add(counter);
+        FunctionCounter.builder("gpio.edges", counter, EdgeCounter::getTotal)
+            .tag("address", String.valueOf(address))
+            .register(meterRegistry);
+        log.info("Counting the {} edges of the pin {}", mode, address);
+        return counter;
+    }
+
+    /**
+     * @return The counters, in provisioning order.
+     */
+    public List<EdgeCounter> getAll() {
+        return new ArrayList<>(counters);
+    }
+
+    private void tick() {
+        final long now = System.nanoTime();
+        for (final EdgeCounter counter : counters) {
+            counter.tick(now);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        ticker.shutdownNow();
+    }
+}
@@ -0,0 +1,26 @@
+package org.dbs.pi4j.myrestgpio.mygpio;
+
+/**
+ * The edges counted on an input pin, see {@link EdgeCounter}.
+ */
+public enum EdgeMode {
+    RISING(true, false),
+    FALLING(false, true),
+    BOTH(true, true);
+
+    private final boolean rising;
+    private final boolean falling;
+
+    EdgeMode(boolean rising, boolean falling) {
+        this.rising = rising;
+        this.falling = falling;
+    }
+
+    public boolean countsRising() {
+        return rising;
+    }
+
+    public boolean countsFalling() {
+        return falling;
+    }
+}
@@ -0,0 +1,50 @@
+package org.dbs.pi4j.myrestgpio.mygpio;
+
+import com.pi4j.io.gpio.digital.DigitalState;
+
+/**
+ * Drops the changes which are undone before a minimum duration: a change is passed on once it has lasted that long,
+ * a pulse shorter than it never is.
+ */
+class GlitchFilter implements InputFilter {
+
+    private final long minNanos;
+    private DigitalState confirmed;
+    private DigitalState candidate;
+    private boolean pending;
+    private long deadline;
+
+    GlitchFilter(long minNanos, DigitalState initial) {
+        this.minNanos = minNanos;
+        this.confirmed = initial;
+    }
+
+    @Override
+    public DigitalState onState(DigitalState state, long time) {
+        if (state == confirmed) {
+            pending = false;
+        } else if (!pending || state != candidate) {
+            candidate = state;
+            deadline = time + minNanos;
+            pending = true;
+        }
+        return null;
+    }
+
+    @Override
+    public boolean isPending() {
+        return pending;
+    }
+
+    @Override
+    public long getDeadline() {
+        return deadline;
+    }
+
+    @Override
+    public DigitalState poll(long now) {
+        pending = false;
+        confirmed = candidate;
+        return confirmed;
+    }
+}
@@ -0,0 +1,31 @@
+package org.dbs.pi4j.myrestgpio.mygpio;
+
+import com.pi4j.context.Context;
+
+/**
+ * The Pi4J context and the providers used by the {@link MyGpioController}.
+ * <p>The pigpio backend drives the pins of the Raspberry Pi; the virtual backend, active with the {@code virtual}
+ * Spring profile, drives in-memory pins so that the service runs on any machine.</p>
+ */
+public interface GpioBackend {
+
+    /**
+     * @return A new Pi4J context holding the providers of this backend.
+     */
+    Context createContext();
+
+    /**
+     * @return The id of the digital output provider.
+     */
+    String getDigitalOutputProvider();
+
+    /**
+     * @return The id of the digital input provider.
+     */
+    String getDigitalInputProvider();
+
+    /**
+     * @return The id of the PWM provider.
+     */
+    String getPwmProvider();
+}
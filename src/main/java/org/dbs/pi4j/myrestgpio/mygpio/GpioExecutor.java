@@ -0,0 +1,74 @@
+package org.dbs.pi4j.myrestgpio.mygpio;
+
+import lombok.extern.slf4j.Slf4j;
+import org.dbs.pi4j.myrestgpio.common.VirtualThreads;
+import org.dbs.pi4j.myrestgpio.configuration.ThreadingProperties;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PreDestroy;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Runs the native GPIO calls of the {@link MyGpioController}.
+ * <p>On the Tomcat pool the calls run on the calling thread. When the requests run on virtual threads, a native call
+ * would pin its carrier thread, and a monitor held around it would pin the waiting threads too: the calls are then
+ * confined to {@code gpio.threads.gpio-pool-size} platform threads, and the virtual threads only wait for them.</p>
+ */
+@Component
+@Slf4j
+public class GpioExecutor {
+
+    private final ExecutorService executor;
+
+    public GpioExecutor(ThreadingProperties properties) {
+        if (properties.isVirtual() && VirtualThreads.isSupported()) {
+            final AtomicInteger count = new AtomicInteger();
+            this.executor = Executors.newFixedThreadPool(Math.max(1, properties.getGpioPoolSize()), runnable -> {
+                Thread thread = new Thread(runnable, "gpio-io-" + count.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            });
+            log.info("Native GPIO calls confined to {} thread(s)", Math.max(1, properties.getGpioPoolSize()));
+        } else {
+            this.executor = null;
+        }
+    }
+
+    /**
+     * Run a GPIO operation and wait for its result.
+     *
+     * @param operation The operation, its exceptions are thrown back to the caller.
+     * @param <T> The type of the result.
+     * @return The result of the operation.
+     */
+    public <T> T call(Supplier<T> operation) {
+        if (executor == null) {
+            return operation.get();
+        }
+        try {
+            return executor.submit(operation::get).get();
+        } catch (ExecutionException ex) {
+            if (ex.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) ex.getCause();
+            }
+            if (ex.getCause() instanceof Error) {
+                throw (Error) ex.getCause();
+            }
+            throw new IllegalStateException(ex.getCause());
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for a GPIO operation", ex);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (executor != null) {
+            executor.shutdownNow();
+        }
+    }
+}
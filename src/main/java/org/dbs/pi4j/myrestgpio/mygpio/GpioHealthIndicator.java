@@ -0,0 +1,36 @@
+package org.dbs.pi4j.myrestgpio.mygpio;
+
+import org.springframework.boot.actuate.health.AbstractHealthIndicator;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.stereotype.Component;
+
+/**
+ * Health of the GPIO layer, part of the {@code readiness} health group: out of service while Pi4J initializes, down
+ * if the initialization failed.
+ */
+@Component("gpio")
+public class GpioHealthIndicator extends AbstractHealthIndicator {
+
+    private final MyGpioController myGpioController;
+    private final GpioBackend backend;
+
+    public GpioHealthIndicator(MyGpioController myGpioController, GpioBackend backend) {
+        super("GPIO health check failed");
+        this.myGpioController = myGpioController;
+        this.backend = backend;
+    }
+
+    @Override
+    protected void doHealthCheck(Health.Builder builder) {
+        builder.withDetail("backend", backend.getClass().getSimpleName());
+
+        final Throwable failure = myGpioController.getInitFailure();
+        if (failure != null) {
+            builder.down(failure);
+        } else if (myGpioController.isReady()) {
+            builder.up().withDetail("pins", myGpioController.getProvisionedPins().size());
+        } else {
+            builder.outOfService();
+        }
+    }
+}
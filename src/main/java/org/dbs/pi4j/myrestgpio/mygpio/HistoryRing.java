@@ -0,0 +1,103 @@
+package org.dbs.pi4j.myrestgpio.mygpio;
+
+import com.pi4j.io.gpio.digital.DigitalState;
+
+/**
+ * The last transitions of a pin, in a fixed ring of packed {@code long}s.
+ * <p>Each transition is one {@code long}: the time on the {@link PinHistory} clock in microseconds, shifted left by
+ * 14 bits, and the new value in the low 14 bits (0 or 1 for a digital pin, the duty cycle in hundredths of percent for
+ * a PWM pin). Recording writes a slot under the ring monitor and allocates nothing; the transitions are in time order,
+ * so a query finds its range by binary search and copies it out before computing anything.</p>
+ */
+public class HistoryRing {
+
+    static final int VALUE_BITS = 14;
+    private static final long VALUE_MASK = (1L << VALUE_BITS) - 1;
+
+    private final PinHistory clock;
+    private final int address;
+    private final PinKind kind;
+    private final long[] entries;
+    private final int mask;
+
+    // Guarded by this
+    private long count;
+
+    HistoryRing(PinHistory clock, int address, PinKind kind, int capacity) {
+        this.clock = clock;
+        this.address = address;
+        this.kind = kind;
+        this.entries = new long[capacity];
+        this.mask = capacity - 1;
+    }
+
+    /**
+     * @return The value of a pin as recorded in the ring.
+     */
+    static int encode(PinKind kind, Number value) {
+        if (kind == PinKind.PWM) {
+            return Math.round(value.floatValue() * 100);
+        }
+        return value.intValue() == DigitalState.HIGH.getValue().intValue() ? 1 : 0;
+    }
+
+    /**
+     * Record a transition at the current time.
+     *
+     * @param value The new value, see {@link #encode(PinKind, Number)}.
+     */
+    public synchronized void record(int value) {
+        entries[(int) (count & mask)] = (clock.nowMicros() << VALUE_BITS) | (value & VALUE_MASK);
+        count++;
+    }
+
+    /**
+     * Copy the transitions of a time range.
+     *
+     * @param fromMicros The start of the range, excluded, in microseconds since the epoch.
+     * @param toMicros The end of the range, included, in microseconds since the epoch.
+     * @param limit The maximum number of transitions copied, the oldest first.
+     * @return The {@link HistorySlice}.
+     */
+    public HistorySlice slice(final long fromMicros, final long toMicros, final int limit) {
+        final long epochOffset = clock.epochOffsetMicros();
+        final long from = Math.max(0, fromMicros - epochOffset);
+        final long to = Math.min(Math.max(0, toMicros - epochOffset), clock.nowMicros());
+        final long[] copy;
+        final long before;
+        final boolean truncated;
+        final boolean more;
+        synchronized (this) {
+            final long oldest = Math.max(0, count - entries.length);
+            final long start = firstAfter(oldest, from);
+            final long end = Math.max(start, firstAfter(start, to));
+            before = start > oldest ? entries[(int) ((start - 1) & mask)] : -1;
+            truncated = start == oldest && oldest > 0;
+            final int size = (int) Math.min(end - start, limit);
+            more = end - start > limit;
+            copy = new long[size];
+            final int first = (int) (start & mask);
+            final int head = Math.min(size, entries.length - first);
+            System.arraycopy(entries, first, copy, 0, head);
+            System.arraycopy(entries, 0, copy, head, size - head);
+        }
+        return new HistorySlice(epochOffset, address, kind, from, Math.max(to, from), before, copy, truncated, more);
+    }
+
+    /**
+     * @return The index of the first transition after the given time, count if none.
+     */
+    private long firstAfter(long low, long time) {
+        long lo = low;
+        long hi = count;
+        while (lo < hi) {
+            final long middle = (lo + hi) >>> 1;
+            if (entries[(int) (middle & mask)] >>> VALUE_BITS > time) {
+                hi = middle;
+            } else {
+                lo = middle + 1;
+            }
+        }
+        return lo;
+    }
+}
@@ -0,0 +1,20 @@
+package org.dbs.pi4j.myrestgpio.mygpio;
+
+import lombok.Value;
+
+/**
+ * The transitions of a pin downsampled to fixed buckets for charting, see {@link HistorySlice#series(int)}.
+ */
+@Value
+public class HistorySeries {
+    int address;
+    long bucketMicros;
+    /** Start of each bucket, in microseconds since the epoch. */
+    long[] timestamps;
+    /** Time-weighted mean, minimum and maximum of the value in each bucket, in percent. */
+    double[] mean;
+    double[] min;
+    double[] max;
+    int[] transitions;
+    boolean truncated;
+}
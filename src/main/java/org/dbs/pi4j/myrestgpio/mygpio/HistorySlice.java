@@ -0,0 +1,232 @@
+package org.dbs.pi4j.myrestgpio.mygpio;
+
+/**
+ * A copy of the transitions of a pin over a time range, taken by {@link HistoryRing#slice(long, long, int)}.
+ * <p>The transitions stay packed as in the ring; the statistics and the downsampled series are computed from the
+ * copy, without holding the ring.</p>
+ */
+public class HistorySlice {
+
+    private static final long TIME_UNKNOWN = -1;
+
+    private final int address;
+    private final PinKind kind;
+    private final long epochOffset;
+    private final long from;
+    private final long to;
+    private final long before;
+    private final long[] entries;
+    private final boolean truncated;
+    private final boolean more;
+
+    /**
+     * @param epochOffset Converts the times of the ring to epoch microseconds, see
+     *                    {@link PinHistory#epochOffsetMicros()}.
+     */
+    HistorySlice(long epochOffset, int address, PinKind kind, long from, long to, long before, long[] entries,
+                 boolean truncated, boolean more) {
+        this.epochOffset = epochOffset;
+        this.address = address;
+        this.kind = kind;
+        this.from = from;
+        this.to = to;
+        this.before = before;
+        this.entries = entries;
+        this.truncated = truncated;
+        this.more = more;
+    }
+
+    public int getAddress() {
+        return address;
+    }
+
+    public PinKind getKind() {
+        return kind;
+    }
+
+    public long getFromMicros() {
+        return toEpoch(from);
+    }
+
+    public long getToMicros() {
+        return toEpoch(to);
+    }
+
+    /**
+     * @return True if older transitions of the range were overwritten.
+     */
+    public boolean isTruncated() {
+        return truncated;
+    }
+
+    /**
+     * @return True if the range holds more transitions than the limit of the query.
+     */
+    public boolean isMore() {
+        return more;
+    }
+
+    public int size() {
+        return entries.length;
+    }
+
+    /**
+     * @return The time of a transition, in microseconds since the epoch.
+     */
+    public long getTimestamp(int index) {
+        return toEpoch(time(entries[index]));
+    }
+
+    /**
+     * @return The value after a transition: 0 or 1 for a digital pin, the duty cycle in percent for a PWM pin.
+     */
+    public double getValue(int index) {
+        return toValue(raw(entries[index]));
+    }
+
+    /**
+     * @return The value at the start of the range, null if the pin was not recorded yet.
+     */
+    public Double getInitialValue() {
+        return before >= 0 ? toValue(raw(before)) : null;
+    }
+
+    private static long time(long entry) {
+        return entry >>> HistoryRing.VALUE_BITS;
+    }
+
+    private static int raw(long entry) {
+        return (int) (entry & ((1L << HistoryRing.VALUE_BITS) - 1));
+    }
+
+    private double toValue(int raw) {
+        return kind == PinKind.PWM ? raw / 100.0 : raw;
+    }
+
+    private double toPercent(double raw) {
+        return kind == PinKind.PWM ? raw / 100.0 : raw * 100.0;
+    }
+
+    /**
+     * @return The statistics of the range.
+     */
+    public HistoryStats stats() {
+        long start = from;
+        int value;
+        int index = 0;
+        if (before >= 0) {
+            value = raw(before);
+        } else if (entries.length > 0) {
+            start = time(entries[0]);
+            value = raw(entries[0]);
+            index = 1;
+        } else {
+            return new HistoryStats(address, getFromMicros(), getToMicros(), 0, 0, 0, 0, 0, 0, 0, 0, 0, truncated);
+        }
+
+        long cursor = start;
+        double weighted = 0;
+        long high = 0;
+        int rising = 0;
+        int falling = 0;
+        int pulses = 0;
+        long pulseStart = TIME_UNKNOWN;
+        long minPulse = Long.MAX_VALUE;
+        long maxPulse = 0;
+        for (; index < entries.length; index++) {
+            final long time = time(entries[index]);
+            final int next = raw(entries[index]);
+            weighted += (double) value * (time - cursor);
+            if (value > 0) {
+                high += time - cursor;
+            }
+            if (next > value) {
+                rising++;
+                if (value == 0) {
+                    pulseStart = time;
+                }
+            } else if (next < value) {
+                falling++;
+                if (next == 0 && pulseStart != TIME_UNKNOWN) {
+                    minPulse = Math.min(minPulse, time - pulseStart);
+                    maxPulse = Math.max(maxPulse, time - pulseStart);
+                    pulses++;
+                }
+                if (next == 0) {
+                    pulseStart = TIME_UNKNOWN;
+                }
+            }
+            value = next;
+            cursor = time;
+        }
+        weighted += (double) value * (to - cursor);
+        if (value > 0) {
+            high += to - cursor;
+        }
+
+        final long span = to - start;
+        final double dutyCycle = toPercent(span > 0 ? weighted / span : value);
+        return new HistoryStats(address, toEpoch(start), getToMicros(), rising + falling, rising, falling,
+            dutyCycle, high, pulses, pulses > 0 ? minPulse : 0, maxPulse, span > 0 ? rising * 1e6 / span : 0,
+            truncated);
+    }
+
+    /**
+     * Downsample the range to buckets of equal duration.
+     *
+     * @param points The maximum number of buckets.
+     * @return The {@link HistorySeries}, empty if the pin was not recorded during the range.
+     */
+    public HistorySeries series(final int points) {
+        long start = from;
+        int value;
+        int index = 0;
+        if (before >= 0) {
+            value = raw(before);
+        } else if (entries.length > 0) {
+            start = time(entries[0]);
+            value = raw(entries[0]);
+            index = 1;
+        } else {
+            return new HistorySeries(address, 0, new long[0], new double[0], new double[0], new double[0], new int[0],
+                truncated);
+        }
+
+        final long span = Math.max(1, to - start);
+        final long bucket = Math.max(1, (span + points - 1) / points);
+        final int buckets = (int) ((span + bucket - 1) / bucket);
+        final long[] timestamps = new long[buckets];
+        final double[] mean = new double[buckets];
+        final double[] min = new double[buckets];
+        final double[] max = new double[buckets];
+        final int[] transitions = new int[buckets];
+        for (int slot = 0; slot < buckets; slot++) {
+            final long bucketStart = start + slot * bucket;
+            final long bucketEnd = Math.min(start + span, bucketStart + bucket);
+            long cursor = bucketStart;
+            double weighted = 0;
+            int low = value;
+            int peak = value;
+            while (index < entries.length && time(entries[index]) <= bucketEnd) {
+                final long time = time(entries[index]);
+                weighted += (double) value * (time - cursor);
+                cursor = time;
+                value = raw(entries[index]);
+                low = Math.min(low, value);
+                peak = Math.max(peak, value);
+                transitions[slot]++;
+                index++;
+            }
+            weighted += (double) value * (bucketEnd - cursor);
+            timestamps[slot] = toEpoch(bucketStart);
+            mean[slot] = toPercent(weighted / Math.max(1, bucketEnd - bucketStart));
+            min[slot] = toPercent(low);
+            max[slot] = toPercent(peak);
+        }
+        return new HistorySeries(address, bucket, timestamps, mean, min, max, transitions, truncated);
+    }
+
+    private long toEpoch(long clockMicros) {
+        return clockMicros + epochOffset;
+    }
+}
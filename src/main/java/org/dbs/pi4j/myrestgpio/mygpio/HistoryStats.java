@@ -0,0 +1,29 @@
+package org.dbs.pi4j.myrestgpio.mygpio;
+
+import lombok.Value;
+
+/**
+ * Statistics of the transitions of a pin over a time range, see {@link HistorySlice#stats()}.
+ */
+@Value
+public class HistoryStats {
+    int address;
+    /** The range, in microseconds since the epoch; it starts at the first record of the pin if that is later. */
+    long fromMicros;
+    long toMicros;
+    int transitions;
+    int rising;
+    int falling;
+    /** Time-weighted mean of the value over the range, in percent. */
+    double dutyCycle;
+    /** Time spent high (or on, for a PWM pin). */
+    long highMicros;
+    /** High pulses starting and ending within the range, and the shortest and longest of them. */
+    int pulses;
+    long minPulseMicros;
+    long maxPulseMicros;
+    /** Rising transitions per second. */
+    double frequency;
+    /** True if older transitions of the range were overwritten. */
+    boolean truncated;
+}
@@ -0,0 +1,55 @@
+package org.dbs.pi4j.myrestgpio.mygpio;
+
+import com.pi4j.io.gpio.digital.PullResistance;
+import lombok.Builder;
+import lombok.Value;
+
+import java.time.Duration;
+
+/**
+ * How an input pin is provisioned: the pull resistance and debounce of the provider, the edges counted, and the
+ * software filters run by the {@link InputEventLoop}. A zero filter setting leaves the filter out.
+ */
+@Value
+@Builder
+public class InputConfig {
+
+    /**
+     * Debounce of the inputs which neither set one nor count their edges.
+     */
+    public static final Duration DEFAULT_DEBOUNCE = Duration.ofMillis(3);
+
+    public static final InputConfig DEFAULT = InputConfig.builder().build();
+
+    @Builder.Default
+    PullResistance pull = PullResistance.PULL_DOWN;
+    /** Debounce of the provider, null for the default: none when counting, {@link #DEFAULT_DEBOUNCE} otherwise. */
+    Duration debounce;
+    /** The edges to count instead of publishing the state changes, null to publish them. */
+    EdgeMode counting;
+    /** Changes which do not last this long are dropped. */
+    @Builder.Default
+    Duration glitch = Duration.ZERO;
+    /** Odd number of reads of the pin confirming a change, 0 for none. */
+    int majority;
+    /** Minimum time a state is held before the next change is passed on. */
+    @Builder.Default
+    Duration dwell = Duration.ZERO;
+
+    /**
+     * @return The debounce of the provider in microseconds, the default resolved.
+     */
+    public long getDebounceMicros() {
+        if (debounce != null) {
+            return debounce.toNanos() / 1000;
+        }
+        return counting != null ? 0 : DEFAULT_DEBOUNCE.toNanos() / 1000;
+    }
+
+    /**
+     * @return True if at least one software filter is set.
+     */
+    public boolean isFiltered() {
+        return !glitch.isZero() || majority > 0 || !dwell.isZero();
+    }
+}
@@ -0,0 +1,172 @@
+package org.dbs.pi4j.myrestgpio.mygpio;
+
+import com.pi4j.io.gpio.digital.DigitalInput;
+import com.pi4j.io.gpio.digital.DigitalState;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.dbs.pi4j.myrestgpio.common.PrimitiveRing;
+import org.dbs.pi4j.myrestgpio.configuration.InputProperties;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PreDestroy;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Consumer;
+
+/**
+ * Runs the software filters of the input pins on the dedicated {@code gpio-input} thread.
+ * <p>The state change listener of a filtered pin only writes the raw change in a lock-free {@link PrimitiveRing},
+ * so the provider thread is never slowed down by a filter. The loop drains the ring, runs each change through the
+ * {@link InputPipeline} of its pin and sleeps until the next change or the next deadline of a held change. When the
+ * ring is full the change is dropped and the pin is read again once the ring has drained, so the filters always end
+ * on the actual level.</p>
+ */
+@Component
+@Slf4j
+public class InputEventLoop {
+
+    private static final int FIELD_PIPELINE = 0;
+    private static final int FIELD_TIME = 1;
+    private static final int BATCH_SIZE = 256;
+    private static final long IDLE_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+    private final PrimitiveRing ring;
+    private final long majorityIntervalNanos;
+    private final PrimitiveRing.RecordHandler dispatcher = this::dispatch;
+    private final Thread thread;
+    private volatile InputPipeline[] pipelines = new InputPipeline[0];
+    private volatile boolean running = true;
+    private volatile boolean waiting;
+
+    private final AtomicLong dropped = new AtomicLong();
+    private volatile long received;
+    private volatile long passed;
+
+    public InputEventLoop(InputProperties properties, MeterRegistry meterRegistry) {
+        this.ring = new PrimitiveRing(properties.getQueueCapacity(), 2);
+        this.majorityIntervalNanos = properties.getMajorityInterval().toNanos();
+
+        Gauge.builder("gpio.input.pending", ring, PrimitiveRing::size).register(meterRegistry);
+        FunctionCounter.builder("gpio.input.dropped", dropped, AtomicLong::get)
+            .description("Raw input changes dropped because the filter queue was full")
+            .register(meterRegistry);
+        FunctionCounter.builder("gpio.input.received", this, loop -> loop.received).register(meterRegistry);
+        FunctionCounter.builder("gpio.input.passed", this, loop -> loop.passed)
+            .description("Input changes passed on by the filters")
+            .register(meterRegistry);
+
+        this.thread = new Thread(this::run, "gpio-input");
+        this.thread.setDaemon(true);
+        this.thread.start();
+    }
+
+    /**
+     * Build the filters of an input pin and route its state changes through them.
+     *
+     * @param input The input pin.
+     * @param config The filters to run.
+     * @param listener Receives the changes passed by the filters, on the {@code gpio-input} thread.
+     */
+    public synchronized void attach(final DigitalInput input, final InputConfig config,
+                                    final Consumer<DigitalState> listener) {
+        final DigitalState initial = input.state();
+        final InputFilter[] filters = new InputFilter[3];
+        int count = 0;
+        if (!config.getGlitch().isZero()) {
+            filters[count++] = new GlitchFilter(config.getGlitch().toNanos(), initial);
+        }
+        if (config.getMajority() > 0) {
+            filters[count++] = new MajorityFilter(input, config.getMajority(), majorityIntervalNanos, initial);
+        }
+        if (!config.getDwell().isZero()) {
+            filters[count++] = new DwellFilter(config.getDwell().toNanos(), initial);
+        }
+
+        final InputPipeline[] current = pipelines;
+        final InputPipeline pipeline = new InputPipeline(current.length, input, Arrays.copyOf(filters, count), listener);
+        final InputPipeline[] updated = Arrays.copyOf(current, current.length + 1);
+        updated[pipeline.getIndex()] = pipeline;
+        pipelines = updated;
+        input.addListener(event -> submit(pipeline, event.state()));
+        log.info("Filtering the input {}: glitch {}, majority {}, dwell {}", input.address(),
+            format(config.getGlitch()), config.getMajority(), format(config.getDwell()));
+    }
+
+    private static String format(Duration duration) {
+        return duration.isZero() ? "off" : duration.toNanos() / 1000 + "us";
+    }
+
+    private void submit(InputPipeline pipeline, DigitalState state) {
+        final long position = ring.claim();
+        if (position < 0) {
+            dropped.incrementAndGet();
+            pipeline.markOverflowed();
+            return;
+        }
+        ring.put(position, FIELD_PIPELINE, ((long) pipeline.getIndex() << 1) | (state == DigitalState.HIGH ? 1 : 0));
+        ring.put(position, FIELD_TIME, System.nanoTime());
+        ring.publish(position);
+        if (waiting) {
+            LockSupport.unpark(thread);
+        }
+    }
+
+    private void dispatch(PrimitiveRing ring, long position) {
+        final long packed = ring.get(position, FIELD_PIPELINE);
+        final InputPipeline pipeline = pipelines[(int) (packed >>> 1)];
+        final DigitalState state = (packed & 1) != 0 ? DigitalState.HIGH : DigitalState.LOW;
+        if (pipeline.onState(state, ring.get(position, FIELD_TIME))) {
+            passed++;
+        }
+    }
+
+    private void run() {
+        while (running) {
+            try {
+                final int count = ring.drain(dispatcher, BATCH_SIZE);
+                received += count;
+                final long wait = pollAll(count == BATCH_SIZE);
+                if (count < BATCH_SIZE && wait > 0) {
+                    waiting = true;
+                    if (ring.size() == 0) {
+                        LockSupport.parkNanos(this, wait);
+                    }
+                    waiting = false;
+                }
+            } catch (RuntimeException ex) {
+                log.error("Input filtering failed", ex);
+            }
+        }
+    }
+
+    /**
+     * Decide the held changes which are due, and read the pins which lost changes once the ring has drained.
+     *
+     * @return The time to wait for the next deadline.
+     */
+    private long pollAll(boolean backlog) {
+        final InputPipeline[] current = pipelines;
+        final long now = System.nanoTime();
+        long wait = IDLE_NANOS;
+        for (final InputPipeline pipeline : current) {
+            if (!backlog && pipeline.clearOverflowed() && pipeline.onState(pipeline.getInput().state(), now)) {
+                passed++;
+            }
+            passed += pipeline.poll(now);
+            wait = pipeline.nanosToNextDeadline(now, wait);
+        }
+        return wait;
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        running = false;
+        LockSupport.unpark(thread);
+        thread.join(TimeUnit.SECONDS.toMillis(1));
+    }
+}
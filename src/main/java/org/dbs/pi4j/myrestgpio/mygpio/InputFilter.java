@@ -0,0 +1,36 @@
+package org.dbs.pi4j.myrestgpio.mygpio;
+
+import com.pi4j.io.gpio.digital.DigitalState;
+
+/**
+ * A software filter of the state changes of an input pin, one stage of an {@link InputPipeline}.
+ * <p>A filter passes a change on at once, drops it, or holds it until its deadline. It is only ever called from the
+ * {@code gpio-input} thread, so it keeps its state in plain fields.</p>
+ */
+interface InputFilter {
+
+    /**
+     * @param state The state reported by the previous stage.
+     * @param time The {@link System#nanoTime()} of the change.
+     * @return The state to pass on, null if the change is dropped or held.
+     */
+    DigitalState onState(DigitalState state, long time);
+
+    /**
+     * @return True if a change is held until {@link #getDeadline()}.
+     */
+    boolean isPending();
+
+    /**
+     * @return The {@link System#nanoTime()} the held change is decided at.
+     */
+    long getDeadline();
+
+    /**
+     * Decide the held change, called once the deadline is reached.
+     *
+     * @param now The current {@link System#nanoTime()}.
+     * @return The state to pass on, null if the change is dropped.
+     */
+    DigitalState poll(long now);
+}
@@ -0,0 +1,109 @@
+package org.dbs.pi4j.myrestgpio.mygpio;
+
+import com.pi4j.io.gpio.digital.DigitalInput;
+import com.pi4j.io.gpio.digital.DigitalState;
+
+import java.util.function.Consumer;
+
+/**
+ * The chain of {@link InputFilter}s of an input pin, ahead of its listener: the shadow state, then the event bus or
+ * the edge counter. A change goes through the filters in order; a change held by a filter continues from the next one
+ * when the {@link InputEventLoop} polls it.
+ */
+class InputPipeline {
+
+    private final int index;
+    private final DigitalInput input;
+    private final InputFilter[] filters;
+    private final Consumer<DigitalState> listener;
+    private volatile boolean overflowed;
+
+    InputPipeline(int index, DigitalInput input, InputFilter[] filters, Consumer<DigitalState> listener) {
+        this.index = index;
+        this.input = input;
+        this.filters = filters;
+        this.listener = listener;
+    }
+
+    int getIndex() {
+        return index;
+    }
+
+    DigitalInput getInput() {
+        return input;
+    }
+
+    /**
+     * Note that a change of the pin was lost because the queue was full.
+     */
+    void markOverflowed() {
+        overflowed = true;
+    }
+
+    /**
+     * @return True if a change was lost since the last call.
+     */
+    boolean clearOverflowed() {
+        if (!overflowed) {
+            return false;
+        }
+        overflowed = false;
+        return true;
+    }
+
+    /**
+     * Filter a raw change of the pin.
+     *
+     * @return True if the change reached the listener.
+     */
+    boolean onState(DigitalState state, long time) {
+        return feed(0, state, time);
+    }
+
+    /**
+     * Decide the held changes whose deadline is reached.
+     *
+     * @param now The current {@link System#nanoTime()}.
+     * @return The number of changes which reached the listener.
+     */
+    int poll(long now) {
+        int passed = 0;
+        for (int stage = 0; stage < filters.length; stage++) {
+            final InputFilter filter = filters[stage];
+            if (filter.isPending() && now - filter.getDeadline() >= 0) {
+                final DigitalState state = filter.poll(now);
+                if (state != null && feed(stage + 1, state, now)) {
+                    passed++;
+                }
+            }
+        }
+        return passed;
+    }
+
+    /**
+     * @param now The current {@link System#nanoTime()}.
+     * @param limit The longest wait.
+     * @return The time to wait before the next held change is due, at most the limit.
+     */
+    long nanosToNextDeadline(long now, long limit) {
+        long wait = limit;
+        for (final InputFilter filter : filters) {
+            if (filter.isPending()) {
+                wait = Math.min(wait, Math.max(0, filter.getDeadline() - now));
+            }
+        }
+        return wait;
+    }
+
+    private boolean feed(int from, DigitalState state, long time) {
+        DigitalState current = state;
+        for (int stage = from; stage < filters.length && current != null; stage++) {
+            current = filters[stage].onState(current, time);
+        }
+        if (current == null) {
+            return false;
+        }
+        listener.accept(current);
+        return true;
+    }
+}
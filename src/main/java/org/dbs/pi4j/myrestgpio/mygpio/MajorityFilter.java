@@ -0,0 +1,86 @@
+package org.dbs.pi4j.myrestgpio.mygpio;
+
+import com.pi4j.io.gpio.digital.DigitalInput;
+import com.pi4j.io.gpio.digital.DigitalState;
+
+/**
+ * Confirms a change by reading the pin an odd number of times and keeping the majority level, for noisy lines where
+ * a single sample is not trusted. Each change costs that many reads of the provider.
+ * <p>The samples are spaced by {@code gpio.inputs.majority-interval}: the filter holds the change and takes the next
+ * sample at its deadline, so a burst of noise shorter than the interval cannot win every vote. A change arriving while
+ * the samples are taken starts a new vote once the current one is decided, so the filter always ends on the actual
+ * level. With an interval of 0 the samples are taken back-to-back.</p>
+ */
+class MajorityFilter implements InputFilter {
+
+    private final DigitalInput input;
+    private final int samples;
+    private final long intervalNanos;
+    private DigitalState current;
+    private int taken;
+    private int high;
+    private boolean pending;
+    private boolean changedWhileSampling;
+    private long deadline;
+
+    MajorityFilter(DigitalInput input, int samples, long intervalNanos, DigitalState initial) {
+        this.input = input;
+        this.samples = samples;
+        this.intervalNanos = intervalNanos;
+        this.current = initial;
+    }
+
+    @Override
+    public DigitalState onState(DigitalState state, long time) {
+        if (pending) {
+            changedWhileSampling = true;
+            return null;
+        }
+        return sample(time);
+    }
+
+    @Override
+    public boolean isPending() {
+        return pending;
+    }
+
+    @Override
+    public long getDeadline() {
+        return deadline;
+    }
+
+    @Override
+    public DigitalState poll(long now) {
+        return sample(now);
+    }
+
+    /**
+     * Take the next sample, or all of them without an interval, and decide once they are all taken.
+     */
+    private DigitalState sample(long now) {
+        do {
+            if (input.state() == DigitalState.HIGH) {
+                high++;
+            }
+            taken++;
+        } while (taken < samples && intervalNanos <= 0);
+
+        if (taken < samples) {
+            pending = true;
+            deadline = now + intervalNanos;
+            return null;
+        }
+
+        final DigitalState majority = high * 2 > samples ? DigitalState.HIGH : DigitalState.LOW;
+        taken = 0;
+        high = 0;
+        pending = changedWhileSampling;
+        changedWhileSampling = false;
+        deadline = now + intervalNanos;
+        if (majority == current) {
+            return null;
+        }
+        current = majority;
+        return majority;
+    }
+}
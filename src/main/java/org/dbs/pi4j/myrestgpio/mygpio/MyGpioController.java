@@ -1,49 +1,228 @@
 package org.dbs.pi4j.myrestgpio.mygpio;
 
-import com.pi4j.Pi4J;
 import com.pi4j.context.Context;
 import com.pi4j.io.gpio.digital.*;
+import com.pi4j.io.pwm.Pwm;
+import com.pi4j.io.pwm.PwmConfigBuilder;
+import com.pi4j.io.pwm.PwmType;
 import com.pi4j.platform.Platform;
 import com.pi4j.util.Console;
-import lombok.Getter;
 import lombok.extern.slf4j.Slf4j;
+import org.dbs.pi4j.myrestgpio.common.CommandLog;
+import org.dbs.pi4j.myrestgpio.common.CommandLog.Command;
 import org.dbs.pi4j.myrestgpio.common.PrintInfo;
+import org.dbs.pi4j.myrestgpio.configuration.PwmProperties;
+import org.dbs.pi4j.myrestgpio.configuration.StartupProperties;
 import org.springframework.stereotype.Controller;
 
-import java.util.HashMap;
-import java.util.Map;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.Executor;
 import java.util.concurrent.TimeUnit;
-
+import java.util.function.Consumer;
+
+/**
+ * Drives the GPIO pins through Pi4J.
+ * <p>The Pi4J context is created on the {@code gpio-init} thread, in parallel with the rest of the Spring context, so
+ * that the web server answers while the native libraries load. Until {@link #isReady()} the REST calls on the pins are
+ * refused with a 503 and the {@code gpio} health indicator is down; a call made from the device itself waits for the
+ * initialization.</p>
+ */
 @Controller
 @Slf4j
 public class MyGpioController {
 
-    private static final String THERE_IS_NO_PIN_PROVISIONED_AT_THE_GIVEN_ADDRESS = "There is no pin provisioned at the given address";
-    private static final String THE_PROVISIONED_PIN_AT_THE_GIVEN_ADDRESS_IS_NOT_OF_THE_TYPE_GPIO_PIN_DIGITAL_OUTPUT = "The provisioned pin at the given address is not of the type GpioPinDigitalOutput";
-    private final Context pi4j;
+    private final CompletableFuture<Context> pi4j;
+    private final CompletableFuture<Duration> ready;
+    private final GpioBackend backend;
+    private final GpioExecutor gpio;
     private final Console console;
+    private final PulseScheduler pulseScheduler;
+    private final SequenceEngine sequenceEngine;
+    private final PwmFader pwmFader;
+    private final PwmProperties pwmProperties;
+    private final EdgeCounters edgeCounters;
+    private final InputEventLoop inputEvents;
+    private final ProvisioningJournal journal;
+    private final PinHistory pinHistory;
+    private final PinEventBus pinEventBus;
+    private final CommandLog commandLog;
+
+    private final PinRegistry provisionedPins;
+
+    public MyGpioController(GpioBackend backend, GpioExecutor gpio, PulseScheduler pulseScheduler,
+                            SequenceEngine sequenceEngine, PwmFader pwmFader, PwmProperties pwmProperties,
+                            EdgeCounters edgeCounters, InputEventLoop inputEvents, ProvisioningJournal journal,
+                            PinHistory pinHistory, PinEventBus pinEventBus, CommandLog commandLog,
+                            StartupProperties startupProperties) {
+        this.backend = backend;
+        this.gpio = gpio;
+        this.pulseScheduler = pulseScheduler;
+        this.sequenceEngine = sequenceEngine;
+        this.pwmFader = pwmFader;
+        this.pwmProperties = pwmProperties;
+        this.edgeCounters = edgeCounters;
+        this.inputEvents = inputEvents;
+        this.journal = journal;
+        this.pinHistory = pinHistory;
+        this.pinEventBus = pinEventBus;
+        this.commandLog = commandLog;
+        console = new Console();
+        provisionedPins = new PinRegistry(journal, pinHistory);
+
+        final long start = System.nanoTime();
+        final Executor initializer = runnable -> {
+            final Thread thread = new Thread(runnable, "gpio-init");
+            thread.setDaemon(true);
+            thread.start();
+        };
+        pi4j = CompletableFuture.supplyAsync(this::initialize, initializer);
+        ready = pi4j.thenApply(context -> {
+            restore();
+            if (startupProperties.getTestPin() >= 0) {
+                doOnetest(startupProperties.getTestPin());
+            }
+            final Duration duration = Duration.ofNanos(System.nanoTime() - start);
+            log.info("GPIO layer ready in {} ms", duration.toMillis());
+            return duration;
+        });
+        ready.whenComplete((duration, ex) -> {
+            if (ex != null) {
+                log.error("GPIO layer failed to initialize", ex);
+            }
+        });
+    }
 
-    @Getter
-    private final Map<Integer, Object> provisionedPins;
+    private Context initialize() {
+        final Context context = backend.createContext();
+        if (log.isDebugEnabled()) {
+            PrintInfo.printLoadedPlatforms(console, context);
+            PrintInfo.printDefaultPlatform(console, context);
+            PrintInfo.printProviders(console, context);
+        }
+        return context;
+    }
 
-    public MyGpioController() {
-        pi4j = Pi4J.newAutoContext();
-        console = new Console();
-        provisionedPins = new HashMap<>();
-        PrintInfo.printLoadedPlatforms(console, pi4j);
-        PrintInfo.printDefaultPlatform(console, pi4j);
-        PrintInfo.printProviders(console, pi4j);
+    /**
+     * Provision the pins of the {@link ProvisioningJournal} again, with their last levels.
+     */
+    private void restore() {
+        final long start = System.nanoTime();
+        final int restored = journal.restore(new ProvisioningJournal.Restorer() {
+            @Override
+            public void output(int address, String name, boolean high) {
+                provisionOutput(address, name);
+                if (high) {
+                    gpio.call(() -> provisionedPins.require(address).asDigitalOutput().set(true));
+                }
+            }
+
+            @Override
+            public void input(int address, String name, InputConfig config) {
+                validate(config);
+                provisionInput(address, name, config);
+            }
+
+            @Override
+            public void pwm(int address, String name, PwmType type, int frequency, float dutyCycle) {
+                provisionPwm(address, name, type, frequency);
+                if (dutyCycle > 0) {
+                    gpio.call(() -> provisionedPins.require(address).asPwm().setDutyCycle(dutyCycle));
+                }
+            }
+        });
+        if (restored > 0) {
+            log.info("Restored {} pins from the journal in {} ms", restored,
+                Duration.ofNanos(System.nanoTime() - start).toMillis());
+        }
+    }
+
+    private void doOnetest(int address) {
+        if (provisionedPins.get(address) != null) {
+            log.info("Test pin {} already restored from the journal", address);
+            return;
+        }
+        provisionDigitalOutputPin(address, "LED");
+        setPinDigitalState(address,1);
+    }
+
+    /**
+     * @return The Pi4J context, waiting for its initialization if needed.
+     * @throws IllegalStateException If the initialization failed.
+     */
+    private Context context() {
+        try {
+            return pi4j.join();
+        } catch (CompletionException ex) {
+            throw new IllegalStateException("The GPIO layer failed to initialize", ex.getCause());
+        }
+    }
+
+    /**
+     * @return True once the Pi4J context is created and the test pin is set.
+     */
+    public boolean isReady() {
+        return ready.isDone() && !ready.isCompletedExceptionally();
+    }
 
-        doOnetest();
+    /**
+     * @return The error of the initialization, null if it succeeded or is still running.
+     */
+    public Throwable getInitFailure() {
+        if (!ready.isCompletedExceptionally()) {
+            return null;
+        }
+        try {
+            ready.join();
+            return null;
+        } catch (CompletionException ex) {
+            return ex.getCause();
+        }
     }
 
-    private void doOnetest() {
-        provisionDigitalOutputPin(23, "LED");
-        setPinDigitalState(23,1);
+    /**
+     * @return Completes with the duration of the initialization once the GPIO layer is ready.
+     */
+    public CompletionStage<Duration> readiness() {
+        return ready.minimalCompletionStage();
     }
 
     public Platform getPlatform() {
-        return pi4j.getPlatform();
+        return context().getPlatform();
+    }
+
+    /**
+     * @return The provisioned pins, in address order.
+     */
+    public List<PinHandle> getProvisionedPins() {
+        return provisionedPins.list();
+    }
+
+    /**
+     * Read all the provisioned pins from the hardware, in one call on the GPIO executor, and refresh their shadow
+     * values.
+     */
+    public void refreshProvisionedPins() {
+        gpio.call(() -> {
+            for (final PinHandle pin : provisionedPins.list()) {
+                pin.getValue(true);
+            }
+            return null;
+        });
+    }
+
+    /**
+     * @return The version of the provisioned pins, incremented on every provisioning and every pin state change.
+     */
+    public long getProvisionVersion() {
+        return provisionedPins.getVersion();
     }
 
     /**
@@ -54,69 +233,383 @@ public class MyGpioController {
      * @return True if successful.
      */
     public boolean provisionDigitalOutputPin(final int address, final String name) {
-        checkIfAdressAlreadyInUse(address);
+        try {
+            provisionOutput(address, name);
+        } catch (RuntimeException ex) {
+            commandLog.recordError(Command.PROVISION_OUTPUT, address, 0);
+            throw ex;
+        }
+        commandLog.record(Command.PROVISION_OUTPUT, address, 0, true);
+
+        return true;
+    }
+
+    private void provisionOutput(final int address, final String name) {
+        gpio.call(() -> this.provisionedPins.provision(address, pinAddress -> {
+            final DigitalOutputConfigBuilder provisionedPinConfig = DigitalOutput.newConfigBuilder(context())
+                .id(name)
+                .name(name)
+                .address(pinAddress)
+                .shutdown(DigitalState.LOW)
+                .initial(DigitalState.LOW).
+                provider(backend.getDigitalOutputProvider());
+
+            final DigitalOutputHandle handle = new DigitalOutputHandle(pinAddress,
+                context().create(provisionedPinConfig), DigitalState.LOW);
+            journal.provisionedOutput(pinAddress, name);
+            return handle;
+        }));
+    }
 
-        final DigitalOutputConfigBuilder provisionedPinConfig = DigitalOutput.newConfigBuilder(pi4j)
-            .id(name)
-            .name(name)
-            .address(address)
-            .shutdown(DigitalState.LOW)
-            .initial(DigitalState.LOW).
-            provider("pigpio-digital-output");
 
-        this.provisionedPins.put(address, pi4j.create(provisionedPinConfig));
+    /**
+     * Provision a GPIO as digital input pin. Its state changes are published on the {@link PinEventBus}.
+     *
+     * @param address The address of the GPIO pin.
+     * @param name The name of the GPIO pin.
+     * @return True if successful.
+     */
+    public boolean provisionDigitalInputPin(final int address, final String name) {
+        return provisionDigitalInputPin(address, name, InputConfig.DEFAULT);
+    }
+
+    /**
+     * Provision a GPIO as digital input pin with its own pull resistance, debounce and software filters.
+     * <p>In counting mode the edges are counted by an {@link EdgeCounter}, without debounce unless one is set, and are
+     * not published on the {@link PinEventBus}: read the counts and rates with {@link #getEdgeCount(int, boolean)}.
+     * The software filters run on the {@link InputEventLoop} thread, ahead of the shadow state; an input without
+     * filters is updated directly from the provider thread.</p>
+     *
+     * @param address The address of the GPIO pin.
+     * @param name The name of the GPIO pin.
+     * @param config The {@link InputConfig}.
+     * @return True if successful.
+     */
+    public boolean provisionDigitalInputPin(final int address, final String name, final InputConfig config) {
+        try {
+            validate(config);
+            provisionInput(address, name, config);
+        } catch (RuntimeException ex) {
+            commandLog.recordError(Command.PROVISION_INPUT, address, 0);
+            throw ex;
+        }
+        commandLog.record(Command.PROVISION_INPUT, address, 0, true);
 
         return true;
     }
 
+    private static void validate(InputConfig config) {
+        if (config.getPull() == null) {
+            throw new IllegalArgumentException("The pull resistance of an input is required");
+        }
+        if (config.getDebounce() != null && config.getDebounce().isNegative()
+            || config.getGlitch().isNegative() || config.getDwell().isNegative()) {
+            throw new IllegalArgumentException("The debounce, glitch and dwell times must not be negative");
+        }
+        if (config.getMajority() < 0 || config.getMajority() > 0 && config.getMajority() % 2 == 0) {
+            throw new IllegalArgumentException("The majority must be an odd number of samples");
+        }
+    }
+
+    private void provisionInput(final int address, final String name, final InputConfig config) {
+        gpio.call(() -> this.provisionedPins.provision(address, pinAddress -> {
+            final var provisionedPinConfig = DigitalInput.newConfigBuilder(context())
+                .id(name)
+                .name(name)
+                .address(pinAddress)
+                .pull(config.getPull())
+                .debounce(config.getDebounceMicros())
+                .provider(backend.getDigitalInputProvider());
+
+            final DigitalInput input = context().create(provisionedPinConfig);
+            final EdgeCounter counter = config.getCounting() != null
+                ? edgeCounters.create(pinAddress, config.getCounting()) : null;
+            final DigitalInputHandle handle = new DigitalInputHandle(pinAddress, input, counter);
+            final Consumer<DigitalState> listener = counter != null
+                ? state -> onInputEdge(handle, state) : state -> onInputChange(handle, state);
+            if (config.isFiltered()) {
+                inputEvents.attach(input, config, listener);
+            } else {
+                input.addListener(event -> listener.accept(event.state()));
+            }
+            journal.provisionedInput(pinAddress, name, config);
+            return handle;
+        }));
+    }
+
+    private void onInputChange(DigitalInputHandle handle, DigitalState state) {
+        if (handle.deliver(state)) {
+            pinEventBus.publish(handle.getAddress(), state.getValue().intValue());
+        }
+    }
+
+    private void onInputEdge(DigitalInputHandle handle, DigitalState state) {
+        if (handle.deliver(state)) {
+            handle.getEdgeCounter().onEdge(state);
+        }
+    }
+
+    /**
+     * Read the edges counted on an input pin in counting mode.
+     *
+     * @param address The address of the GPIO pin.
+     * @param reset True to restart the count from zero, atomically with the read.
+     * @return The {@link EdgeCount}, before the reset.
+     */
+    public EdgeCount getEdgeCount(final int address, final boolean reset) {
+        final EdgeCount count;
+        try {
+            final EdgeCounter counter = this.provisionedPins.require(address).asDigitalInput().getEdgeCounter();
+            if (counter == null) {
+                throw new IllegalArgumentException("The input pin at the given address does not count its edges");
+            }
+            count = counter.read(reset);
+        } catch (RuntimeException ex) {
+            if (reset) {
+                commandLog.recordError(Command.EDGE_RESET, address, 0);
+            }
+            throw ex;
+        }
+        if (reset) {
+            commandLog.record(Command.EDGE_RESET, address, (int) Math.min(Integer.MAX_VALUE, count.getCount()), true);
+        }
+        return count;
+    }
 
     /**
-     * Provision a GPIO as digital input pin.
+     * Get the transitions of a pin over a time range, the oldest first.
+     *
+     * @param address The address of the GPIO pin.
+     * @param from The start of the range, excluded, in milliseconds since the epoch.
+     * @param to The end of the range, included, in milliseconds since the epoch.
+     * @param limit The maximum number of transitions, at most {@code gpio.history.max-points}.
+     * @return The {@link HistorySlice}.
+     */
+    public HistorySlice getHistory(final int address, final long from, final long to, final int limit) {
+        return historyOf(address).slice(TimeUnit.MILLISECONDS.toMicros(from), TimeUnit.MILLISECONDS.toMicros(to),
+            Math.max(0, Math.min(limit, pinHistory.getMaxPoints())));
+    }
+
+    /**
+     * Get the duty cycle, pulse and frequency statistics of a pin over a time range.
+     *
+     * @param address The address of the GPIO pin.
+     * @param from The start of the range, excluded, in milliseconds since the epoch.
+     * @param to The end of the range, included, in milliseconds since the epoch.
+     * @return The {@link HistoryStats}.
+     */
+    public HistoryStats getHistoryStats(final int address, final long from, final long to) {
+        return historyOf(address).slice(TimeUnit.MILLISECONDS.toMicros(from), TimeUnit.MILLISECONDS.toMicros(to),
+            Integer.MAX_VALUE).stats();
+    }
+
+    /**
+     * Get the transitions of a pin over a time range downsampled for charting.
+     *
+     * @param address The address of the GPIO pin.
+     * @param from The start of the range, excluded, in milliseconds since the epoch.
+     * @param to The end of the range, included, in milliseconds since the epoch.
+     * @param points The number of buckets, at most {@code gpio.history.max-points}.
+     * @return The {@link HistorySeries}.
+     */
+    public HistorySeries getHistorySeries(final int address, final long from, final long to, final int points) {
+        return historyOf(address).slice(TimeUnit.MILLISECONDS.toMicros(from), TimeUnit.MILLISECONDS.toMicros(to),
+            Integer.MAX_VALUE).series(Math.max(1, Math.min(points, pinHistory.getMaxPoints())));
+    }
+
+    private HistoryRing historyOf(int address) {
+        final HistoryRing ring = this.provisionedPins.require(address).getHistory();
+        if (ring == null) {
+            throw new IllegalArgumentException("The pin history is disabled");
+        }
+        return ring;
+    }
+
+    /**
+     * @return The edges counted on all the input pins in counting mode.
+     */
+    public List<EdgeCount> getEdgeCounts() {
+        final List<EdgeCount> counts = new ArrayList<>();
+        for (final EdgeCounter counter : edgeCounters.getAll()) {
+            counts.add(counter.read(false));
+        }
+        return counts;
+    }
+
+    /**
+     * Provision a GPIO as PWM pin, off until a duty cycle is set.
      *
      * @param address The address of the GPIO pin.
      * @param name The name of the GPIO pin.
+     * @param type {@link PwmType#HARDWARE} (addresses 12, 13, 18 and 19 only) or {@link PwmType#SOFTWARE}.
+     * @param frequency The frequency in Hz, null for the default frequency.
      * @return True if successful.
      */
-    public boolean provisionDigitalInputPin(final int address, final String name) {
-        checkIfAdressAlreadyInUse(address);
+    public boolean provisionPwmPin(final int address, final String name, final PwmType type, final Integer frequency) {
+        try {
+            provisionPwm(address, name, type, frequency != null ? frequency : pwmProperties.getDefaultFrequency());
+        } catch (RuntimeException ex) {
+            commandLog.recordError(Command.PROVISION_PWM, address, 0);
+            throw ex;
+        }
+        commandLog.record(Command.PROVISION_PWM, address, 0, true);
 
-        final var provisionedPinConfig = DigitalInput.newConfigBuilder(pi4j)
-            .id("button")
-            .name("Press button")
-            .address(address)
-            .pull(PullResistance.PULL_DOWN)
-            .debounce(3000L)
-            .provider("pigpio-digital-input");
-        var provisionedPin = pi4j.create(provisionedPinConfig);
+        return true;
+    }
 
-        if (provisionedPin != null) {
-            this.provisionedPins.put(address, provisionedPin);
-            return true;
+    private void provisionPwm(final int address, final String name, final PwmType type, final int frequency) {
+        if (frequency <= 0) {
+            throw new IllegalArgumentException("The frequency must be strictly positive");
+        }
+        if (type == PwmType.HARDWARE && !isHardwarePwmAddress(address)) {
+            throw new IllegalArgumentException("Hardware PWM is only available on the addresses 12, 13, 18 and 19");
         }
 
-        return false;
+        gpio.call(() -> this.provisionedPins.provision(address, pinAddress -> {
+            final PwmConfigBuilder provisionedPinConfig = Pwm.newConfigBuilder(context())
+                .id(name)
+                .name(name)
+                .address(pinAddress)
+                .pwmType(type)
+                .frequency(frequency)
+                .initial(0)
+                .shutdown(0)
+                .provider(backend.getPwmProvider());
+
+            final PwmHandle handle = new PwmHandle(pinAddress, context().create(provisionedPinConfig), frequency, 0);
+            journal.provisionedPwm(pinAddress, name, type, frequency);
+            return handle;
+        }));
+    }
+
+    private static boolean isHardwarePwmAddress(int address) {
+        return address == 12 || address == 13 || address == 18 || address == 19;
     }
 
     /**
-     * Get the state of the GPIO pin at the given address.
+     * Get a PWM pin.
+     *
+     * @param address The address of the GPIO pin.
+     * @return The {@link PwmHandle}.
+     */
+    public PwmHandle getPwm(final int address) {
+        return this.provisionedPins.require(address).asPwm();
+    }
+
+    /**
+     * @param address The address of the GPIO pin.
+     * @return The duty cycle ramp in progress on the pin, null if none.
+     */
+    public PwmRamp getPwmRamp(final int address) {
+        return pwmFader.get(address);
+    }
+
+    /**
+     * Set the duty cycle of a PWM pin, cancelling its ramp if any.
+     *
+     * @param address The address of the GPIO pin.
+     * @param dutyCycle The duty cycle in percent, 0 turns the PWM off.
+     * @return True if successful.
+     */
+    public boolean setPwmDutyCycle(final int address, final float dutyCycle) {
+        final boolean changed;
+        try {
+            final PwmHandle pwm = this.provisionedPins.require(address).asPwm();
+            pwmFader.cancel(address);
+            changed = gpio.call(() -> pwm.setDutyCycle(dutyCycle));
+        } catch (RuntimeException ex) {
+            commandLog.recordError(Command.PWM_DUTY, address, Math.round(dutyCycle));
+            throw ex;
+        }
+        commandLog.record(Command.PWM_DUTY, address, Math.round(dutyCycle), changed);
+        return true;
+    }
+
+    /**
+     * Set the frequency of a PWM pin.
+     *
+     * @param address The address of the GPIO pin.
+     * @param frequency The frequency in Hz.
+     * @return True if successful.
+     */
+    public boolean setPwmFrequency(final int address, final int frequency) {
+        final boolean changed;
+        try {
+            changed = gpio.call(() -> this.provisionedPins.require(address).asPwm().setFrequency(frequency));
+        } catch (RuntimeException ex) {
+            commandLog.recordError(Command.PWM_FREQUENCY, address, frequency);
+            throw ex;
+        }
+        commandLog.record(Command.PWM_FREQUENCY, address, frequency, changed);
+        return true;
+    }
+
+    /**
+     * Ramp the duty cycle of a PWM pin to the target, run on the device by the {@link PwmFader}.
+     *
+     * @param address The address of the GPIO pin.
+     * @param dutyCycle The target duty cycle in percent.
+     * @param duration The duration of the ramp in milliseconds.
+     * @return True if successful.
+     */
+    public boolean rampPwm(final int address, final float dutyCycle, final long duration) {
+        try {
+            final PwmHandle pwm = this.provisionedPins.require(address).asPwm();
+            gpio.call(() -> pwmFader.start(pwm, dutyCycle, duration));
+        } catch (RuntimeException ex) {
+            commandLog.recordError(Command.PWM_RAMP, address, Math.round(dutyCycle));
+            throw ex;
+        }
+        commandLog.record(Command.PWM_RAMP, address, Math.round(dutyCycle), true);
+        return true;
+    }
+
+    /**
+     * Get the state of the GPIO pin at the given address, from the shadow state.
      *
      * @param address The address of the GPIO pin.
      * @return The {@link DigitalState}.
      */
     public DigitalState getState(final int address) {
-        log.info("Get pin state requested for address {}", address);
+        return getState(address, false);
+    }
 
-        Object provisionedPin = this.provisionedPins.get(address);
+    /**
+     * Get the state of the GPIO pin at the given address.
+     *
+     * @param address The address of the GPIO pin.
+     * @param fresh True to read the hardware, false to read the shadow state.
+     * @return The {@link DigitalState}.
+     */
+    public DigitalState getState(final int address, final boolean fresh) {
+        return readInput(address, fresh).getState();
+    }
 
-        if (provisionedPin == null) {
-            throw new IllegalArgumentException(THERE_IS_NO_PIN_PROVISIONED_AT_THE_GIVEN_ADDRESS);
-        } else {
-            if (provisionedPin instanceof DigitalInput) {
-                return ((DigitalInput) provisionedPin).state();
-            } else {
-                throw new IllegalArgumentException("The provisioned pin at the given address is not of the type GpioPinDigitalInput");
+    /**
+     * Get the state of the GPIO pin at the given address with the time of its last change.
+     *
+     * @param address The address of the GPIO pin.
+     * @param fresh True to read the hardware, false to read the shadow state.
+     * @return The {@link PinState}.
+     */
+    public PinState getPinState(final int address, final boolean fresh) {
+        final DigitalInputHandle input = readInput(address, fresh);
+        return new PinState(address, input.getState(), input.getLastChanged());
+    }
+
+    private DigitalInputHandle readInput(final int address, final boolean fresh) {
+        final DigitalInputHandle input;
+        try {
+            input = this.provisionedPins.require(address).asDigitalInput();
+            if (fresh) {
+                gpio.call(input::readState);
             }
+        } catch (RuntimeException ex) {
+            commandLog.recordError(Command.READ, address, 0);
+            throw ex;
         }
+        commandLog.record(Command.READ, address, input.getState().getValue().intValue(), false);
+        return input;
     }
 
     /**
@@ -127,25 +620,15 @@ public class MyGpioController {
      * @return True if successful.
      */
     public boolean setPinDigitalState(final int address, final int value) {
-        log.info("Set pin digital state requested for address {} to value {}", address, value);
-
-        Object provisionedPin = this.provisionedPins.get(address);
-
-        if (provisionedPin == null) {
-            throw new IllegalArgumentException(THERE_IS_NO_PIN_PROVISIONED_AT_THE_GIVEN_ADDRESS);
-        } else {
-            if (provisionedPin instanceof DigitalOutput) {
-                if (value == 1) {
-                    ((DigitalOutput) provisionedPin).high();
-                } else {
-                    ((DigitalOutput) provisionedPin).low();
-                }
-
-                return true;
-            } else {
-                throw new IllegalArgumentException(THE_PROVISIONED_PIN_AT_THE_GIVEN_ADDRESS_IS_NOT_OF_THE_TYPE_GPIO_PIN_DIGITAL_OUTPUT);
-            }
+        final boolean changed;
+        try {
+            changed = gpio.call(() -> this.provisionedPins.require(address).asDigitalOutput().set(value == 1));
+        } catch (RuntimeException ex) {
+            commandLog.recordError(Command.SET, address, value);
+            throw ex;
         }
+        commandLog.record(Command.SET, address, value, changed);
+        return true;
     }
 
     /**
@@ -155,52 +638,176 @@ public class MyGpioController {
      * @return True if successful.
      */
     public boolean togglePin(final int address) {
-        log.info("Toggle pin requested for address {}", address);
-
-        Object provisionedPin = this.provisionedPins.get(address);
-
-        if (provisionedPin == null) {
-            throw new IllegalArgumentException(THERE_IS_NO_PIN_PROVISIONED_AT_THE_GIVEN_ADDRESS);
-        } else {
-            if (provisionedPin instanceof DigitalOutput) {
-                ((DigitalOutput) provisionedPin).toggle();
-
-                return true;
-            } else {
-                throw new IllegalArgumentException(THE_PROVISIONED_PIN_AT_THE_GIVEN_ADDRESS_IS_NOT_OF_THE_TYPE_GPIO_PIN_DIGITAL_OUTPUT);
-            }
+        final DigitalState state;
+        try {
+            state = gpio.call(() -> this.provisionedPins.require(address).asDigitalOutput().toggle());
+        } catch (RuntimeException ex) {
+            commandLog.recordError(Command.TOGGLE, address, 0);
+            throw ex;
         }
+        commandLog.record(Command.TOGGLE, address, state.getValue().intValue(), true);
+        return true;
     }
 
     /**
      * Pulse a pin for the given duration.
+     * <p>The pin is set high and the call returns immediately, the {@link PulseScheduler} sets it back low.</p>
      *
      * @param address The address of the GPIO pin.
      * @param duration The duration in milliseconds.
      * @return True if successful.
      */
     public boolean pulsePin(final int address, final int duration) {
-        log.info("Pulse pin requested for address {} with duration {}", address, duration);
+        startPulse(address, duration);
+        return true;
+    }
 
-        Object provisionedPin = this.provisionedPins.get(address);
+    /**
+     * Start a pulse on a pin for the given duration.
+     *
+     * @param address The address of the GPIO pin.
+     * @param duration The duration in milliseconds.
+     * @return The pending {@link Pulse}.
+     */
+    public Pulse startPulse(final int address, final int duration) {
+        final Pulse pulse;
+        try {
+            final DigitalOutputHandle output = this.provisionedPins.require(address).asDigitalOutput();
+            pulse = gpio.call(() -> pulseScheduler.start(output, duration));
+        } catch (RuntimeException ex) {
+            commandLog.recordError(Command.PULSE, address, duration);
+            throw ex;
+        }
+        commandLog.record(Command.PULSE, address, duration, true);
+        return pulse;
+    }
 
-        if (provisionedPin == null) {
-            throw new IllegalArgumentException(THERE_IS_NO_PIN_PROVISIONED_AT_THE_GIVEN_ADDRESS);
-        } else {
-            if (provisionedPin instanceof DigitalOutput) {
-                ((DigitalOutput) provisionedPin).pulse(duration, TimeUnit.MILLISECONDS);
-                return true;
-            } else {
-                throw new IllegalArgumentException(THE_PROVISIONED_PIN_AT_THE_GIVEN_ADDRESS_IS_NOT_OF_THE_TYPE_GPIO_PIN_DIGITAL_OUTPUT);
+    /**
+     * Cancel a pending pulse, the pin is set low immediately.
+     *
+     * @param pulseId The id of the pulse.
+     * @return True if the pulse was pending.
+     */
+    public boolean cancelPulse(final long pulseId) {
+        log.info("Cancel pulse requested for id {}", pulseId);
+        return gpio.call(() -> pulseScheduler.cancel(pulseId));
+    }
+
+    /**
+     * Extend a pending pulse.
+     *
+     * @param pulseId The id of the pulse.
+     * @param duration The additional duration in milliseconds.
+     * @return The extended {@link Pulse}.
+     */
+    public Pulse extendPulse(final long pulseId, final int duration) {
+        log.info("Extend pulse requested for id {} with duration {}", pulseId, duration);
+        return pulseScheduler.extend(pulseId, duration);
+    }
+
+    /**
+     * Start a timed sequence of writes on output pins, run on the device by the {@link SequenceEngine}.
+     *
+     * @param steps The steps, in any order.
+     * @param repeat The number of iterations, 0 to repeat until stopped.
+     * @param periodMicros The period of an iteration in microseconds, 0 to use the offset of the last step.
+     * @return The running {@link Sequence}.
+     */
+    public Sequence startSequence(final List<SequenceStep> steps, final int repeat, final long periodMicros) {
+        final int address = steps.isEmpty() ? 0 : steps.get(0).getAddress();
+        final Sequence sequence;
+        try {
+            final SequenceStep[] sorted = steps.toArray(new SequenceStep[0]);
+            Arrays.sort(sorted, Comparator.comparingLong(SequenceStep::getOffsetMicros));
+
+            final DigitalOutputHandle[] outputs = new DigitalOutputHandle[sorted.length];
+            for (int index = 0; index < sorted.length; index++) {
+                outputs[index] = this.provisionedPins.require(sorted[index].getAddress()).asDigitalOutput();
             }
+            sequence = sequenceEngine.start(outputs, sorted, repeat, periodMicros);
+        } catch (RuntimeException ex) {
+            commandLog.recordError(Command.SEQUENCE, address, steps.size());
+            throw ex;
         }
+        commandLog.record(Command.SEQUENCE, address, steps.size(), true);
+        return sequence;
     }
 
-    private void checkIfAdressAlreadyInUse(int address) {
-        if (this.provisionedPins.containsKey(address)) {
-            log.error("There is already a provisioned pin at address {}", address);
-            throw new IllegalArgumentException("There is already a provisioned pin at the given address");
-        }
+    /**
+     * @param sequenceId The id of the sequence.
+     * @return The running or recently ended {@link Sequence}.
+     */
+    public Sequence getSequence(final long sequenceId) {
+        return sequenceEngine.get(sequenceId);
+    }
+
+    /**
+     * @return The running and recently ended sequences.
+     */
+    public Collection<Sequence> getSequences() {
+        return sequenceEngine.getAll();
+    }
+
+    /**
+     * Pause a running sequence.
+     *
+     * @param sequenceId The id of the sequence.
+     * @return The paused {@link Sequence}.
+     */
+    public Sequence pauseSequence(final long sequenceId) {
+        log.info("Pause sequence requested for id {}", sequenceId);
+        return sequenceEngine.pause(sequenceId);
+    }
+
+    /**
+     * Resume a paused sequence.
+     *
+     * @param sequenceId The id of the sequence.
+     * @return The resumed {@link Sequence}.
+     */
+    public Sequence resumeSequence(final long sequenceId) {
+        log.info("Resume sequence requested for id {}", sequenceId);
+        return sequenceEngine.resume(sequenceId);
+    }
+
+    /**
+     * Stop a sequence, the pins keep their current state.
+     *
+     * @param sequenceId The id of the sequence.
+     * @return True if the sequence was running or paused.
+     */
+    public boolean stopSequence(final long sequenceId) {
+        log.info("Stop sequence requested for id {}", sequenceId);
+        return sequenceEngine.stop(sequenceId);
+    }
+
+    /**
+     * Subscribe to the state changes of the input pins.
+     *
+     * @param sink Destination of the events.
+     * @param addresses The addresses of the pins to watch, all pins if null or empty.
+     * @param lastSeq The last sequence number received by the client, 0 or less to only get new events.
+     * @return The subscription.
+     */
+    public PinEventSubscription subscribe(final PinEventSink sink, final int[] addresses, final long lastSeq) {
+        log.info("Pin event subscription requested for addresses {} since {}", addresses, lastSeq);
+        return pinEventBus.subscribe(sink, addresses, lastSeq);
+    }
+
+    /**
+     * Close a subscription to the state changes.
+     *
+     * @param subscription The subscription.
+     */
+    public void unsubscribe(final PinEventSubscription subscription) {
+        pinEventBus.unsubscribe(subscription);
+    }
+
+    /**
+     * @return The pulses currently in flight.
+     */
+    public Collection<Pulse> getPendingPulses() {
+        return pulseScheduler.getPending();
     }
 
 }
@@ -0,0 +1,34 @@
+package org.dbs.pi4j.myrestgpio.mygpio;
+
+import com.pi4j.Pi4J;
+import com.pi4j.context.Context;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+
+/**
+ * {@link GpioBackend} of the Raspberry Pi, through the pigpio providers.
+ */
+@Component
+@Profile("!virtual")
+public class PigpioBackend implements GpioBackend {
+
+    @Override
+    public Context createContext() {
+        return Pi4J.newAutoContext();
+    }
+
+    @Override
+    public String getDigitalOutputProvider() {
+        return "pigpio-digital-output";
+    }
+
+    @Override
+    public String getDigitalInputProvider() {
+        return "pigpio-digital-input";
+    }
+
+    @Override
+    public String getPwmProvider() {
+        return "pigpio-pwm";
+    }
+}
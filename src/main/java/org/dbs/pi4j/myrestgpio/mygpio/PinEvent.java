@@ -0,0 +1,14 @@
+package org.dbs.pi4j.myrestgpio.mygpio;
+
+import lombok.Value;
+
+/**
+ * A state change of a provisioned pin, as published on the {@link PinEventBus}.
+ */
+@Value
+public class PinEvent {
+    long seq;
+    int address;
+    int state;
+    long timestamp;
+}
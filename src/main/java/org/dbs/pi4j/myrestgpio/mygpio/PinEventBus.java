@@ -0,0 +1,179 @@
+package org.dbs.pi4j.myrestgpio.mygpio;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.dbs.pi4j.myrestgpio.configuration.EventProperties;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PreDestroy;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Fan-out of pin state changes to streaming clients.
+ * <p>Events get a sequence number and are kept in a bounded history, so that a client reconnecting with the last
+ * sequence number it received gets the events it missed, as long as they are still in the history. Publishing only
+ * queues the event in the buffer of each subscription, so a slow client never blocks the publisher (the Pi4J listener
+ * thread). The buffer of a subscription is drained by a pooled thread of its own, so a client blocking its writes only
+ * holds its own thread; a write blocked longer than {@code gpio.events.write-timeout} closes the subscription.</p>
+ */
+@Component
+@Slf4j
+public class PinEventBus {
+
+    static final int HISTORY_SIZE = 1024;
+    static final int CLIENT_BUFFER_SIZE = 256;
+    private static final long HEARTBEAT_PERIOD_SECONDS = 20;
+    private static final long WATCHDOG_PERIOD_MILLIS = 500;
+
+    private final PinEvent[] history = new PinEvent[HISTORY_SIZE];
+    private final List<PinEventSubscription> subscriptions = new CopyOnWriteArrayList<>();
+    private final ExecutorService delivery;
+    private final ScheduledExecutorService timer;
+    private final long writeTimeoutNanos;
+    private final AtomicLong published = new AtomicLong();
+    private final AtomicLong expired = new AtomicLong();
+    private long lastSeq;
+
+    public PinEventBus(EventProperties properties, MeterRegistry meterRegistry) {
+        this.writeTimeoutNanos = properties.getWriteTimeout().toNanos();
+        // At most one drain per subscription at a time, idle threads are reused then retired
+        this.delivery = Executors.newCachedThreadPool(runnable -> {
+            Thread thread = new Thread(runnable, "gpio-events");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.timer = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "gpio-events-timer");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.timer.scheduleAtFixedRate(this::heartbeat, HEARTBEAT_PERIOD_SECONDS, HEARTBEAT_PERIOD_SECONDS, TimeUnit.SECONDS);
+        this.timer.scheduleAtFixedRate(this::expireBlockedWrites, WATCHDOG_PERIOD_MILLIS, WATCHDOG_PERIOD_MILLIS,
+            TimeUnit.MILLISECONDS);
+
+        Gauge.builder("gpio.events.subscribers", subscriptions, List::size).register(meterRegistry);
+        FunctionCounter.builder("gpio.events.published", published, AtomicLong::get).register(meterRegistry);
+        FunctionCounter.builder("gpio.events.expired", expired, AtomicLong::get)
+            .description("Subscriptions closed because a write to the client blocked for too long")
+            .register(meterRegistry);
+    }
+
+    /**
+     * Publish a state change.
+     *
+     * @param address The address of the GPIO pin.
+     * @param state The new state, 0 or 1.
+     * @return The published event.
+     */
+    public PinEvent publish(final int address, final int state) {
+        final PinEvent event;
+        synchronized (history) {
+            event = new PinEvent(++lastSeq, address, state, System.currentTimeMillis());
+            history[(int) (event.getSeq() % HISTORY_SIZE)] = event;
+            dispatch(event);
+        }
+        published.incrementAndGet();
+        return event;
+    }
+
+    /**
+     * Subscribe to the state changes.
+     *
+     * @param sink Destination of the events.
+     * @param addresses The addresses of the pins to watch, all pins if null or empty.
+     * @param lastSeq The last sequence number received by the client, the events published since are replayed if
+     *                still in the history. 0 or less to only get new events.
+     * @return The subscription, to be closed when the client goes away.
+     */
+    public PinEventSubscription subscribe(final PinEventSink sink, final int[] addresses, final long lastSeq) {
+        final PinEventSubscription subscription = new PinEventSubscription(sink, addresses, CLIENT_BUFFER_SIZE);
+
+        synchronized (history) {
+            if (lastSeq > 0) {
+                final long from = Math.max(lastSeq + 1, this.lastSeq - HISTORY_SIZE + 1);
+                for (long seq = from; seq <= this.lastSeq; seq++) {
+                    offer(subscription, history[(int) (seq % HISTORY_SIZE)]);
+                }
+            }
+            subscriptions.add(subscription);
+        }
+        return subscription;
+    }
+
+    /**
+     * Remove a subscription.
+     *
+     * @param subscription The subscription.
+     */
+    public void unsubscribe(final PinEventSubscription subscription) {
+        subscriptions.remove(subscription);
+        subscription.close();
+    }
+
+    /**
+     * @return The sequence number of the last published event.
+     */
+    public long getLastSeq() {
+        synchronized (history) {
+            return lastSeq;
+        }
+    }
+
+    private void dispatch(PinEvent event) {
+        for (final PinEventSubscription subscription : subscriptions) {
+            if (subscription.isClosed()) {
+                subscriptions.remove(subscription);
+            } else {
+                offer(subscription, event);
+            }
+        }
+    }
+
+    private void offer(PinEventSubscription subscription, PinEvent event) {
+        if (subscription.accepts(event.getAddress()) && subscription.offer(event)) {
+            delivery.execute(subscription::drain);
+        }
+    }
+
+    private void heartbeat() {
+        for (final PinEventSubscription subscription : subscriptions) {
+            if (subscription.isClosed()) {
+                subscriptions.remove(subscription);
+            } else if (subscription.requestHeartbeat()) {
+                delivery.execute(subscription::drain);
+            }
+        }
+    }
+
+    private void expireBlockedWrites() {
+        final long now = System.nanoTime();
+        for (final PinEventSubscription subscription : subscriptions) {
+            if (subscription.expire(now, writeTimeoutNanos)) {
+                log.warn("Pin event client blocked a write for more than {} ms, closing its subscription",
+                    TimeUnit.NANOSECONDS.toMillis(writeTimeoutNanos));
+                expired.incrementAndGet();
+                subscriptions.remove(subscription);
+                // Closing the sink may wait for the blocked write, never on the timer thread
+                delivery.execute(subscription::close);
+            }
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        for (final PinEventSubscription subscription : subscriptions) {
+            subscription.close();
+        }
+        subscriptions.clear();
+        timer.shutdownNow();
+        delivery.shutdownNow();
+    }
+}
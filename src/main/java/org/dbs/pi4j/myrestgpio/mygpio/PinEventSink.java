@@ -0,0 +1,30 @@
+package org.dbs.pi4j.myrestgpio.mygpio;
+
+import java.io.IOException;
+
+/**
+ * Destination of the events delivered to a {@link PinEventSubscription}, typically a client connection.
+ */
+public interface PinEventSink {
+
+    /**
+     * Send an event to the client. Called from a delivery thread of the {@link PinEventBus}, never concurrently for
+     * the same subscription.
+     *
+     * @param event The event.
+     * @throws IOException If the client is gone, the subscription is then closed.
+     */
+    void send(PinEvent event) throws IOException;
+
+    /**
+     * Send a keep-alive to the client, used to detect clients which went away while nothing happened.
+     *
+     * @throws IOException If the client is gone, the subscription is then closed.
+     */
+    void heartbeat() throws IOException;
+
+    /**
+     * Called once when the subscription is closed.
+     */
+    void close();
+}
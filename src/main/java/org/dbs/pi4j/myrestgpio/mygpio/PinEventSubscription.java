@@ -0,0 +1,205 @@
+package org.dbs.pi4j.myrestgpio.mygpio;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.Iterator;
+
+/**
+ * A client subscribed to the {@link PinEventBus}.
+ * <p>Each subscription owns a bounded buffer. When a slow client lets the buffer fill up, a new event replaces the
+ * pending event of the same pin (the client still gets the latest state of the pin) and, if there is none, the oldest
+ * pending event is dropped. Clients can detect the loss from the gap in the sequence numbers.</p>
+ * <p>A write to the sink blocked for too long expires the subscription, see {@link #expire(long, long)}: the writing
+ * thread is interrupted and nothing more is written.</p>
+ */
+@Slf4j
+public class PinEventSubscription {
+
+    private final PinEventSink sink;
+    private final boolean[] pins;
+    private final int capacity;
+    private final ArrayDeque<PinEvent> pending;
+
+    private boolean scheduled;
+    private boolean heartbeatPending;
+    private volatile boolean closed;
+
+    /**
+     * The thread writing to the sink and since when, null when no write is in progress.
+     */
+    private Thread writer;
+    private long writingSince;
+    private boolean expired;
+
+    private volatile long delivered;
+    private long coalesced;
+    private long dropped;
+
+    PinEventSubscription(PinEventSink sink, int[] addresses, int capacity) {
+        this.sink = sink;
+        this.capacity = capacity;
+        this.pending = new ArrayDeque<>(capacity);
+        if (addresses == null || addresses.length == 0) {
+            this.pins = null;
+        } else {
+            this.pins = new boolean[PinRegistry.ADDRESS_SPACE];
+            for (int address : addresses) {
+                if (address >= 0 && address < PinRegistry.ADDRESS_SPACE) {
+                    this.pins[address] = true;
+                }
+            }
+        }
+    }
+
+    boolean accepts(int address) {
+        return pins == null || pins[address];
+    }
+
+    /**
+     * Queue an event.
+     *
+     * @return True if the caller has to schedule a {@link #drain()}.
+     */
+    synchronized boolean offer(PinEvent event) {
+        if (closed || expired) {
+            return false;
+        }
+        if (pending.size() >= capacity) {
+            if (!replacePendingOfSamePin(event)) {
+                pending.pollFirst();
+                dropped++;
+                pending.addLast(event);
+            }
+        } else {
+            pending.addLast(event);
+        }
+        return schedule();
+    }
+
+    /**
+     * Ask for a keep-alive to be sent.
+     *
+     * @return True if the caller has to schedule a {@link #drain()}.
+     */
+    synchronized boolean requestHeartbeat() {
+        if (closed || expired) {
+            return false;
+        }
+        heartbeatPending = true;
+        return schedule();
+    }
+
+    private boolean schedule() {
+        if (scheduled) {
+            return false;
+        }
+        scheduled = true;
+        return true;
+    }
+
+    private boolean replacePendingOfSamePin(PinEvent event) {
+        final Iterator<PinEvent> iterator = pending.descendingIterator();
+        while (iterator.hasNext()) {
+            if (iterator.next().getAddress() == event.getAddress()) {
+                iterator.remove();
+                pending.addLast(event);
+                coalesced++;
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Deliver the pending events to the sink, until the buffer is empty.
+     */
+    void drain() {
+        while (true) {
+            final PinEvent event;
+            final boolean heartbeat;
+            synchronized (this) {
+                event = pending.pollFirst();
+                heartbeat = event == null && heartbeatPending;
+                heartbeatPending = false;
+                if (expired || event == null && !heartbeat) {
+                    scheduled = false;
+                    return;
+                }
+                writer = Thread.currentThread();
+                writingSince = System.nanoTime();
+            }
+            try {
+                if (event != null) {
+                    sink.send(event);
+                    delivered++;
+                } else {
+                    sink.heartbeat();
+                }
+            } catch (IOException | RuntimeException ex) {
+                log.debug("Pin event client gone: {}", ex.getMessage());
+                endWrite();
+                close();
+                return;
+            }
+            endWrite();
+        }
+    }
+
+    private synchronized void endWrite() {
+        writer = null;
+        if (expired) {
+            // Do not leave the interrupt of an expired write to the next task of the pooled thread
+            Thread.interrupted();
+        }
+    }
+
+    /**
+     * Give up a write to the sink which has been blocked for too long: the writing thread is interrupted and nothing
+     * more is written. The caller then has to {@link #close()} the subscription, from a thread which may block.
+     *
+     * @param nowNanos The current {@link System#nanoTime()}.
+     * @param timeoutNanos The longest time a write may take.
+     * @return True if the subscription has just expired.
+     */
+    synchronized boolean expire(long nowNanos, long timeoutNanos) {
+        if (closed || expired || writer == null || nowNanos - writingSince < timeoutNanos) {
+            return false;
+        }
+        expired = true;
+        pending.clear();
+        writer.interrupt();
+        return true;
+    }
+
+    /**
+     * Close the subscription, pending events are discarded.
+     */
+    public void close() {
+        synchronized (this) {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            pending.clear();
+        }
+        sink.close();
+    }
+
+    public boolean isClosed() {
+        return closed;
+    }
+
+    public long getDelivered() {
+        return delivered;
+    }
+
+    public synchronized long getCoalesced() {
+        return coalesced;
+    }
+
+    public synchronized long getDropped() {
+        return dropped;
+    }
+}
@@ -0,0 +1,119 @@
+package org.dbs.pi4j.myrestgpio.mygpio;
+
+import com.pi4j.io.IO;
+import lombok.AccessLevel;
+import lombok.Getter;
+
+/**
+ * A provisioned pin held by the {@link PinRegistry}.
+ * <p>Each subclass exposes the capabilities of one kind of pin; asking a handle for a capability it does not have
+ * fails with an {@link IllegalArgumentException}, so callers never have to test the type of the underlying Pi4J
+ * instance.</p>
+ * <p>The version of a handle is the version of the registry at its last change, see {@link PinRegistry#getVersion()}.
+ * </p>
+ */
+@Getter
+public abstract class PinHandle {
+
+    static final String THE_PROVISIONED_PIN_AT_THE_GIVEN_ADDRESS_IS_NOT_OF_THE_TYPE_GPIO_PIN_DIGITAL_INPUT = "The provisioned pin at the given address is not of the type GpioPinDigitalInput";
+    static final String THE_PROVISIONED_PIN_AT_THE_GIVEN_ADDRESS_IS_NOT_OF_THE_TYPE_GPIO_PIN_DIGITAL_OUTPUT = "The provisioned pin at the given address is not of the type GpioPinDigitalOutput";
+    static final String THE_PROVISIONED_PIN_AT_THE_GIVEN_ADDRESS_IS_NOT_OF_THE_TYPE_PWM = "The provisioned pin at the given address is not of the type Pwm";
+
+    private final int address;
+
+    private volatile long version;
+
+    @Getter(AccessLevel.NONE)
+    private PinRegistry registry;
+
+    /**
+     * The transitions of the pin, null if the history is disabled.
+     */
+    private volatile HistoryRing history;
+
+    protected PinHandle(int address) {
+        this.address = address;
+    }
+
+    /**
+     * Called by the registry when the pin is provisioned, before the pin is published. The registry then gives the pin
+     * its version with {@link #markChanged()}.
+     */
+    void attach(PinRegistry registry) {
+        this.registry = registry;
+        if (registry.getHistory() != null) {
+            this.history = registry.getHistory().newRing(this);
+        }
+    }
+
+    /**
+     * Record a transition in the history of the pin.
+     *
+     * @param value The new value, see {@link HistoryRing#record(int)}.
+     */
+    protected void recordHistory(int value) {
+        final HistoryRing ring = history;
+        if (ring != null) {
+            ring.record(value);
+        }
+    }
+
+    /**
+     * Record a change of the pin, its version becomes the latest version of the registry.
+     */
+    protected void markChanged() {
+        this.version = registry != null ? registry.nextVersion() : version + 1;
+    }
+
+    /**
+     * @return The journal of the registry, null if none.
+     */
+    protected ProvisioningJournal journal() {
+        return registry != null ? registry.getJournal() : null;
+    }
+
+    /**
+     * @return The kind of the pin.
+     */
+    public abstract PinKind getKind();
+
+    /**
+     * @return The underlying Pi4J I/O instance.
+     */
+    public abstract IO<?, ?, ?> getIo();
+
+    /**
+     * @param fresh True to read the value from the hardware, false to get the last known value.
+     * @return The current value of the pin.
+     */
+    public abstract Number getValue(boolean fresh);
+
+    /**
+     * @return The time of the last change of the value, in milliseconds since the epoch.
+     */
+    public abstract long getLastChanged();
+
+    /**
+     * @return This handle as a digital input.
+     * @throws IllegalArgumentException If the pin is not a digital input.
+     */
+    public DigitalInputHandle asDigitalInput() {
+        throw new IllegalArgumentException(THE_PROVISIONED_PIN_AT_THE_GIVEN_ADDRESS_IS_NOT_OF_THE_TYPE_GPIO_PIN_DIGITAL_INPUT);
+    }
+
+    /**
+     * @return This handle as a digital output.
+     * @throws IllegalArgumentException If the pin is not a digital output.
+     */
+    public DigitalOutputHandle asDigitalOutput() {
+        throw new IllegalArgumentException(THE_PROVISIONED_PIN_AT_THE_GIVEN_ADDRESS_IS_NOT_OF_THE_TYPE_GPIO_PIN_DIGITAL_OUTPUT);
+    }
+
+    /**
+     * @return This handle as a PWM pin.
+     * @throws IllegalArgumentException If the pin is not a PWM pin.
+     */
+    public PwmHandle asPwm() {
+        throw new IllegalArgumentException(THE_PROVISIONED_PIN_AT_THE_GIVEN_ADDRESS_IS_NOT_OF_THE_TYPE_PWM);
+    }
+}
@@ -0,0 +1,79 @@
+package org.dbs.pi4j.myrestgpio.mygpio;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.dbs.pi4j.myrestgpio.configuration.HistoryProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Creates the {@link HistoryRing} of each provisioned pin and provides their clock.
+ * <p>The clock counts microseconds from the start of the service with {@link System#nanoTime()}, so the recorded
+ * transitions are monotonic and precise to the microsecond. They are converted to epoch microseconds when read, with
+ * the offset between the wall clock and the monotonic clock at that time: a wall clock set after the start, e.g. by
+ * NTP, moves the timestamps with it, while the order of the transitions never changes.</p>
+ */
+@Component
+@Slf4j
+public class PinHistory {
+
+    private final boolean enabled;
+    private final int capacity;
+    private final int maxPoints;
+    private final long baseNanos = System.nanoTime();
+    private final AtomicInteger rings = new AtomicInteger();
+
+    public PinHistory(HistoryProperties properties, MeterRegistry meterRegistry) {
+        this.enabled = properties.isEnabled();
+        this.capacity = Integer.highestOneBit(Math.max(2, properties.getCapacity() - 1)) << 1;
+        this.maxPoints = Math.max(1, properties.getMaxPoints());
+        Gauge.builder("gpio.history.memory", this, history -> (double) history.rings.get() * history.capacity * 8)
+            .baseUnit("bytes")
+            .register(meterRegistry);
+        if (enabled) {
+            log.info("Pin history of {} transitions per pin", capacity);
+        }
+    }
+
+    /**
+     * Create the ring of a pin, recording its current value.
+     *
+     * @param handle The pin.
+     * @return The {@link HistoryRing}, null if the history is disabled.
+     */
+    HistoryRing newRing(PinHandle handle) {
+        if (!enabled) {
+            return null;
+        }
+        final HistoryRing ring = new HistoryRing(this, handle.getAddress(), handle.getKind(), capacity);
+        ring.record(HistoryRing.encode(handle.getKind(), handle.getValue(false)));
+        rings.incrementAndGet();
+        return ring;
+    }
+
+    public int getMaxPoints() {
+        return maxPoints;
+    }
+
+    /**
+     * @return The microseconds elapsed since the start of the clock.
+     */
+    long nowMicros() {
+        return (System.nanoTime() - baseNanos) / 1000;
+    }
+
+    /**
+     * Read the offset once per query, so that all the times of a query are converted alike.
+     *
+     * @return The current wall clock minus {@link #nowMicros()}: the epoch microseconds of a time of the clock are the
+     * time plus the offset.
+     */
+    long epochOffsetMicros() {
+        final Instant now = Instant.now();
+        return TimeUnit.SECONDS.toMicros(now.getEpochSecond()) + now.getNano() / 1000 - nowMicros();
+    }
+}
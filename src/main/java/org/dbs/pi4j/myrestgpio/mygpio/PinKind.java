@@ -0,0 +1,10 @@
+package org.dbs.pi4j.myrestgpio.mygpio;
+
+/**
+ * Kind of pin held by the {@link PinRegistry}.
+ */
+public enum PinKind {
+    DIGITAL_INPUT,
+    DIGITAL_OUTPUT,
+    PWM
+}
@@ -0,0 +1,143 @@
+package org.dbs.pi4j.myrestgpio.mygpio;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.IntFunction;
+
+/**
+ * Thread-safe registry of the provisioned pins, indexed by BCM address.
+ * <p>Handles are stored in a dense array covering the whole BCM address space. Lookups are a single volatile read
+ * and never block; provisioning takes a lock private to the address, so it only serializes with other provisioning
+ * of the same pin.</p>
+ * <p>The registry has a version, incremented on every provisioning and every change of a pin state, which lets
+ * readers cache anything derived from the pins until the version moves.</p>
+ */
+@Slf4j
+public class PinRegistry {
+
+    /**
+     * Number of addresses covered by the registry, enough for every GPIO of the BCM SoCs used on Raspberry Pi.
+     */
+    public static final int ADDRESS_SPACE = 64;
+
+    static final String THERE_IS_NO_PIN_PROVISIONED_AT_THE_GIVEN_ADDRESS = "There is no pin provisioned at the given address";
+
+    private final AtomicReferenceArray<PinHandle> pins = new AtomicReferenceArray<>(ADDRESS_SPACE);
+    private final Object[] locks = new Object[ADDRESS_SPACE];
+    private final AtomicLong version = new AtomicLong();
+    private final ProvisioningJournal journal;
+    private final PinHistory history;
+
+    public PinRegistry() {
+        this(null, null);
+    }
+
+    /**
+     * @param journal Journals the levels written on the outputs, null for none.
+     * @param history Gives each pin its {@link HistoryRing}, null for none.
+     */
+    public PinRegistry(ProvisioningJournal journal, PinHistory history) {
+        this.journal = journal;
+        this.history = history;
+        for (int address = 0; address < ADDRESS_SPACE; address++) {
+            locks[address] = new Object();
+        }
+    }
+
+    /**
+     * Get the pin provisioned at the given address.
+     *
+     * @param address The address of the GPIO pin.
+     * @return The {@link PinHandle}, or null if there is no pin at this address.
+     */
+    public PinHandle get(final int address) {
+        if (address < 0 || address >= ADDRESS_SPACE) {
+            return null;
+        }
+        return pins.get(address);
+    }
+
+    /**
+     * Get the pin provisioned at the given address.
+     *
+     * @param address The address of the GPIO pin.
+     * @return The {@link PinHandle}.
+     * @throws IllegalArgumentException If there is no pin at this address.
+     */
+    public PinHandle require(final int address) {
+        final PinHandle handle = get(address);
+        if (handle == null) {
+            throw new IllegalArgumentException(THERE_IS_NO_PIN_PROVISIONED_AT_THE_GIVEN_ADDRESS);
+        }
+        return handle;
+    }
+
+    /**
+     * Provision a pin. The factory is only called if the address is free, while holding the lock of the address.
+     *
+     * @param address The address of the GPIO pin.
+     * @param factory Creates the handle for the given address.
+     * @param <H> The type of the handle.
+     * @return The handle created by the factory.
+     * @throws IllegalArgumentException If the address is out of range or already in use.
+     */
+    public <H extends PinHandle> H provision(final int address, final IntFunction<H> factory) {
+        checkAddress(address);
+
+        synchronized (locks[address]) {
+            if (pins.get(address) != null) {
+                log.error("There is already a provisioned pin at address {}", address);
+                throw new IllegalArgumentException("There is already a provisioned pin at the given address");
+            }
+            final H handle = factory.apply(address);
+            handle.attach(this);
+            pins.set(address, handle);
+            // Take the version once the pin is visible, so that a reader seeing the new version also sees the pin
+            handle.markChanged();
+            return handle;
+        }
+    }
+
+    /**
+     * @return The provisioned pins, in address order.
+     */
+    public List<PinHandle> list() {
+        final List<PinHandle> handles = new ArrayList<>();
+        for (int address = 0; address < ADDRESS_SPACE; address++) {
+            final PinHandle handle = pins.get(address);
+            if (handle != null) {
+                handles.add(handle);
+            }
+        }
+        return handles;
+    }
+
+    /**
+     * @return The current version of the registry.
+     */
+    public long getVersion() {
+        return version.get();
+    }
+
+    ProvisioningJournal getJournal() {
+        return journal;
+    }
+
+    PinHistory getHistory() {
+        return history;
+    }
+
+    long nextVersion() {
+        return version.incrementAndGet();
+    }
+
+    private static void checkAddress(int address) {
+        if (address < 0 || address >= ADDRESS_SPACE) {
+            throw new IllegalArgumentException("The address must be between 0 and " + (ADDRESS_SPACE - 1));
+        }
+    }
+}
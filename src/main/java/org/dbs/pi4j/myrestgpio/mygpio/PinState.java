@@ -0,0 +1,14 @@
+package org.dbs.pi4j.myrestgpio.mygpio;
+
+import com.pi4j.io.gpio.digital.DigitalState;
+import lombok.Value;
+
+/**
+ * State of a digital pin with the time of its last change.
+ */
+@Value
+public class PinState {
+    int address;
+    DigitalState state;
+    long lastChanged;
+}
@@ -0,0 +1,720 @@
+package org.dbs.pi4j.myrestgpio.mygpio;
+
+import com.pi4j.io.gpio.digital.PullResistance;
+import com.pi4j.io.pwm.PwmType;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.dbs.pi4j.myrestgpio.configuration.JournalProperties;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PreDestroy;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.CRC32;
+
+/**
+ * Durable journal of the provisioned pins and of the levels of the outputs, replayed at startup.
+ * <p>Each provisioning and each change of an output level, duty cycle or frequency is appended as a small binary
+ * record to a memory-mapped file: the command path only copies a few bytes under the journal monitor, and the
+ * {@code gpio-journal} thread syncs the file to the disk every {@code gpio.journal.sync-interval}, all the changes of
+ * the interval at once. The journal also keeps the current image of the pins in memory; when the file is filled up
+ * to {@code gpio.journal.compaction-threshold}, the {@code gpio-journal} thread writes the image to the snapshot file
+ * and restarts the journal empty. Only the copy of the image and the restart hold the journal monitor: the snapshot
+ * is written and synced without it, and the records appended meanwhile are carried over to the restarted journal. A
+ * change which does not fit in a full journal is kept in the image only, and the next sync compacts it to the
+ * snapshot.</p>
+ * <p>Record: length of the body (2 bytes, 0 ends the journal), type (1 byte), address (1 byte), payload, CRC32 of the
+ * body seeded with the epoch (4 bytes). The epoch of the files is incremented by each compaction, so the records left
+ * over from an earlier epoch, or torn by a crash, fail their CRC and end the replay.</p>
+ */
+@Component
+@Slf4j
+public class ProvisioningJournal {
+
+    /**
+     * Receives the pins to restore, in provisioning order.
+     */
+    public interface Restorer {
+        void output(int address, String name, boolean high);
+
+        void input(int address, String name, InputConfig config);
+
+        void pwm(int address, String name, PwmType type, int frequency, float dutyCycle);
+    }
+
+    private static final int MAGIC = 0x47504A31;
+    private static final int HEADER_SIZE = 8;
+    private static final int MAX_RECORD_SIZE = 2 + 0xFFFF + 4;
+
+    private static final byte TYPE_OUTPUT = 1;
+    private static final byte TYPE_INPUT = 2;
+    private static final byte TYPE_PWM = 3;
+    private static final byte TYPE_LEVEL = 4;
+    private static final byte TYPE_DUTY_CYCLE = 5;
+    private static final byte TYPE_FREQUENCY = 6;
+
+    private final boolean enabled;
+    private final Path journalFile;
+    private final Path snapshotFile;
+    private final int size;
+    private final int compactAt;
+    private final ScheduledExecutorService syncer;
+
+    // One compaction at a time, taken before the journal monitor
+    private final Object compactionLock = new Object();
+
+    // Guarded by this
+    private final Pin[] pins = new Pin[PinRegistry.ADDRESS_SPACE];
+    private final ByteBuffer record = ByteBuffer.allocate(MAX_RECORD_SIZE);
+    private final CRC32 crc = new CRC32();
+    private FileChannel channel;
+    private MappedByteBuffer mapped;
+    private int epoch;
+    private int position;
+    private long order;
+    private boolean overflow;
+    private boolean failed;
+
+    private volatile boolean dirty;
+    private volatile long appended;
+    private volatile long compactions;
+    private volatile long syncs;
+
+    public ProvisioningJournal(JournalProperties properties, MeterRegistry meterRegistry) throws IOException {
+        this.enabled = properties.isEnabled();
+        final Path directory = Paths.get(properties.getDirectory());
+        this.journalFile = directory.resolve("provisioning.journal");
+        this.snapshotFile = directory.resolve("provisioning.snapshot");
+        this.size = (int) Math.min(Integer.MAX_VALUE, Math.max(2L * MAX_RECORD_SIZE, properties.getSize().toBytes()));
+        this.compactAt = (int) ((long) size * Math.max(1, Math.min(100, properties.getCompactionThreshold())) / 100);
+        if (!enabled) {
+            log.info("Provisioning journal disabled, the pins are not restored at startup");
+            this.syncer = null;
+            return;
+        }
+
+        final long start = System.nanoTime();
+        Files.createDirectories(directory);
+        final int loaded = load();
+        channel = FileChannel.open(journalFile, StandardOpenOption.CREATE, StandardOpenOption.READ,
+            StandardOpenOption.WRITE);
+        mapped = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+        compact();
+        mapped.force();
+        log.info("Provisioning journal {} loaded in {} ms, {} records for {} pins", journalFile, Duration.ofNanos(
+            System.nanoTime() - start).toMillis(), loaded, countPins());
+
+        Gauge.builder("gpio.journal.used", this, journal -> journal.position).baseUnit("bytes").register(meterRegistry);
+        FunctionCounter.builder("gpio.journal.appended", this, journal -> journal.appended).register(meterRegistry);
+        FunctionCounter.builder("gpio.journal.compactions", this, journal -> journal.compactions)
+            .register(meterRegistry);
+        FunctionCounter.builder("gpio.journal.syncs", this, journal -> journal.syncs).register(meterRegistry);
+
+        this.syncer = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "gpio-journal");
+            thread.setDaemon(true);
+            return thread;
+        });
+        final long interval = Math.max(1, properties.getSyncInterval().toMillis());
+        this.syncer.scheduleWithFixedDelay(this::sync, interval, interval, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Journal the provisioning of a digital output, initially low.
+     */
+    public synchronized void provisionedOutput(final int address, final String name) {
+        if (!enabled) {
+            return;
+        }
+        pins[address] = new Pin(PinKind.DIGITAL_OUTPUT, name, order++);
+        encodeOutput(record, address, name);
+        append();
+    }
+
+    /**
+     * Journal the provisioning of a digital input.
+     */
+    public synchronized void provisionedInput(final int address, final String name, final InputConfig config) {
+        if (!enabled) {
+            return;
+        }
+        final Pin pin = new Pin(PinKind.DIGITAL_INPUT, name, order++);
+        pin.input = config;
+        pins[address] = pin;
+        encodeInput(record, address, name, config);
+        append();
+    }
+
+    /**
+     * Journal the provisioning of a PWM pin, initially off.
+     */
+    public synchronized void provisionedPwm(final int address, final String name, final PwmType type,
+                                            final int frequency) {
+        if (!enabled) {
+            return;
+        }
+        final Pin pin = new Pin(PinKind.PWM, name, order++);
+        pin.pwmType = type;
+        pin.frequency = frequency;
+        pins[address] = pin;
+        encodePwm(record, address, name, type, frequency);
+        append();
+    }
+
+    /**
+     * Journal the level written on a digital output.
+     */
+    public void outputLevel(final int address, final boolean high) {
+        if (!enabled) {
+            return;
+        }
+        synchronized (this) {
+            final Pin pin = pins[address];
+            if (pin != null) {
+                pin.high = high;
+            }
+            begin(record, TYPE_LEVEL, address);
+            record.put((byte) (high ? 1 : 0));
+            append();
+        }
+    }
+
+    /**
+     * Journal the duty cycle written on a PWM pin.
+     */
+    public void dutyCycle(final int address, final float dutyCycle) {
+        if (!enabled) {
+            return;
+        }
+        synchronized (this) {
+            final Pin pin = pins[address];
+            if (pin != null) {
+                pin.dutyCycle = dutyCycle;
+            }
+            begin(record, TYPE_DUTY_CYCLE, address);
+            record.putFloat(dutyCycle);
+            append();
+        }
+    }
+
+    /**
+     * Journal the frequency written on a PWM pin.
+     */
+    public void frequency(final int address, final int frequency) {
+        if (!enabled) {
+            return;
+        }
+        synchronized (this) {
+            final Pin pin = pins[address];
+            if (pin != null) {
+                pin.frequency = frequency;
+            }
+            begin(record, TYPE_FREQUENCY, address);
+            record.putInt(frequency);
+            append();
+        }
+    }
+
+    /**
+     * Provision the journaled pins again and restore their levels, then compact the journal.
+     * <p>The image is rebuilt from the calls the restorer makes, so a pin which can no longer be provisioned is
+     * dropped from the journal. The restorer is called without holding the journal monitor, it may provision the pins
+     * from other threads.</p>
+     *
+     * @param restorer Provisions the pins, journaling them again.
+     * @return The number of pins restored.
+     */
+    public int restore(final Restorer restorer) {
+        if (!enabled) {
+            return 0;
+        }
+        final Pin[] restored;
+        synchronized (this) {
+            restored = pins.clone();
+            Arrays.fill(pins, null);
+        }
+        final List<Integer> addresses = new ArrayList<>();
+        for (int address = 0; address < restored.length; address++) {
+            if (restored[address] != null) {
+                addresses.add(address);
+            }
+        }
+        addresses.sort(Comparator.comparingLong(address -> restored[address].order));
+
+        int count = 0;
+        for (final int address : addresses) {
+            final Pin pin = restored[address];
+            try {
+                switch (pin.kind) {
+                    case DIGITAL_OUTPUT:
+                        restorer.output(address, pin.name, pin.high);
+                        break;
+                    case DIGITAL_INPUT:
+                        restorer.input(address, pin.name, pin.input);
+                        break;
+                    case PWM:
+                    default:
+                        restorer.pwm(address, pin.name, pin.pwmType, pin.frequency, pin.dutyCycle);
+                        break;
+                }
+                count++;
+            } catch (RuntimeException ex) {
+                log.warn("Unable to restore the {} pin {} '{}', it is dropped from the journal: {}", pin.kind, address,
+                    pin.name, ex.getMessage());
+            }
+        }
+        compact();
+        force();
+        return count;
+    }
+
+    private void begin(ByteBuffer buffer, byte type, int address) {
+        buffer.clear();
+        buffer.putShort((short) 0);
+        buffer.put(type);
+        buffer.put((byte) address);
+    }
+
+    /**
+     * Write the length and the CRC of the record in the buffer, and flip it for writing.
+     */
+    private static void seal(ByteBuffer buffer, int sealEpoch, CRC32 crc) {
+        final int length = buffer.position() - 2;
+        buffer.putShort(0, (short) length);
+        crc.reset();
+        crc.update(sealEpoch >>> 24);
+        crc.update(sealEpoch >>> 16);
+        crc.update(sealEpoch >>> 8);
+        crc.update(sealEpoch);
+        crc.update(buffer.array(), 2, length);
+        buffer.putInt((int) crc.getValue());
+        buffer.flip();
+    }
+
+    private void append() {
+        if (failed) {
+            return;
+        }
+        seal(record, epoch, crc);
+        if (position + record.remaining() + 2 > size) {
+            if (!overflow) {
+                log.warn("Provisioning journal full, the changes are only kept in memory until the next compaction");
+                overflow = true;
+            }
+            return;
+        }
+        mapped.position(position);
+        mapped.put(record);
+        mapped.putShort((short) 0);
+        position += record.limit();
+        appended++;
+        dirty = true;
+    }
+
+    /**
+     * Write the image to the snapshot file in a new epoch, then restart the journal in that epoch with the records
+     * appended since the image was copied.
+     */
+    private void compact() {
+        synchronized (compactionLock) {
+            final Pin[] image = new Pin[pins.length];
+            final int next;
+            final int mark;
+            synchronized (this) {
+                if (failed) {
+                    return;
+                }
+                for (int address = 0; address < pins.length; address++) {
+                    image[address] = pins[address] != null ? pins[address].copy() : null;
+                }
+                next = epoch + 1;
+                mark = position;
+                overflow = false;
+            }
+
+            if (!writeSnapshot(image, next)) {
+                return;
+            }
+
+            synchronized (this) {
+                if (!failed) {
+                    restart(mark, next);
+                    compactions++;
+                }
+            }
+        }
+    }
+
+    /**
+     * Write the image to the snapshot file, sync it and atomically replace the previous snapshot.
+     *
+     * @return False if the journal failed.
+     */
+    private boolean writeSnapshot(Pin[] image, int snapshotEpoch) {
+        final Path temporary = snapshotFile.resolveSibling(snapshotFile.getFileName() + ".tmp");
+        final ByteBuffer buffer = ByteBuffer.allocate(MAX_RECORD_SIZE);
+        final CRC32 snapshotCrc = new CRC32();
+        try (FileChannel out = FileChannel.open(temporary, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+            StandardOpenOption.TRUNCATE_EXISTING)) {
+            buffer.putInt(MAGIC).putInt(snapshotEpoch).flip();
+            write(out, buffer);
+            for (int address = 0; address < image.length; address++) {
+                if (image[address] != null) {
+                    writeSnapshot(out, buffer, snapshotCrc, address, image[address], snapshotEpoch);
+                }
+            }
+            buffer.clear();
+            buffer.putShort((short) 0).flip();
+            write(out, buffer);
+            out.force(true);
+        } catch (IOException ex) {
+            fail("Unable to write the provisioning snapshot", ex);
+            return false;
+        }
+        try {
+            Files.move(temporary, snapshotFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            syncDirectory();
+        } catch (IOException ex) {
+            fail("Unable to replace the provisioning snapshot", ex);
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Move the records appended from the given position to the start of the journal, sealed in the new epoch.
+     * <p>Until the next sync, the file may hold the new header with records of the previous epoch or the other way
+     * round: either way their CRC fails and the replay stops, the snapshot of the new epoch already holds the image.</p>
+     */
+    private void restart(int mark, int next) {
+        int from = mark;
+        int to = HEADER_SIZE;
+        while (from < position) {
+            final int length = mapped.getShort(from) & 0xFFFF;
+            record.clear();
+            mapped.position(from);
+            mapped.get(record.array(), 0, 2 + length);
+            record.position(2 + length);
+            seal(record, next, crc);
+            mapped.position(to);
+            mapped.put(record);
+            from += 2 + length + 4;
+            to += record.limit();
+        }
+        mapped.putShort(to, (short) 0);
+        mapped.putInt(0, MAGIC);
+        mapped.putInt(4, next);
+        epoch = next;
+        position = to;
+        dirty = true;
+    }
+
+    private void writeSnapshot(FileChannel out, ByteBuffer buffer, CRC32 snapshotCrc, int address, Pin pin,
+                               int sealEpoch) throws IOException {
+        switch (pin.kind) {
+            case DIGITAL_OUTPUT:
+                encodeOutput(buffer, address, pin.name);
+                seal(buffer, sealEpoch, snapshotCrc);
+                write(out, buffer);
+                begin(buffer, TYPE_LEVEL, address);
+                buffer.put((byte) (pin.high ? 1 : 0));
+                break;
+            case DIGITAL_INPUT:
+                encodeInput(buffer, address, pin.name, pin.input);
+                break;
+            case PWM:
+            default:
+                encodePwm(buffer, address, pin.name, pin.pwmType, pin.frequency);
+                seal(buffer, sealEpoch, snapshotCrc);
+                write(out, buffer);
+                begin(buffer, TYPE_DUTY_CYCLE, address);
+                buffer.putFloat(pin.dutyCycle);
+                break;
+        }
+        seal(buffer, sealEpoch, snapshotCrc);
+        write(out, buffer);
+    }
+
+    private static void write(FileChannel out, ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            out.write(buffer);
+        }
+    }
+
+    private void syncDirectory() {
+        try (FileChannel directory = FileChannel.open(snapshotFile.getParent(), StandardOpenOption.READ)) {
+            directory.force(true);
+        } catch (IOException ex) {
+            log.debug("Unable to sync the journal directory: {}", ex.getMessage());
+        }
+    }
+
+    private synchronized void fail(String message, IOException ex) {
+        log.error("{}, the changes are no longer journaled", message, ex);
+        failed = true;
+    }
+
+    private void encodeOutput(ByteBuffer buffer, int address, String name) {
+        begin(buffer, TYPE_OUTPUT, address);
+        putString(buffer, name);
+    }
+
+    private void encodeInput(ByteBuffer buffer, int address, String name, InputConfig config) {
+        begin(buffer, TYPE_INPUT, address);
+        putString(buffer, name);
+        putString(buffer, config.getPull().name());
+        buffer.putLong(config.getDebounce() != null ? config.getDebounce().toNanos() / 1000 : -1);
+        putString(buffer, config.getCounting() != null ? config.getCounting().name() : "");
+        buffer.putLong(config.getGlitch().toNanos() / 1000);
+        buffer.putInt(config.getMajority());
+        buffer.putLong(config.getDwell().toNanos() / 1000);
+    }
+
+    private void encodePwm(ByteBuffer buffer, int address, String name, PwmType type, int frequency) {
+        begin(buffer, TYPE_PWM, address);
+        putString(buffer, name);
+        putString(buffer, type.name());
+        buffer.putInt(frequency);
+    }
+
+    private static void putString(ByteBuffer buffer, String value) {
+        final byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        buffer.putShort((short) bytes.length);
+        buffer.put(bytes);
+    }
+
+    private static String getString(ByteBuffer buffer) {
+        final byte[] bytes = new byte[buffer.getShort() & 0xFFFF];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Load the snapshot then the journal of the same epoch into the image.
+     *
+     * @return The number of records read.
+     */
+    private int load() throws IOException {
+        int count = 0;
+        final int snapshotEpoch = epochOf(snapshotFile);
+        if (snapshotEpoch >= 0) {
+            count += read(snapshotFile, snapshotEpoch);
+            epoch = snapshotEpoch;
+        }
+        final int journalEpoch = epochOf(journalFile);
+        if (journalEpoch >= 0 && journalEpoch >= snapshotEpoch) {
+            count += read(journalFile, journalEpoch);
+            epoch = journalEpoch;
+        }
+        return count;
+    }
+
+    private static int epochOf(Path file) throws IOException {
+        if (!Files.isRegularFile(file) || Files.size(file) < HEADER_SIZE) {
+            return -1;
+        }
+        try (FileChannel in = FileChannel.open(file, StandardOpenOption.READ)) {
+            final ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+            while (header.hasRemaining() && in.read(header) >= 0) {
+                // Read the whole header
+            }
+            header.flip();
+            if (header.remaining() < HEADER_SIZE || header.getInt() != MAGIC) {
+                log.warn("Ignoring {}, it is not a provisioning journal", file);
+                return -1;
+            }
+            return header.getInt();
+        }
+    }
+
+    private int read(Path file, int fileEpoch) throws IOException {
+        try (FileChannel in = FileChannel.open(file, StandardOpenOption.READ)) {
+            final ByteBuffer buffer = in.map(FileChannel.MapMode.READ_ONLY, 0, in.size());
+            buffer.position(HEADER_SIZE);
+            int count = 0;
+            while (buffer.remaining() >= 2) {
+                final int start = buffer.position();
+                final int length = buffer.getShort() & 0xFFFF;
+                if (length == 0) {
+                    break;
+                }
+                if (length < 2 || buffer.remaining() < length + 4) {
+                    log.warn("Provisioning journal {} ends with a truncated record at {}", file, start);
+                    break;
+                }
+                crc.reset();
+                crc.update(fileEpoch >>> 24);
+                crc.update(fileEpoch >>> 16);
+                crc.update(fileEpoch >>> 8);
+                crc.update(fileEpoch);
+                final ByteBuffer body = buffer.slice();
+                body.limit(length);
+                crc.update(body);
+                if ((int) crc.getValue() != buffer.getInt(start + 2 + length)) {
+                    break;
+                }
+                apply(buffer);
+                buffer.position(start + 2 + length + 4);
+                count++;
+            }
+            return count;
+        }
+    }
+
+    private void apply(ByteBuffer buffer) {
+        final byte type = buffer.get();
+        final int address = buffer.get() & 0xFF;
+        if (address >= pins.length) {
+            return;
+        }
+        final Pin pin = pins[address];
+        switch (type) {
+            case TYPE_OUTPUT:
+                pins[address] = new Pin(PinKind.DIGITAL_OUTPUT, getString(buffer), order++);
+                break;
+            case TYPE_INPUT:
+                final Pin input = new Pin(PinKind.DIGITAL_INPUT, getString(buffer), order++);
+                final PullResistance pull = PullResistance.valueOf(getString(buffer));
+                final long debounce = buffer.getLong();
+                final String counting = getString(buffer);
+                input.input = InputConfig.builder()
+                    .pull(pull)
+                    .debounce(debounce >= 0 ? Duration.ofNanos(debounce * 1000) : null)
+                    .counting(counting.isEmpty() ? null : EdgeMode.valueOf(counting))
+                    .glitch(Duration.ofNanos(buffer.getLong() * 1000))
+                    .majority(buffer.getInt())
+                    .dwell(Duration.ofNanos(buffer.getLong() * 1000))
+                    .build();
+                pins[address] = input;
+                break;
+            case TYPE_PWM:
+                final Pin pwm = new Pin(PinKind.PWM, getString(buffer), order++);
+                pwm.pwmType = PwmType.valueOf(getString(buffer));
+                pwm.frequency = buffer.getInt();
+                pins[address] = pwm;
+                break;
+            case TYPE_LEVEL:
+                if (pin != null) {
+                    pin.high = buffer.get() != 0;
+                }
+                break;
+            case TYPE_DUTY_CYCLE:
+                if (pin != null) {
+                    pin.dutyCycle = buffer.getFloat();
+                }
+                break;
+            case TYPE_FREQUENCY:
+                if (pin != null) {
+                    pin.frequency = buffer.getInt();
+                }
+                break;
+            default:
+                log.warn("Unknown provisioning journal record type {}", type);
+                break;
+        }
+    }
+
+    private int countPins() {
+        int count = 0;
+        for (final Pin pin : pins) {
+            if (pin != null) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    private void sync() {
+        try {
+            final boolean compact;
+            synchronized (this) {
+                compact = !failed && (position > compactAt || overflow);
+            }
+            if (compact) {
+                compact();
+            }
+            force();
+        } catch (RuntimeException ex) {
+            log.error("Unable to sync the provisioning journal", ex);
+        }
+    }
+
+    private void force() {
+        if (dirty) {
+            dirty = false;
+            mapped.force();
+            syncs++;
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() throws IOException {
+        if (syncer == null) {
+            return;
+        }
+        syncer.shutdown();
+        try {
+            syncer.awaitTermination(5, TimeUnit.SECONDS);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+        final boolean compact;
+        synchronized (this) {
+            compact = overflow && !failed;
+        }
+        if (compact) {
+            compact();
+        }
+        synchronized (compactionLock) {
+            synchronized (this) {
+                mapped.force();
+                channel.close();
+            }
+        }
+    }
+
+    private static final class Pin {
+        private final PinKind kind;
+        private final String name;
+        private final long order;
+        private InputConfig input;
+        private PwmType pwmType;
+        private int frequency;
+        private float dutyCycle;
+        private boolean high;
+
+        Pin(PinKind kind, String name, long order) {
+            this.kind = kind;
+            this.name = name;
+            this.order = order;
+        }
+
+        Pin copy() {
+            final Pin copy = new Pin(kind, name, order);
+            copy.input = input;
+            copy.pwmType = pwmType;
+            copy.frequency = frequency;
+            copy.dutyCycle = dutyCycle;
+            copy.high = high;
+            return copy;
+        }
+    }
+}
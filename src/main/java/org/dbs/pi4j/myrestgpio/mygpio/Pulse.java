@@ -0,0 +1,57 @@
+package org.dbs.pi4j.myrestgpio.mygpio;
+
+import lombok.AccessLevel;
+import lombok.Getter;
+
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * An in-flight pulse handled by the {@link PulseScheduler}.
+ * <p>State transitions (end, cancel, extend) are done while holding the pulse monitor; the generation number lets a
+ * scheduled end task detect that the pulse has been extended since it was scheduled.</p>
+ */
+@Getter
+public class Pulse {
+
+    private final long id;
+    private final int address;
+    private final long startedAt;
+
+    @Getter(AccessLevel.NONE)
+    private final DigitalOutputHandle output;
+
+    private volatile long deadlineNanos;
+
+    @Getter(AccessLevel.NONE)
+    ScheduledFuture<?> endTask;
+
+    @Getter(AccessLevel.NONE)
+    int generation;
+
+    @Getter(AccessLevel.NONE)
+    boolean ended;
+
+    Pulse(long id, int address, DigitalOutputHandle output, long deadlineNanos) {
+        this.id = id;
+        this.address = address;
+        this.output = output;
+        this.startedAt = System.currentTimeMillis();
+        this.deadlineNanos = deadlineNanos;
+    }
+
+    DigitalOutputHandle output() {
+        return output;
+    }
+
+    void setDeadlineNanos(long deadlineNanos) {
+        this.deadlineNanos = deadlineNanos;
+    }
+
+    /**
+     * @return The remaining time of the pulse in milliseconds, 0 if it is due.
+     */
+    public long getRemainingMillis() {
+        return Math.max(0, TimeUnit.NANOSECONDS.toMillis(deadlineNanos - System.nanoTime()));
+    }
+}
@@ -0,0 +1,216 @@
+package org.dbs.pi4j.myrestgpio.mygpio;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PreDestroy;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Non-blocking pulse engine.
+ * <p>A pulse sets the output high on the calling thread and returns immediately; a single scheduler thread sets it
+ * back low when the pulse is due. Pending pulses can be cancelled (the output goes low at once) or extended.
+ * Starting a pulse on a pin which already has one in flight supersedes the previous pulse. The high of a pulse is not
+ * written to the {@link ProvisioningJournal}, so that a restart in the middle of a pulse does not restore the output
+ * high for good.</p>
+ */
+@Component
+@Slf4j
+public class PulseScheduler {
+
+    private final ScheduledExecutorService scheduler;
+    private final AtomicLong nextId = new AtomicLong();
+    private final Map<Long, Pulse> pendingById = new ConcurrentHashMap<>();
+    private final Map<Integer, Pulse> pendingByAddress = new ConcurrentHashMap<>();
+
+    private final AtomicLong started = new AtomicLong();
+    private final AtomicLong completed = new AtomicLong();
+    private final AtomicLong cancelled = new AtomicLong();
+
+    public PulseScheduler(MeterRegistry meterRegistry) {
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "gpio-pulse");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        Gauge.builder("gpio.pulse.pending", pendingById, Map::size)
+            .description("Number of pulses in flight")
+            .register(meterRegistry);
+        FunctionCounter.builder("gpio.pulse.started", started, AtomicLong::get).register(meterRegistry);
+        FunctionCounter.builder("gpio.pulse.completed", completed, AtomicLong::get).register(meterRegistry);
+        FunctionCounter.builder("gpio.pulse.cancelled", cancelled, AtomicLong::get).register(meterRegistry);
+    }
+
+    /**
+     * Start a pulse: set the output high now and low after the given duration.
+     *
+     * @param output The output to pulse.
+     * @param duration The duration in milliseconds.
+     * @return The pending pulse.
+     */
+    public Pulse start(final DigitalOutputHandle output, final int duration) {
+        if (duration <= 0) {
+            throw new IllegalArgumentException("The pulse duration must be strictly positive");
+        }
+
+        final int address = output.getAddress();
+        final Pulse pulse = new Pulse(nextId.incrementAndGet(), address, output,
+            System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(duration));
+
+        synchronized (pulse) {
+            final Pulse previous = pendingByAddress.put(address, pulse);
+            if (previous != null) {
+                supersede(previous);
+            }
+            boolean high = false;
+            try {
+                output.set(true, false);
+                high = true;
+                schedule(pulse, duration);
+            } catch (RuntimeException ex) {
+                abort(pulse, high, ex);
+                throw ex;
+            }
+            pendingById.put(pulse.getId(), pulse);
+        }
+        started.incrementAndGet();
+        return pulse;
+    }
+
+    /**
+     * Cancel a pending pulse, the output is set low immediately.
+     *
+     * @param id The id of the pulse.
+     * @return True if the pulse was pending and has been cancelled.
+     */
+    public boolean cancel(final long id) {
+        final Pulse pulse = pendingById.get(id);
+        if (pulse == null) {
+            return false;
+        }
+
+        synchronized (pulse) {
+            if (pulse.ended) {
+                return false;
+            }
+            pulse.endTask.cancel(false);
+            finish(pulse);
+        }
+        cancelled.incrementAndGet();
+        return true;
+    }
+
+    /**
+     * Extend a pending pulse.
+     *
+     * @param id The id of the pulse.
+     * @param duration The additional duration in milliseconds.
+     * @return The extended pulse.
+     */
+    public Pulse extend(final long id, final int duration) {
+        final Pulse pulse = pendingById.get(id);
+        if (pulse == null) {
+            throw new IllegalArgumentException("There is no pending pulse with the given id");
+        }
+
+        synchronized (pulse) {
+            if (pulse.ended) {
+                throw new IllegalArgumentException("There is no pending pulse with the given id");
+            }
+            pulse.endTask.cancel(false);
+            pulse.setDeadlineNanos(pulse.getDeadlineNanos() + TimeUnit.MILLISECONDS.toNanos(duration));
+            schedule(pulse, TimeUnit.NANOSECONDS.toMillis(pulse.getDeadlineNanos() - System.nanoTime()));
+        }
+        return pulse;
+    }
+
+    /**
+     * @return A snapshot of the pending pulses.
+     */
+    public Collection<Pulse> getPending() {
+        return new ArrayList<>(pendingById.values());
+    }
+
+    private void schedule(Pulse pulse, long delay) {
+        final int generation = ++pulse.generation;
+        pulse.endTask = scheduler.schedule(() -> end(pulse, generation), Math.max(0, delay), TimeUnit.MILLISECONDS);
+    }
+
+    private void end(Pulse pulse, int generation) {
+        synchronized (pulse) {
+            if (pulse.ended || pulse.generation != generation) {
+                return;
+            }
+            try {
+                finish(pulse);
+            } catch (RuntimeException ex) {
+                log.error("Unable to end pulse {} on address {}", pulse.getId(), pulse.getAddress(), ex);
+                return;
+            }
+        }
+        completed.incrementAndGet();
+    }
+
+    /**
+     * Drop a pulse which could not be started, so that its pin accepts the next one.
+     */
+    private void abort(Pulse pulse, boolean high, RuntimeException cause) {
+        pulse.ended = true;
+        pendingByAddress.remove(pulse.getAddress(), pulse);
+        if (high) {
+            try {
+                pulse.output().set(false);
+            } catch (RuntimeException ex) {
+                cause.addSuppressed(ex);
+            }
+        }
+    }
+
+    private void supersede(Pulse previous) {
+        synchronized (previous) {
+            if (previous.ended) {
+                return;
+            }
+            previous.endTask.cancel(false);
+            previous.ended = true;
+            pendingById.remove(previous.getId());
+        }
+        cancelled.incrementAndGet();
+    }
+
+    private void finish(Pulse pulse) {
+        pulse.ended = true;
+        pendingById.remove(pulse.getId());
+        pendingByAddress.remove(pulse.getAddress(), pulse);
+        pulse.output().set(false);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        scheduler.shutdownNow();
+        for (final Pulse pulse : getPending()) {
+            synchronized (pulse) {
+                if (pulse.ended) {
+                    continue;
+                }
+                pulse.endTask.cancel(false);
+                try {
+                    finish(pulse);
+                } catch (RuntimeException ex) {
+                    log.error("Unable to end pulse {} on address {}", pulse.getId(), pulse.getAddress(), ex);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,146 @@
+package org.dbs.pi4j.myrestgpio.mygpio;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.dbs.pi4j.myrestgpio.configuration.PwmProperties;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PreDestroy;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Duty cycle ramps (fades) of PWM pins, run on the device.
+ * <p>A single scheduler thread moves the duty cycle of every ramping pin linearly towards its target, one step every
+ * {@code gpio.pwm.ramp-interval}. Starting a ramp on a pin which already has one supersedes it, from the current
+ * duty cycle; setting the duty cycle directly cancels it.</p>
+ */
+@Component
+@Slf4j
+public class PwmFader {
+
+    private final ScheduledExecutorService scheduler;
+    private final long intervalMillis;
+    private final Map<Integer, PwmRamp> ramps = new ConcurrentHashMap<>();
+
+    private final AtomicLong started = new AtomicLong();
+
+    public PwmFader(PwmProperties properties, MeterRegistry meterRegistry) {
+        this.intervalMillis = Math.max(1, properties.getRampInterval().toMillis());
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "gpio-pwm-ramp");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        Gauge.builder("gpio.pwm.ramps", ramps, Map::size)
+            .description("Number of duty cycle ramps in progress")
+            .register(meterRegistry);
+        FunctionCounter.builder("gpio.pwm.ramps.started", started, AtomicLong::get).register(meterRegistry);
+    }
+
+    /**
+     * Ramp the duty cycle of a PWM pin from its current value to the target.
+     *
+     * @param pwm The PWM pin.
+     * @param dutyCycle The target duty cycle, in percent.
+     * @param duration The duration of the ramp in milliseconds, 0 to set the duty cycle at once.
+     * @return The ramp, null if the duty cycle was set at once.
+     */
+    public PwmRamp start(final PwmHandle pwm, final float dutyCycle, final long duration) {
+        if (!Float.isFinite(dutyCycle) || dutyCycle < 0 || dutyCycle > 100) {
+            throw new IllegalArgumentException("The duty cycle must be between 0 and 100");
+        }
+        if (duration < 0) {
+            throw new IllegalArgumentException("The ramp duration must be positive");
+        }
+
+        if (duration == 0) {
+            cancel(pwm.getAddress());
+            pwm.setDutyCycle(dutyCycle);
+            return null;
+        }
+
+        final PwmRamp ramp = new PwmRamp(pwm, dutyCycle, duration);
+        synchronized (ramp) {
+            final PwmRamp previous = ramps.put(ramp.getAddress(), ramp);
+            if (previous != null) {
+                supersede(previous);
+            }
+            ramp.stepTask = scheduler.scheduleAtFixedRate(() -> step(ramp), 0, intervalMillis, TimeUnit.MILLISECONDS);
+        }
+        started.incrementAndGet();
+        return ramp;
+    }
+
+    /**
+     * Cancel the ramp of a pin, its duty cycle stays where the ramp left it.
+     *
+     * @param address The address of the PWM pin.
+     * @return True if a ramp was in progress.
+     */
+    public boolean cancel(final int address) {
+        final PwmRamp ramp = ramps.get(address);
+        if (ramp == null) {
+            return false;
+        }
+        synchronized (ramp) {
+            if (ramp.ended) {
+                return false;
+            }
+            end(ramp);
+        }
+        return true;
+    }
+
+    /**
+     * @param address The address of the PWM pin.
+     * @return The ramp in progress on the pin, null if none.
+     */
+    public PwmRamp get(final int address) {
+        return ramps.get(address);
+    }
+
+    private void step(PwmRamp ramp) {
+        synchronized (ramp) {
+            if (ramp.ended) {
+                return;
+            }
+            try {
+                ramp.pwm().setDutyCycle(ramp.dutyCycleNow());
+                if (ramp.getProgress() >= 1f) {
+                    ramp.pwm().setDutyCycle(ramp.getTo());
+                    end(ramp);
+                }
+            } catch (RuntimeException ex) {
+                log.error("Unable to ramp the duty cycle on address {}", ramp.getAddress(), ex);
+                end(ramp);
+            }
+        }
+    }
+
+    private void supersede(PwmRamp previous) {
+        synchronized (previous) {
+            if (!previous.ended) {
+                end(previous);
+            }
+        }
+    }
+
+    private void end(PwmRamp ramp) {
+        ramp.ended = true;
+        ramp.stepTask.cancel(false);
+        ramps.remove(ramp.getAddress(), ramp);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        scheduler.shutdownNow();
+    }
+}
@@ -0,0 +1,139 @@
+package org.dbs.pi4j.myrestgpio.mygpio;
+
+import com.pi4j.io.pwm.Pwm;
+
+/**
+ * {@link PinHandle} of a pin provisioned as PWM, keeping a shadow copy of its duty cycle and frequency.
+ * <p>Writes are serialized per pin so that the shadow values always match the last values written. The value of the
+ * pin is its duty cycle, in percent.</p>
+ */
+public class PwmHandle extends PinHandle {
+
+    private final Pwm pwm;
+
+    private volatile float dutyCycle;
+    private volatile int frequency;
+    private volatile long lastChanged;
+
+    public PwmHandle(int address, Pwm pwm, int frequency, float dutyCycle) {
+        super(address);
+        this.pwm = pwm;
+        this.frequency = frequency;
+        this.dutyCycle = dutyCycle;
+        this.lastChanged = System.currentTimeMillis();
+    }
+
+    @Override
+    public PinKind getKind() {
+        return PinKind.PWM;
+    }
+
+    @Override
+    public Pwm getIo() {
+        return pwm;
+    }
+
+    @Override
+    public PwmHandle asPwm() {
+        return this;
+    }
+
+    @Override
+    public Number getValue(boolean fresh) {
+        return fresh ? readDutyCycle() : dutyCycle;
+    }
+
+    @Override
+    public long getLastChanged() {
+        return lastChanged;
+    }
+
+    /**
+     * @return The shadow duty cycle, in percent.
+     */
+    public float getDutyCycle() {
+        return dutyCycle;
+    }
+
+    /**
+     * @return The shadow frequency, in Hz.
+     */
+    public int getFrequency() {
+        return frequency;
+    }
+
+    /**
+     * Read the duty cycle from the provider and refresh the shadow value.
+     *
+     * @return The duty cycle, in percent.
+     */
+    public synchronized float readDutyCycle() {
+        final float current = pwm.getDutyCycle();
+        if (current != dutyCycle) {
+            dutyCycle = current;
+            changed();
+            recordHistory(Math.round(current * 100));
+        }
+        return current;
+    }
+
+    /**
+     * Set the duty cycle, the PWM is turned off at 0.
+     *
+     * @param next The duty cycle, in percent.
+     * @return True if the duty cycle changed.
+     */
+    public synchronized boolean setDutyCycle(float next) {
+        if (!Float.isFinite(next) || next < 0 || next > 100) {
+            throw new IllegalArgumentException("The duty cycle must be between 0 and 100");
+        }
+        if (next == 0) {
+            pwm.off();
+        } else {
+            pwm.on(next, frequency);
+        }
+        if (next == dutyCycle) {
+            return false;
+        }
+        dutyCycle = next;
+        changed();
+        recordHistory(Math.round(next * 100));
+        final ProvisioningJournal journal = journal();
+        if (journal != null) {
+            journal.dutyCycle(getAddress(), next);
+        }
+        return true;
+    }
+
+    /**
+     * Set the frequency, keeping the duty cycle.
+     *
+     * @param next The frequency, in Hz.
+     * @return True if the frequency changed.
+     */
+    public synchronized boolean setFrequency(int next) {
+        if (next <= 0) {
+            throw new IllegalArgumentException("The frequency must be strictly positive");
+        }
+        if (next == frequency) {
+            return false;
+        }
+        if (dutyCycle > 0) {
+            pwm.on(dutyCycle, next);
+        } else {
+            pwm.setFrequency(next);
+        }
+        frequency = next;
+        changed();
+        final ProvisioningJournal journal = journal();
+        if (journal != null) {
+            journal.frequency(getAddress(), next);
+        }
+        return true;
+    }
+
+    private void changed() {
+        lastChanged = System.currentTimeMillis();
+        markChanged();
+    }
+}
@@ -0,0 +1,60 @@
+package org.dbs.pi4j.myrestgpio.mygpio;
+
+import lombok.AccessLevel;
+import lombok.Getter;
+
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A duty cycle ramp in progress, handled by the {@link PwmFader}.
+ * <p>State transitions are done while holding the ramp monitor, like for {@link Pulse}.</p>
+ */
+@Getter
+public class PwmRamp {
+
+    private final int address;
+    private final float from;
+    private final float to;
+    private final long durationMillis;
+
+    @Getter(AccessLevel.NONE)
+    private final PwmHandle pwm;
+
+    @Getter(AccessLevel.NONE)
+    private final long startNanos;
+
+    @Getter(AccessLevel.NONE)
+    ScheduledFuture<?> stepTask;
+
+    @Getter(AccessLevel.NONE)
+    boolean ended;
+
+    PwmRamp(PwmHandle pwm, float to, long durationMillis) {
+        this.address = pwm.getAddress();
+        this.pwm = pwm;
+        this.from = pwm.getDutyCycle();
+        this.to = to;
+        this.durationMillis = durationMillis;
+        this.startNanos = System.nanoTime();
+    }
+
+    PwmHandle pwm() {
+        return pwm;
+    }
+
+    /**
+     * @return The progress of the ramp, between 0 and 1.
+     */
+    public float getProgress() {
+        final long elapsed = System.nanoTime() - startNanos;
+        return Math.min(1f, (float) elapsed / TimeUnit.MILLISECONDS.toNanos(durationMillis));
+    }
+
+    /**
+     * @return The duty cycle the ramp is at now, in percent.
+     */
+    float dutyCycleNow() {
+        return from + (to - from) * getProgress();
+    }
+}
@@ -0,0 +1,130 @@
+package org.dbs.pi4j.myrestgpio.mygpio;
+
+import lombok.AccessLevel;
+import lombok.Getter;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A sequence of output writes run by the {@link SequenceEngine}.
+ * <p>The steps are kept in primitive arrays sorted by offset. The timing statistics are written by the sequence
+ * thread only and published through volatile fields; the jitter is the delay between the planned time of a step and
+ * the time its write is issued.</p>
+ */
+@Getter
+public class Sequence {
+
+    private static final int JITTER_BUCKETS = 40;
+
+    private final long id;
+    private final long startedAt;
+    private final int stepCount;
+    private final int repeat;
+    private final long periodMicros;
+
+    @Getter(AccessLevel.NONE)
+    final DigitalOutputHandle[] outputs;
+    @Getter(AccessLevel.NONE)
+    final boolean[] levels;
+    @Getter(AccessLevel.NONE)
+    final long[] offsetNanos;
+    @Getter(AccessLevel.NONE)
+    final long periodNanos;
+
+    private volatile SequenceStatus status = SequenceStatus.RUNNING;
+    private volatile long iterations;
+    private volatile long stepsExecuted;
+    private volatile long endedAt;
+    private volatile String error;
+
+    @Getter(AccessLevel.NONE)
+    volatile boolean pauseRequested;
+    @Getter(AccessLevel.NONE)
+    volatile boolean stopRequested;
+    @Getter(AccessLevel.NONE)
+    volatile Thread thread;
+
+    @Getter(AccessLevel.NONE)
+    private volatile long jitterSumNanos;
+    @Getter(AccessLevel.NONE)
+    private volatile long jitterMaxNanos;
+    @Getter(AccessLevel.NONE)
+    private final long[] jitterBuckets = new long[JITTER_BUCKETS];
+
+    Sequence(long id, DigitalOutputHandle[] outputs, boolean[] levels, long[] offsetNanos, int repeat, long periodNanos) {
+        this.id = id;
+        this.startedAt = System.currentTimeMillis();
+        this.stepCount = outputs.length;
+        this.repeat = repeat;
+        this.periodMicros = TimeUnit.NANOSECONDS.toMicros(periodNanos);
+        this.outputs = outputs;
+        this.levels = levels;
+        this.offsetNanos = offsetNanos;
+        this.periodNanos = periodNanos;
+    }
+
+    void recordStep(long jitterNanos) {
+        jitterSumNanos += jitterNanos;
+        if (jitterNanos > jitterMaxNanos) {
+            jitterMaxNanos = jitterNanos;
+        }
+        jitterBuckets[Math.min(JITTER_BUCKETS - 1, 64 - Long.numberOfLeadingZeros(jitterNanos / 1000))]++;
+        stepsExecuted++;
+    }
+
+    void recordIteration() {
+        iterations++;
+    }
+
+    void setStatus(SequenceStatus status) {
+        this.status = status;
+    }
+
+    void end(SequenceStatus status, String error) {
+        this.error = error;
+        this.endedAt = System.currentTimeMillis();
+        this.status = status;
+    }
+
+    /**
+     * @return True while the sequence is running or paused.
+     */
+    public boolean isActive() {
+        final SequenceStatus current = status;
+        return current == SequenceStatus.RUNNING || current == SequenceStatus.PAUSED;
+    }
+
+    /**
+     * @return The mean delay between the planned and the actual time of the steps, in microseconds.
+     */
+    public double getJitterMeanMicros() {
+        final long steps = stepsExecuted;
+        return steps == 0 ? 0 : jitterSumNanos / 1000.0 / steps;
+    }
+
+    /**
+     * @return The largest delay between the planned and the actual time of a step, in microseconds.
+     */
+    public double getJitterMaxMicros() {
+        return jitterMaxNanos / 1000.0;
+    }
+
+    /**
+     * @return An upper bound of the 99th percentile of the step delays, in microseconds (power of two resolution).
+     */
+    public long getJitterP99Micros() {
+        final long steps = stepsExecuted;
+        if (steps == 0) {
+            return 0;
+        }
+        final long threshold = steps - steps / 100;
+        long count = 0;
+        for (int bucket = 0; bucket < JITTER_BUCKETS; bucket++) {
+            count += jitterBuckets[bucket];
+            if (count >= threshold) {
+                return bucket == 0 ? 0 : 1L << bucket;
+            }
+        }
+        return 1L << (JITTER_BUCKETS - 1);
+    }
+}
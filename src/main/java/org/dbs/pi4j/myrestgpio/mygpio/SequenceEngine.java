@@ -0,0 +1,277 @@
+package org.dbs.pi4j.myrestgpio.mygpio;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.dbs.pi4j.myrestgpio.configuration.SequenceProperties;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PreDestroy;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Runs timed sequences of output writes on the device.
+ * <p>Each sequence runs on its own maximum priority thread, at most {@code gpio.sequence.max-running} at the same
+ * time. The thread parks until a step is close, then busy-spins the last {@code gpio.sequence.spin-threshold} so
+ * that the write is issued as close as possible to its planned time. A sequence is either played once or repeated
+ * with a period; it can be paused, resumed and stopped, the outputs keep their current level when it is stopped.</p>
+ */
+@Component
+@Slf4j
+public class SequenceEngine {
+
+    private final int maxSteps;
+    private final long spinThresholdNanos;
+    private final int retainEnded;
+    private final Semaphore running;
+    private final AtomicLong nextId = new AtomicLong();
+    private final Map<Long, Sequence> sequences = new ConcurrentHashMap<>();
+    private final Deque<Long> ended = new ArrayDeque<>();
+
+    private final AtomicLong started = new AtomicLong();
+
+    public SequenceEngine(SequenceProperties properties, MeterRegistry meterRegistry) {
+        this.maxSteps = properties.getMaxSteps();
+        this.spinThresholdNanos = properties.getSpinThreshold().toNanos();
+        this.retainEnded = properties.getRetainEnded();
+        final int maxRunning = Math.max(1, properties.getMaxRunning());
+        this.running = new Semaphore(maxRunning);
+
+        Gauge.builder("gpio.sequence.running", running, semaphore -> maxRunning - semaphore.availablePermits())
+            .description("Number of sequences running or paused")
+            .register(meterRegistry);
+        FunctionCounter.builder("gpio.sequence.started", started, AtomicLong::get).register(meterRegistry);
+    }
+
+    /**
+     * Start a sequence.
+     *
+     * @param outputs The output of each step, in step order.
+     * @param steps The steps, sorted by offset.
+     * @param repeat The number of iterations, 0 to repeat until stopped.
+     * @param periodMicros The period of an iteration in microseconds, 0 to use the offset of the last step.
+     * @return The running sequence.
+     */
+    public Sequence start(final DigitalOutputHandle[] outputs, final SequenceStep[] steps, final int repeat,
+                          final long periodMicros) {
+        if (steps.length == 0) {
+            throw new IllegalArgumentException("A sequence needs at least one step");
+        }
+        if (steps.length > maxSteps) {
+            throw new IllegalArgumentException("A sequence cannot have more than " + maxSteps + " steps");
+        }
+        if (repeat < 0) {
+            throw new IllegalArgumentException("The repeat count must be positive, or 0 to repeat until stopped");
+        }
+
+        final boolean[] levels = new boolean[steps.length];
+        final long[] offsetNanos = new long[steps.length];
+        for (int index = 0; index < steps.length; index++) {
+            if (steps[index].getOffsetMicros() < 0) {
+                throw new IllegalArgumentException("The offset of a step must be positive");
+            }
+            levels[index] = steps[index].isHigh();
+            offsetNanos[index] = TimeUnit.MICROSECONDS.toNanos(steps[index].getOffsetMicros());
+        }
+
+        final long lastOffset = offsetNanos[steps.length - 1];
+        final long periodNanos = periodMicros > 0 ? TimeUnit.MICROSECONDS.toNanos(periodMicros) : lastOffset;
+        if (periodNanos < lastOffset) {
+            throw new IllegalArgumentException("The period cannot be shorter than the offset of the last step");
+        }
+        if (periodNanos == 0 && repeat != 1) {
+            throw new IllegalArgumentException("A repeated sequence needs a period");
+        }
+
+        if (!running.tryAcquire()) {
+            throw new IllegalArgumentException("Too many sequences running, stop one first");
+        }
+
+        final Sequence sequence = new Sequence(nextId.incrementAndGet(), outputs, levels, offsetNanos, repeat, periodNanos);
+        final Thread thread = new Thread(() -> run(sequence), "gpio-sequence-" + sequence.getId());
+        thread.setDaemon(true);
+        thread.setPriority(Thread.MAX_PRIORITY);
+        sequence.thread = thread;
+        sequences.put(sequence.getId(), sequence);
+        started.incrementAndGet();
+        thread.start();
+        return sequence;
+    }
+
+    /**
+     * @param id The id of the sequence.
+     * @return The sequence, running or recently ended.
+     */
+    public Sequence get(final long id) {
+        final Sequence sequence = sequences.get(id);
+        if (sequence == null) {
+            throw new IllegalArgumentException("There is no sequence with the given id");
+        }
+        return sequence;
+    }
+
+    /**
+     * @return The running and recently ended sequences.
+     */
+    public Collection<Sequence> getAll() {
+        return new ArrayList<>(sequences.values());
+    }
+
+    /**
+     * Pause a running sequence before its next step.
+     *
+     * @param id The id of the sequence.
+     * @return The sequence.
+     */
+    public Sequence pause(final long id) {
+        final Sequence sequence = requireActive(id);
+        sequence.pauseRequested = true;
+        return sequence;
+    }
+
+    /**
+     * Resume a paused sequence, the remaining steps are shifted by the time spent paused.
+     *
+     * @param id The id of the sequence.
+     * @return The sequence.
+     */
+    public Sequence resume(final long id) {
+        final Sequence sequence = requireActive(id);
+        sequence.pauseRequested = false;
+        LockSupport.unpark(sequence.thread);
+        return sequence;
+    }
+
+    /**
+     * Stop a sequence, the outputs keep their current level.
+     *
+     * @param id The id of the sequence.
+     * @return True if the sequence was running or paused.
+     */
+    public boolean stop(final long id) {
+        final Sequence sequence = sequences.get(id);
+        if (sequence == null || !sequence.isActive()) {
+            return false;
+        }
+        sequence.stopRequested = true;
+        LockSupport.unpark(sequence.thread);
+        return true;
+    }
+
+    private Sequence requireActive(long id) {
+        final Sequence sequence = get(id);
+        if (!sequence.isActive()) {
+            throw new IllegalArgumentException("The sequence has already ended");
+        }
+        return sequence;
+    }
+
+    private void run(Sequence sequence) {
+        SequenceStatus status = SequenceStatus.COMPLETED;
+        String error = null;
+        try {
+            status = play(sequence);
+        } catch (RuntimeException ex) {
+            log.error("Sequence {} failed", sequence.getId(), ex);
+            status = SequenceStatus.FAILED;
+            error = ex.getMessage();
+        } finally {
+            sequence.end(status, error);
+            running.release();
+            retire(sequence);
+        }
+        log.debug("Sequence {} {} after {} steps, jitter mean {} us, max {} us", sequence.getId(), status,
+            sequence.getStepsExecuted(), sequence.getJitterMeanMicros(), sequence.getJitterMaxMicros());
+    }
+
+    private SequenceStatus play(Sequence sequence) {
+        final DigitalOutputHandle[] outputs = sequence.outputs;
+        final boolean[] levels = sequence.levels;
+        final long[] offsets = sequence.offsetNanos;
+        final int repeat = sequence.getRepeat();
+
+        long base = System.nanoTime();
+        for (long iteration = 0; repeat == 0 || iteration < repeat; iteration++) {
+            for (int step = 0; step < outputs.length; step++) {
+                long deadline = base + offsets[step];
+                final long paused = await(sequence, deadline);
+                if (paused < 0) {
+                    return SequenceStatus.STOPPED;
+                }
+                base += paused;
+                deadline += paused;
+
+                final long now = System.nanoTime();
+                outputs[step].set(levels[step]);
+                sequence.recordStep(now - deadline);
+            }
+            sequence.recordIteration();
+            base += sequence.periodNanos;
+        }
+
+        // Wait for the end of the last period, so that back to back runs keep their rhythm.
+        return await(sequence, base) < 0 ? SequenceStatus.STOPPED : SequenceStatus.COMPLETED;
+    }
+
+    /**
+     * Wait until the deadline, parking while it is far and spinning when it is close.
+     *
+     * @return The time spent paused in nanoseconds, -1 if the sequence was stopped.
+     */
+    private long await(Sequence sequence, long deadline) {
+        long paused = 0;
+        while (true) {
+            if (sequence.stopRequested) {
+                return -1;
+            }
+            if (sequence.pauseRequested) {
+                final long pausedAt = System.nanoTime();
+                sequence.setStatus(SequenceStatus.PAUSED);
+                while (sequence.pauseRequested && !sequence.stopRequested) {
+                    LockSupport.park(this);
+                }
+                sequence.setStatus(SequenceStatus.RUNNING);
+                final long elapsed = System.nanoTime() - pausedAt;
+                paused += elapsed;
+                deadline += elapsed;
+                continue;
+            }
+
+            final long remaining = deadline - System.nanoTime();
+            if (remaining <= 0) {
+                return paused;
+            }
+            if (remaining > spinThresholdNanos) {
+                LockSupport.parkNanos(this, remaining - spinThresholdNanos);
+            } else {
+                Thread.onSpinWait();
+            }
+        }
+    }
+
+    private void retire(Sequence sequence) {
+        synchronized (ended) {
+            ended.addLast(sequence.getId());
+            while (ended.size() > retainEnded) {
+                sequences.remove(ended.removeFirst());
+            }
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        for (final Sequence sequence : sequences.values()) {
+            stop(sequence.getId());
+        }
+    }
+}
@@ -0,0 +1,12 @@
+package org.dbs.pi4j.myrestgpio.mygpio;
+
+/**
+ * Lifecycle of a {@link Sequence}.
+ */
+public enum SequenceStatus {
+    RUNNING,
+    PAUSED,
+    COMPLETED,
+    STOPPED,
+    FAILED
+}
@@ -0,0 +1,13 @@
+package org.dbs.pi4j.myrestgpio.mygpio;
+
+import lombok.Value;
+
+/**
+ * One step of a sequence: the level to write on an output, at an offset from the start of the iteration.
+ */
+@Value
+public class SequenceStep {
+    int address;
+    boolean high;
+    long offsetMicros;
+}
@@ -0,0 +1,40 @@
+package org.dbs.pi4j.myrestgpio.myrest;
+
+import org.dbs.pi4j.myrestgpio.mygpio.MyGpioController;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+
+/**
+ * Refuses the calls on the pins with a 503 until the GPIO layer is ready, instead of holding the request threads.
+ */
+@Component
+public class GpioReadinessInterceptor implements HandlerInterceptor {
+
+    private static final String RETRY_AFTER_SECONDS = "1";
+
+    private final MyGpioController myGpioController;
+
+    public GpioReadinessInterceptor(MyGpioController myGpioController) {
+        this.myGpioController = myGpioController;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) throws IOException {
+        if (myGpioController.isReady()) {
+            return true;
+        }
+
+        final boolean failed = myGpioController.getInitFailure() != null;
+        if (!failed) {
+            response.setHeader(HttpHeaders.RETRY_AFTER, RETRY_AFTER_SECONDS);
+        }
+        response.sendError(HttpServletResponse.SC_SERVICE_UNAVAILABLE,
+            failed ? "The GPIO layer failed to initialize" : "The GPIO layer is starting");
+        return false;
+    }
+}
@@ -1,14 +1,44 @@
 package org.dbs.pi4j.myrestgpio.myrest;
 
-import com.pi4j.io.gpio.digital.DigitalInput;
 import com.pi4j.io.gpio.digital.DigitalOutput;
+import com.pi4j.io.gpio.digital.PullResistance;
+import com.pi4j.io.pwm.PwmType;
 import lombok.extern.slf4j.Slf4j;
+import org.dbs.pi4j.myrestgpio.mygpio.EdgeCount;
+import org.dbs.pi4j.myrestgpio.mygpio.EdgeMode;
+import org.dbs.pi4j.myrestgpio.mygpio.HistorySeries;
+import org.dbs.pi4j.myrestgpio.mygpio.HistorySlice;
+import org.dbs.pi4j.myrestgpio.mygpio.HistoryStats;
+import org.dbs.pi4j.myrestgpio.mygpio.InputConfig;
 import org.dbs.pi4j.myrestgpio.mygpio.MyGpioController;
-import org.dbs.pi4j.myrestgpio.myrest.dto.PinDTO;
+import org.dbs.pi4j.myrestgpio.mygpio.PinEventSubscription;
+import org.dbs.pi4j.myrestgpio.mygpio.PinState;
+import org.dbs.pi4j.myrestgpio.mygpio.Pulse;
+import org.dbs.pi4j.myrestgpio.mygpio.PwmHandle;
+import org.dbs.pi4j.myrestgpio.mygpio.PwmRamp;
+import org.dbs.pi4j.myrestgpio.mygpio.Sequence;
+import org.dbs.pi4j.myrestgpio.mygpio.SequenceStep;
+import org.dbs.pi4j.myrestgpio.myrest.dto.BatchOperationDTO;
+import org.dbs.pi4j.myrestgpio.myrest.dto.BatchOperationType;
+import org.dbs.pi4j.myrestgpio.myrest.dto.BatchResponseDTO;
+import org.dbs.pi4j.myrestgpio.myrest.dto.BatchResultDTO;
+import org.dbs.pi4j.myrestgpio.myrest.dto.DigitalInputDTO;
+import org.dbs.pi4j.myrestgpio.myrest.dto.EdgeCountDTO;
+import org.dbs.pi4j.myrestgpio.myrest.dto.HistoryDTO;
+import org.dbs.pi4j.myrestgpio.myrest.dto.PinStateDTO;
+import org.dbs.pi4j.myrestgpio.myrest.dto.PulseDTO;
+import org.dbs.pi4j.myrestgpio.myrest.dto.PwmDTO;
+import org.dbs.pi4j.myrestgpio.myrest.dto.SequenceDTO;
+import org.dbs.pi4j.myrestgpio.myrest.dto.SequenceStatusDTO;
+import org.dbs.pi4j.myrestgpio.myrest.dto.SequenceStepDTO;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import java.time.Duration;
+import java.time.temporal.ChronoUnit;
 import java.util.*;
-import java.util.Map.Entry;
 
 import org.dbs.pi4j.myrestgpio.common.LogExecutionTime;
 
@@ -21,22 +51,53 @@ import org.dbs.pi4j.myrestgpio.common.LogExecutionTime;
 @CrossOrigin
 public class GpioRestController {
 
+    private static final String PROVISION_VERSION_HEADER = "X-Provision-Version";
+
     private final MyGpioController myGpioController;
+    private final ProvisionListSnapshot provisionListSnapshot;
 
-    public GpioRestController(MyGpioController gpioManager) {
+    public GpioRestController(MyGpioController gpioManager, ProvisionListSnapshot provisionListSnapshot) {
         this.myGpioController = gpioManager;
+        this.provisionListSnapshot = provisionListSnapshot;
     }
 
     /**
-     * Provision a GPIO as digital output pin.
+     * Provision a GPIO as digital input pin, with the pull resistance, debounce and filters of the optional body.
      *
      * @param address The address of the GPIO pin.
      * @param name The name of the GPIO pin.
+     * @param count The edges to count, RISING, FALLING or BOTH, instead of publishing the state changes.
+     * @param inputDTO The {@link DigitalInputDTO}, the defaults when absent.
      * @return True if successful.
      */
     @PostMapping(path = "provision/digital/input/{address}/{name}", produces = "application/json")
-    public boolean provisionDigitalInputPin(@PathVariable("address")  int address, @PathVariable("name")  String name) {
-        return this.myGpioController.provisionDigitalInputPin(address, name);
+    public boolean provisionDigitalInputPin(@PathVariable("address")  int address, @PathVariable("name")  String name,
+                                            @RequestParam(value = "count", required = false) String count,
+                                            @RequestBody(required = false) DigitalInputDTO inputDTO) {
+        if (count == null && inputDTO == null) {
+            return this.myGpioController.provisionDigitalInputPin(address, name);
+        }
+        return this.myGpioController.provisionDigitalInputPin(address, name, toInputConfig(inputDTO, count));
+    }
+
+    private InputConfig toInputConfig(DigitalInputDTO inputDTO, String count) {
+        final DigitalInputDTO dto = inputDTO != null ? inputDTO : new DigitalInputDTO();
+        final String counting = count != null ? count : dto.getCount();
+        final InputConfig.InputConfigBuilder builder = InputConfig.builder()
+            .glitch(Duration.of(dto.getGlitch(), ChronoUnit.MICROS))
+            .majority(dto.getMajority())
+            .dwell(Duration.of(dto.getDwell(), ChronoUnit.MICROS));
+        if (dto.getPull() != null) {
+            final String pull = dto.getPull().toUpperCase(Locale.ROOT);
+            builder.pull(PullResistance.valueOf(pull.equals("OFF") || pull.startsWith("PULL_") ? pull : "PULL_" + pull));
+        }
+        if (dto.getDebounce() != null) {
+            builder.debounce(Duration.of(dto.getDebounce(), ChronoUnit.MICROS));
+        }
+        if (counting != null) {
+            builder.counting(EdgeMode.valueOf(counting.toUpperCase(Locale.ROOT)));
+        }
+        return builder.build();
     }
 
     /**
@@ -52,69 +113,71 @@ public class GpioRestController {
         return this.myGpioController.provisionDigitalOutputPin(address, name);
     }
 
+    /**
+     * Provision a GPIO as PWM pin, off until a duty cycle is set.
+     *
+     * @param address The address of the GPIO pin.
+     * @param name The name of the GPIO pin.
+     * @param type HARDWARE (addresses 12, 13, 18 and 19 only) or SOFTWARE.
+     * @param frequency The frequency in Hz, the configured default if not given.
+     * @return True if successful.
+     */
+    @LogExecutionTime(value = "/api/gpio/", valueType = "POST provision/pwm/{address}/{name}")
+    @PostMapping(path = "provision/pwm/{address}/{name}", produces = "application/json")
+    public boolean provisionPwmPin(@PathVariable("address") int address, @PathVariable("name") String name,
+                                   @RequestParam(value = "type", defaultValue = "SOFTWARE") String type,
+                                   @RequestParam(value = "frequency", required = false) Integer frequency) {
+        return this.myGpioController.provisionPwmPin(address, name, PwmType.valueOf(type.toUpperCase(Locale.ROOT)), frequency);
+    }
+
     /**
      * Get the current state of the pins.
+     * <p>The list is served from a snapshot rebuilt only when a pin is provisioned or changes state. The response
+     * carries the snapshot version as {@code ETag}, a request with a matching {@code If-None-Match} gets a 304.
+     * With {@code since}, only the pins changed after the given version are returned.</p>
      *
+     * @param fresh True to read the pins from the hardware instead of their last known state.
+     * @param since The version known by the client, to only get the pins changed since.
      * @return {@link Collection} of {@link DigitalOutput}.
      */
     @LogExecutionTime(value = "/api/gpio/", valueType = "GET provision/list")
     @GetMapping(path = "provision/list", produces = "application/json")
-    public List<PinDTO> getProvisionList() {
-        log.info("GpioRestController::getProvisionList");
-
-        final Map<Integer, Object> list = this.myGpioController.getProvisionedPins();
+    public ResponseEntity<byte[]> getProvisionList(@RequestParam(value = "fresh", defaultValue = "false") boolean fresh,
+                                                   @RequestParam(value = "since", required = false) Long since) {
+        log.debug("GpioRestController::getProvisionList");
 
-        final List<PinDTO> map = new ArrayList<>();
-
-        for (final Entry<Integer, Object> entry : list.entrySet()) {
-            final PinDTO pinDTO = initializePinDto(entry);
-
-            if (entry.getValue() instanceof DigitalOutput) {
-                valueForDigitalOutPut((DigitalOutput) entry.getValue(), pinDTO);
-            }
-            if (entry.getValue() instanceof DigitalInput) {
-                valueForDigitalInput((DigitalInput) entry.getValue(), pinDTO);
-            }
-
-            pinDTO.setGlobalName("ProvisionedPin_" + entry.getKey());
-            map.add(pinDTO);
+        if (fresh) {
+            this.myGpioController.refreshProvisionedPins();
         }
 
-        return map;
-    }
-
-    private void valueForDigitalInput(DigitalInput digitalPin, PinDTO pinDTO) {
-        pinDTO.setName(digitalPin.getName());
-        pinDTO.setPinName(digitalPin.getId());
-        pinDTO.setMode(digitalPin.type().name());
-        pinDTO.setState(digitalPin.state().getValue());
-    }
-
-    private void valueForDigitalOutPut(DigitalOutput digitalPin, PinDTO pinDTO) {
-        pinDTO.setName(digitalPin.getName());
-        pinDTO.setPinName(digitalPin.getId());
-        pinDTO.setMode(digitalPin.type().name());
-        pinDTO.setState(digitalPin.state().getValue());
-    }
-
-    private PinDTO initializePinDto(Entry<Integer, Object> entry) {
-        final PinDTO pinDTO  = new PinDTO();
+        final ProvisionListSnapshot.Snapshot snapshot = this.provisionListSnapshot.get();
 
-        pinDTO.setAddress(entry.getKey());
-        pinDTO.setType(entry.getValue().getClass().getName());
-        return pinDTO;
+        if (since == null) {
+            return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .eTag(snapshot.getEtag())
+                .body(snapshot.getJson());
+        }
+        return ResponseEntity.ok()
+            .contentType(MediaType.APPLICATION_JSON)
+            .eTag("\"" + snapshot.getVersion() + "-" + since + "\"")
+            .header(PROVISION_VERSION_HEADER, String.valueOf(snapshot.getVersion()))
+            .body(this.provisionListSnapshot.getChangedSince(since));
     }
 
     /**
-     * Get the current state of the pins.
+     * Get the current state of a pin.
      *
+     * @param address The address of the GPIO pin.
+     * @param fresh True to read the pin from the hardware instead of its last known state.
      * @return The value read from the pin
      */
     @LogExecutionTime(value = "/api/gpio/", valueType = "GET state/{address}")
     @GetMapping(path = "state/{address}", produces = "application/json")
-    public String getState(@PathVariable("address") long address) {
+    public String getState(@PathVariable("address") long address,
+                           @RequestParam(value = "fresh", defaultValue = "false") boolean fresh) {
         try {
-            return String.valueOf(this.myGpioController.getState((int) address).getValue());
+            return String.valueOf(this.myGpioController.getState((int) address, fresh).getValue());
         } catch (IllegalArgumentException ex) {
             log.error(ex.getMessage());
 
@@ -122,6 +185,50 @@ public class GpioRestController {
         }
     }
 
+    /**
+     * Get the current state of a pin with the time of its last change.
+     *
+     * @param address The address of the GPIO pin.
+     * @param fresh True to read the pin from the hardware instead of its last known state.
+     * @return The {@link PinStateDTO}.
+     */
+    @LogExecutionTime(value = "/api/gpio/", valueType = "GET state/{address}/detail")
+    @GetMapping(path = "state/{address}/detail", produces = "application/json")
+    public PinStateDTO getStateDetail(@PathVariable("address") long address,
+                                      @RequestParam(value = "fresh", defaultValue = "false") boolean fresh) {
+        final PinState pinState = this.myGpioController.getPinState((int) address, fresh);
+
+        final PinStateDTO pinStateDTO = new PinStateDTO();
+        pinStateDTO.setAddress(pinState.getAddress());
+        pinStateDTO.setState(pinState.getState().getValue());
+        pinStateDTO.setLastChanged(pinState.getLastChanged());
+        return pinStateDTO;
+    }
+
+    /**
+     * Stream the state changes of the input pins as Server-Sent Events.
+     * <p>Each event carries its sequence number as id; a client reconnecting with the {@code Last-Event-ID} header
+     * (or the {@code since} parameter) gets the events it missed if they are still in the server history.</p>
+     *
+     * @param pins The addresses of the pins to watch, all pins if not given.
+     * @param since The last sequence number received by the client.
+     * @param lastEventId The last sequence number received by the client, sent by browsers on reconnection.
+     * @return The event stream.
+     */
+    @GetMapping(path = "events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamEvents(@RequestParam(value = "pins", required = false) int[] pins,
+                                   @RequestParam(value = "since", required = false) Long since,
+                                   @RequestHeader(value = "Last-Event-ID", required = false) Long lastEventId) {
+        final SseEmitter emitter = new SseEmitter(0L);
+        final long lastSeq = lastEventId != null ? lastEventId : (since != null ? since : 0L);
+
+        final PinEventSubscription subscription = this.myGpioController.subscribe(new SsePinEventSink(emitter), pins, lastSeq);
+        emitter.onCompletion(() -> this.myGpioController.unsubscribe(subscription));
+        emitter.onTimeout(() -> this.myGpioController.unsubscribe(subscription));
+        emitter.onError(ex -> this.myGpioController.unsubscribe(subscription));
+        return emitter;
+    }
+
     /**
      * Set the state of a pin.
      *
@@ -155,7 +262,204 @@ public class GpioRestController {
     }
 
     /**
-     * Pulse a pin.
+     * Get the duty cycle and frequency of a PWM pin.
+     *
+     * @param address The address of the GPIO pin.
+     * @return The {@link PwmDTO}.
+     */
+    @LogExecutionTime(value = "/api/gpio/", valueType = "GET pwm/{address}")
+    @GetMapping(path = "pwm/{address}", produces = "application/json")
+    public PwmDTO getPwm(@PathVariable("address") int address) {
+        return toPwmDto(this.myGpioController.getPwm(address), this.myGpioController.getPwmRamp(address));
+    }
+
+    /**
+     * Set the duty cycle of a PWM pin, cancelling its ramp if any.
+     *
+     * @param address The address of the GPIO pin.
+     * @param dutyCycle The duty cycle in percent, 0 turns the PWM off.
+     * @return True if successful.
+     */
+    @LogExecutionTime(value = "/api/gpio/", valueType = "POST pwm/{address}/duty/{dutyCycle}")
+    @PostMapping(path = "pwm/{address}/duty/{dutyCycle}", produces = "application/json")
+    public boolean setPwmDutyCycle(@PathVariable("address") int address, @PathVariable("dutyCycle") float dutyCycle) {
+        return this.myGpioController.setPwmDutyCycle(address, dutyCycle);
+    }
+
+    /**
+     * Set the frequency of a PWM pin.
+     *
+     * @param address The address of the GPIO pin.
+     * @param frequency The frequency in Hz.
+     * @return True if successful.
+     */
+    @LogExecutionTime(value = "/api/gpio/", valueType = "POST pwm/{address}/frequency/{frequency}")
+    @PostMapping(path = "pwm/{address}/frequency/{frequency}", produces = "application/json")
+    public boolean setPwmFrequency(@PathVariable("address") int address, @PathVariable("frequency") int frequency) {
+        return this.myGpioController.setPwmFrequency(address, frequency);
+    }
+
+    /**
+     * Ramp the duty cycle of a PWM pin to the target, the ramp runs on the device and the call returns at once.
+     *
+     * @param address The address of the GPIO pin.
+     * @param dutyCycle The target duty cycle in percent.
+     * @param duration The duration of the ramp in milliseconds.
+     * @return True if successful.
+     */
+    @LogExecutionTime(value = "/api/gpio/", valueType = "POST pwm/{address}/ramp/{dutyCycle}/{duration}")
+    @PostMapping(path = "pwm/{address}/ramp/{dutyCycle}/{duration}", produces = "application/json")
+    public boolean rampPwm(@PathVariable("address") int address, @PathVariable("dutyCycle") float dutyCycle,
+                           @PathVariable("duration") long duration) {
+        return this.myGpioController.rampPwm(address, dutyCycle, duration);
+    }
+
+    private PwmDTO toPwmDto(PwmHandle pwm, PwmRamp ramp) {
+        final PwmDTO pwmDTO = new PwmDTO();
+
+        pwmDTO.setAddress(pwm.getAddress());
+        pwmDTO.setType(pwm.getIo().pwmType().name());
+        pwmDTO.setDutyCycle(pwm.getDutyCycle());
+        pwmDTO.setFrequency(pwm.getFrequency());
+        pwmDTO.setLastChanged(pwm.getLastChanged());
+        if (ramp != null) {
+            pwmDTO.setRampTarget(ramp.getTo());
+            pwmDTO.setRampProgress(ramp.getProgress());
+        }
+        return pwmDTO;
+    }
+
+    /**
+     * Get the edges counted on all the input pins in counting mode.
+     *
+     * @return The list of {@link EdgeCountDTO}.
+     */
+    @LogExecutionTime(value = "/api/gpio/", valueType = "GET edges")
+    @GetMapping(path = "edges", produces = "application/json")
+    public List<EdgeCountDTO> getEdgeCounts() {
+        final List<EdgeCountDTO> counts = new ArrayList<>();
+        for (final EdgeCount count : this.myGpioController.getEdgeCounts()) {
+            counts.add(toEdgeCountDto(count));
+        }
+        return counts;
+    }
+
+    /**
+     * Get the edges counted on an input pin and its edge rates over the last second, 10 seconds and minute.
+     *
+     * @param address The address of the GPIO pin.
+     * @return The {@link EdgeCountDTO}.
+     */
+    @LogExecutionTime(value = "/api/gpio/", valueType = "GET edges/{address}")
+    @GetMapping(path = "edges/{address}", produces = "application/json")
+    public EdgeCountDTO getEdgeCount(@PathVariable("address") int address) {
+        return toEdgeCountDto(this.myGpioController.getEdgeCount(address, false));
+    }
+
+    /**
+     * Restart the count of an input pin from zero.
+     *
+     * @param address The address of the GPIO pin.
+     * @return The {@link EdgeCountDTO} read atomically with the reset.
+     */
+    @LogExecutionTime(value = "/api/gpio/", valueType = "POST edges/{address}/reset")
+    @PostMapping(path = "edges/{address}/reset", produces = "application/json")
+    public EdgeCountDTO resetEdgeCount(@PathVariable("address") int address) {
+        return toEdgeCountDto(this.myGpioController.getEdgeCount(address, true));
+    }
+
+    private EdgeCountDTO toEdgeCountDto(EdgeCount count) {
+        final EdgeCountDTO edgeCountDTO = new EdgeCountDTO();
+
+        edgeCountDTO.setAddress(count.getAddress());
+        edgeCountDTO.setMode(count.getMode().name());
+        edgeCountDTO.setCount(count.getCount());
+        edgeCountDTO.setRising(count.getRising());
+        edgeCountDTO.setFalling(count.getFalling());
+        edgeCountDTO.setTotal(count.getTotal());
+        edgeCountDTO.setRate1s(count.getRate1s());
+        edgeCountDTO.setRate10s(count.getRate10s());
+        edgeCountDTO.setRate60s(count.getRate60s());
+        edgeCountDTO.setSince(count.getSince());
+        return edgeCountDTO;
+    }
+
+    /**
+     * Get the transitions of a pin over a time range, the oldest first.
+     *
+     * @param address The address of the GPIO pin.
+     * @param from The start of the range, excluded, in milliseconds since the epoch.
+     * @param to The end of the range, included, in milliseconds since the epoch, now by default.
+     * @param limit The maximum number of transitions, {@code more} is set when the range holds more.
+     * @return The {@link HistoryDTO}, its timestamps are in microseconds since the epoch.
+     */
+    @LogExecutionTime(value = "/api/gpio/", valueType = "GET history/{address}")
+    @GetMapping(path = "history/{address}", produces = "application/json")
+    public HistoryDTO getHistory(@PathVariable("address") int address,
+                                 @RequestParam(name = "from", defaultValue = "0") long from,
+                                 @RequestParam(name = "to", required = false) Long to,
+                                 @RequestParam(name = "limit", defaultValue = "1000") int limit) {
+        final HistorySlice slice = this.myGpioController.getHistory(address, from, toOrNow(to), limit);
+
+        final HistoryDTO historyDTO = new HistoryDTO();
+        historyDTO.setAddress(slice.getAddress());
+        historyDTO.setKind(slice.getKind().name());
+        historyDTO.setFromMicros(slice.getFromMicros());
+        historyDTO.setToMicros(slice.getToMicros());
+        historyDTO.setInitialValue(slice.getInitialValue());
+        final long[] timestamps = new long[slice.size()];
+        final double[] values = new double[slice.size()];
+        for (int i = 0; i < slice.size(); i++) {
+            timestamps[i] = slice.getTimestamp(i);
+            values[i] = slice.getValue(i);
+        }
+        historyDTO.setTimestamps(timestamps);
+        historyDTO.setValues(values);
+        historyDTO.setMore(slice.isMore());
+        historyDTO.setTruncated(slice.isTruncated());
+        return historyDTO;
+    }
+
+    /**
+     * Get the duty cycle, the pulse widths and the frequency of a pin over a time range.
+     *
+     * @param address The address of the GPIO pin.
+     * @param from The start of the range, excluded, in milliseconds since the epoch.
+     * @param to The end of the range, included, in milliseconds since the epoch, now by default.
+     * @return The {@link HistoryStats}.
+     */
+    @LogExecutionTime(value = "/api/gpio/", valueType = "GET history/{address}/stats")
+    @GetMapping(path = "history/{address}/stats", produces = "application/json")
+    public HistoryStats getHistoryStats(@PathVariable("address") int address,
+                                        @RequestParam(name = "from", defaultValue = "0") long from,
+                                        @RequestParam(name = "to", required = false) Long to) {
+        return this.myGpioController.getHistoryStats(address, from, toOrNow(to));
+    }
+
+    /**
+     * Get the values of a pin over a time range downsampled to buckets of equal duration, for charting.
+     *
+     * @param address The address of the GPIO pin.
+     * @param from The start of the range, excluded, in milliseconds since the epoch.
+     * @param to The end of the range, included, in milliseconds since the epoch, now by default.
+     * @param points The maximum number of buckets.
+     * @return The {@link HistorySeries}.
+     */
+    @LogExecutionTime(value = "/api/gpio/", valueType = "GET history/{address}/series")
+    @GetMapping(path = "history/{address}/series", produces = "application/json")
+    public HistorySeries getHistorySeries(@PathVariable("address") int address,
+                                          @RequestParam(name = "from", defaultValue = "0") long from,
+                                          @RequestParam(name = "to", required = false) Long to,
+                                          @RequestParam(name = "points", defaultValue = "200") int points) {
+        return this.myGpioController.getHistorySeries(address, from, toOrNow(to), points);
+    }
+
+    private static long toOrNow(Long to) {
+        return to == null ? System.currentTimeMillis() : to;
+    }
+
+    /**
+     * Pulse a pin, the call returns as soon as the pin is set high.
      *
      * @param address The address of the GPIO pin.
      * @param duration The duration in milliseconds.
@@ -166,4 +470,261 @@ public class GpioRestController {
     public boolean pulsePin(@PathVariable("address") long address, @PathVariable("duration") int duration) {
         return this.myGpioController.pulsePin((int) address, duration);
     }
+
+    /**
+     * Start a pulse on a pin.
+     *
+     * @param address The address of the GPIO pin.
+     * @param duration The duration in milliseconds.
+     * @return The pending pulse, its id can be used to cancel or extend it.
+     */
+    @LogExecutionTime(value = "/api/gpio/", valueType = "POST pulse/{address}/{duration}")
+    @PostMapping(path = "pulse/{address}/{duration}", produces = "application/json")
+    public PulseDTO startPulse(@PathVariable("address") long address, @PathVariable("duration") int duration) {
+        return toPulseDto(this.myGpioController.startPulse((int) address, duration));
+    }
+
+    /**
+     * Get the pulses in flight.
+     *
+     * @return {@link List} of {@link PulseDTO}.
+     */
+    @LogExecutionTime(value = "/api/gpio/", valueType = "GET pulse")
+    @GetMapping(path = "pulse", produces = "application/json")
+    public List<PulseDTO> getPendingPulses() {
+        final List<PulseDTO> pulses = new ArrayList<>();
+        for (final Pulse pulse : this.myGpioController.getPendingPulses()) {
+            pulses.add(toPulseDto(pulse));
+        }
+        return pulses;
+    }
+
+    /**
+     * Extend a pending pulse.
+     *
+     * @param id The id of the pulse.
+     * @param duration The additional duration in milliseconds.
+     * @return The extended pulse.
+     */
+    @LogExecutionTime(value = "/api/gpio/", valueType = "POST pulse/{id}/extend/{duration}")
+    @PostMapping(path = "pulse/{id}/extend/{duration}", produces = "application/json")
+    public PulseDTO extendPulse(@PathVariable("id") long id, @PathVariable("duration") int duration) {
+        return toPulseDto(this.myGpioController.extendPulse(id, duration));
+    }
+
+    /**
+     * Cancel a pending pulse, the pin is set low immediately.
+     *
+     * @param id The id of the pulse.
+     * @return True if the pulse was pending.
+     */
+    @LogExecutionTime(value = "/api/gpio/", valueType = "DELETE pulse/{id}")
+    @DeleteMapping(path = "pulse/{id}", produces = "application/json")
+    public boolean cancelPulse(@PathVariable("id") long id) {
+        return this.myGpioController.cancelPulse(id);
+    }
+
+    private PulseDTO toPulseDto(Pulse pulse) {
+        final PulseDTO pulseDTO = new PulseDTO();
+
+        pulseDTO.setId(pulse.getId());
+        pulseDTO.setAddress(pulse.getAddress());
+        pulseDTO.setStartedAt(pulse.getStartedAt());
+        pulseDTO.setRemainingMillis(pulse.getRemainingMillis());
+        return pulseDTO;
+    }
+
+    /**
+     * Upload a timed sequence of output writes, played on the device.
+     * <p>Each step writes a level on an output pin at an offset, in microseconds, from the start of the iteration.
+     * The sequence is played {@code repeat} times (0 until stopped), one iteration every {@code periodMicros}.</p>
+     *
+     * @param sequenceDTO The sequence.
+     * @return The status of the sequence, its id can be used to pause, resume or stop it.
+     */
+    @LogExecutionTime(value = "/api/gpio/", valueType = "POST sequence")
+    @PostMapping(path = "sequence", consumes = "application/json", produces = "application/json")
+    public SequenceStatusDTO startSequence(@RequestBody SequenceDTO sequenceDTO) {
+        if (sequenceDTO.getSteps() == null) {
+            throw new IllegalArgumentException("A sequence needs at least one step");
+        }
+
+        final List<SequenceStep> steps = new ArrayList<>(sequenceDTO.getSteps().size());
+        for (final SequenceStepDTO step : sequenceDTO.getSteps()) {
+            steps.add(new SequenceStep(step.getAddress(), step.getValue() == 1, step.getOffsetMicros()));
+        }
+        return toSequenceDto(this.myGpioController.startSequence(steps, sequenceDTO.getRepeat(),
+            sequenceDTO.getPeriodMicros()));
+    }
+
+    /**
+     * Get the running and recently ended sequences.
+     *
+     * @return {@link List} of {@link SequenceStatusDTO}.
+     */
+    @LogExecutionTime(value = "/api/gpio/", valueType = "GET sequence")
+    @GetMapping(path = "sequence", produces = "application/json")
+    public List<SequenceStatusDTO> getSequences() {
+        final List<SequenceStatusDTO> sequences = new ArrayList<>();
+        for (final Sequence sequence : this.myGpioController.getSequences()) {
+            sequences.add(toSequenceDto(sequence));
+        }
+        return sequences;
+    }
+
+    /**
+     * Get the status and the measured timing jitter of a sequence.
+     *
+     * @param id The id of the sequence.
+     * @return The {@link SequenceStatusDTO}.
+     */
+    @LogExecutionTime(value = "/api/gpio/", valueType = "GET sequence/{id}")
+    @GetMapping(path = "sequence/{id}", produces = "application/json")
+    public SequenceStatusDTO getSequence(@PathVariable("id") long id) {
+        return toSequenceDto(this.myGpioController.getSequence(id));
+    }
+
+    /**
+     * Pause a running sequence.
+     *
+     * @param id The id of the sequence.
+     * @return The {@link SequenceStatusDTO}.
+     */
+    @LogExecutionTime(value = "/api/gpio/", valueType = "POST sequence/{id}/pause")
+    @PostMapping(path = "sequence/{id}/pause", produces = "application/json")
+    public SequenceStatusDTO pauseSequence(@PathVariable("id") long id) {
+        return toSequenceDto(this.myGpioController.pauseSequence(id));
+    }
+
+    /**
+     * Resume a paused sequence.
+     *
+     * @param id The id of the sequence.
+     * @return The {@link SequenceStatusDTO}.
+     */
+    @LogExecutionTime(value = "/api/gpio/", valueType = "POST sequence/{id}/resume")
+    @PostMapping(path = "sequence/{id}/resume", produces = "application/json")
+    public SequenceStatusDTO resumeSequence(@PathVariable("id") long id) {
+        return toSequenceDto(this.myGpioController.resumeSequence(id));
+    }
+
+    /**
+     * Stop a sequence, the pins keep their current state.
+     *
+     * @param id The id of the sequence.
+     * @return True if the sequence was running or paused.
+     */
+    @LogExecutionTime(value = "/api/gpio/", valueType = "DELETE sequence/{id}")
+    @DeleteMapping(path = "sequence/{id}", produces = "application/json")
+    public boolean stopSequence(@PathVariable("id") long id) {
+        return this.myGpioController.stopSequence(id);
+    }
+
+    private SequenceStatusDTO toSequenceDto(Sequence sequence) {
+        final SequenceStatusDTO sequenceDTO = new SequenceStatusDTO();
+
+        sequenceDTO.setId(sequence.getId());
+        sequenceDTO.setStatus(sequence.getStatus());
+        sequenceDTO.setStartedAt(sequence.getStartedAt());
+        sequenceDTO.setEndedAt(sequence.getEndedAt());
+        sequenceDTO.setSteps(sequence.getStepCount());
+        sequenceDTO.setRepeat(sequence.getRepeat());
+        sequenceDTO.setPeriodMicros(sequence.getPeriodMicros());
+        sequenceDTO.setIterations(sequence.getIterations());
+        sequenceDTO.setStepsExecuted(sequence.getStepsExecuted());
+        sequenceDTO.setJitterMeanMicros(sequence.getJitterMeanMicros());
+        sequenceDTO.setJitterMaxMicros(sequence.getJitterMaxMicros());
+        sequenceDTO.setJitterP99Micros(sequence.getJitterP99Micros());
+        sequenceDTO.setError(sequence.getError());
+        return sequenceDTO;
+    }
+
+    /**
+     * Run an ordered list of pin operations in a single request.
+     * <p>Operations are executed in the given order; a failing operation is reported in its result and does not
+     * stop the following ones.</p>
+     *
+     * @param operations The operations to run.
+     * @return One result per operation and the elapsed time of the whole batch.
+     */
+    @LogExecutionTime(value = "/api/gpio/", valueType = "POST batch")
+    @PostMapping(path = "batch", consumes = "application/json", produces = "application/json")
+    public BatchResponseDTO executeBatch(@RequestBody List<BatchOperationDTO> operations) {
+        final List<BatchResultDTO> results = new ArrayList<>(operations.size());
+        int failed = 0;
+
+        final long start = System.nanoTime();
+        for (int index = 0; index < operations.size(); index++) {
+            final BatchResultDTO result = executeOperation(index, operations.get(index));
+            if (!result.isSuccess()) {
+                failed++;
+            }
+            results.add(result);
+        }
+        final long elapsed = System.nanoTime() - start;
+
+        final BatchResponseDTO response = new BatchResponseDTO();
+        response.setResults(results);
+        response.setSucceeded(results.size() - failed);
+        response.setFailed(failed);
+        response.setElapsedMicros(elapsed / 1000);
+        return response;
+    }
+
+    private BatchResultDTO executeOperation(int index, BatchOperationDTO operation) {
+        final BatchResultDTO result = new BatchResultDTO();
+        result.setIndex(index);
+        if (operation == null) {
+            result.setError("Missing operation");
+            return result;
+        }
+        result.setAddress(operation.getAddress());
+
+        try {
+            final BatchOperationType type = toOperationType(operation.getOp());
+            result.setOp(type);
+            switch (type) {
+                case SET:
+                    result.setSuccess(this.myGpioController.setPinDigitalState(
+                        require(operation.getAddress(), "address"), require(operation.getValue(), "value")));
+                    break;
+                case TOGGLE:
+                    result.setSuccess(this.myGpioController.togglePin(require(operation.getAddress(), "address")));
+                    break;
+                case PULSE:
+                    result.setValue(this.myGpioController.startPulse(
+                        require(operation.getAddress(), "address"), require(operation.getDuration(), "duration")).getId());
+                    result.setSuccess(true);
+                    break;
+                case READ:
+                    result.setValue(this.myGpioController.getState(require(operation.getAddress(), "address")).getValue());
+                    result.setSuccess(true);
+                    break;
+            }
+        } catch (RuntimeException ex) {
+            log.error("Batch operation {} failed: {}", index, ex.getMessage());
+
+            result.setSuccess(false);
+            result.setError(ex.getMessage() != null ? ex.getMessage() : ex.getClass().getSimpleName());
+        }
+        return result;
+    }
+
+    private static BatchOperationType toOperationType(String op) {
+        if (op == null) {
+            throw new IllegalArgumentException("Missing operation type");
+        }
+        try {
+            return BatchOperationType.valueOf(op.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException ex) {
+            throw new IllegalArgumentException("Unknown operation type: " + op);
+        }
+    }
+
+    private static int require(Integer field, String name) {
+        if (field == null) {
+            throw new IllegalArgumentException("Missing " + name);
+        }
+        return field;
+    }
 }
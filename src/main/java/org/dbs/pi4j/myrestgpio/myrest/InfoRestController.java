@@ -3,12 +3,17 @@ package org.dbs.pi4j.myrestgpio.myrest;
 import com.pi4j.platform.Platform;
 import lombok.extern.slf4j.Slf4j;
 import org.dbs.pi4j.myrestgpio.common.NetworkInfo;
+import org.dbs.pi4j.myrestgpio.common.SystemSampler;
+import org.dbs.pi4j.myrestgpio.common.SystemSnapshot;
 import org.dbs.pi4j.myrestgpio.mygpio.MyGpioController;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.CrossOrigin;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
+import java.util.List;
 import java.util.Map;
 import java.util.TreeMap;
 
@@ -24,9 +29,13 @@ import java.util.TreeMap;
 public class InfoRestController {
 
     private final MyGpioController myGpioController;
+    private final NetworkInfo networkInfo;
+    private final SystemSampler systemSampler;
 
-    public InfoRestController(MyGpioController myGpioController) {
+    public InfoRestController(MyGpioController myGpioController, NetworkInfo networkInfo, SystemSampler systemSampler) {
         this.myGpioController = myGpioController;
+        this.networkInfo = networkInfo;
+        this.systemSampler = systemSampler;
     }
 
     /**
@@ -56,35 +65,7 @@ public class InfoRestController {
      */
     @GetMapping(path = "os", produces = "application/json")
     public Map<String, String> getOsInfo() {
-        Map<String, String> map = new TreeMap<>();
-
-//        try {
-//            map.put("Name", myGpioController.getOsName());
-//        } catch (Exception ex) {
-//            log.error("OS name not available, error: {}", ex.getMessage());
-//        }
-//        try {
-//            map.put("Version", myGpioController.getOsVersion());
-//        } catch (Exception ex) {
-//            log.error("OS version not available, error: {}", ex.getMessage());
-//        }
-//        try {
-//            map.put("Architecture", myGpioController.getOsArch());
-//        } catch (Exception ex) {
-//            log.error("OS architecture not available, error: {}", ex.getMessage());
-//        }
-//        try {
-//            map.put("FirmwareBuild", myGpioController.getOsFirmwareBuild());
-//        } catch (Exception ex) {
-//            log.error("OS firmware build not available, error: {}", ex.getMessage());
-//        }
-//        try {
-//            map.put("FirmwareDate", myGpioController.getOsFirmwareDate());
-//        } catch (Exception ex) {
-//            log.error("OS firmware date not available, error: {}", ex.getMessage());
-//        }
-
-        return map;
+        return systemSampler.getOsInfo();
     }
 
     /**
@@ -94,15 +75,46 @@ public class InfoRestController {
     public Map<String, String> getJavaInfo() {
         Map<String, String> map = new TreeMap<>();
 
-//        map.put("Vendor ", myGpioController.getJavaVendor());
-//        map.put("VendorURL", myGpioController.getJavaVendorUrl());
-//        map.put("Version", myGpioController.getJavaVersion());
-//        map.put("VM", myGpioController.getJavaVirtualMachine());
-//        map.put("Runtime", myGpioController.getJavaRuntime());
+        map.put("Vendor", System.getProperty("java.vendor"));
+        map.put("VendorURL", System.getProperty("java.vendor.url"));
+        map.put("Version", System.getProperty("java.version"));
+        map.put("VM", System.getProperty("java.vm.name"));
+        map.put("Runtime", System.getProperty("java.runtime.name"));
+
+        SystemSnapshot snapshot = systemSampler.getLatest();
+        if (snapshot != null) {
+            map.put("HeapUsed", String.valueOf(snapshot.getHeapUsed()));
+            map.put("HeapCommitted", String.valueOf(snapshot.getHeapCommitted()));
+            map.put("HeapMax", String.valueOf(snapshot.getHeapMax()));
+            map.put("NonHeapUsed", String.valueOf(snapshot.getNonHeapUsed()));
+            map.put("Threads", String.valueOf(snapshot.getThreadCount()));
+            map.put("GcCount", String.valueOf(snapshot.getGcCount()));
+            map.put("GcTime", String.valueOf(snapshot.getGcTimeMs()));
+            map.put("Uptime", String.valueOf(snapshot.getUptimeMs()));
+        }
 
         return map;
     }
 
+    /**
+     * Get the latest system telemetry: load, CPU, memory, temperature, throttling and JVM.
+     */
+    @GetMapping(path = "system", produces = "application/json")
+    public ResponseEntity<SystemSnapshot> getSystem() {
+        SystemSnapshot snapshot = systemSampler.getLatest();
+        return snapshot == null ? ResponseEntity.noContent().build() : ResponseEntity.ok(snapshot);
+    }
+
+    /**
+     * Get the recent system telemetry, oldest first.
+     *
+     * @param since Only the samples taken after this time, in milliseconds since the epoch.
+     */
+    @GetMapping(path = "system/history", produces = "application/json")
+    public List<SystemSnapshot> getSystemHistory(@RequestParam(name = "since", defaultValue = "0") long since) {
+        return systemSampler.getHistory(since);
+    }
+
     /**
      * Get the network info.
      */
@@ -113,13 +125,13 @@ public class InfoRestController {
         int counter = 0;
 
         try {
-            map.put("Hostname", NetworkInfo.getHostname());
+            map.put("Hostname", networkInfo.getHostname());
         } catch (Exception ex) {
             log.error("Network hostname not available, error: {}", ex.getMessage());
         }
 
         try {
-            for (String ipAddress : NetworkInfo.getIPAddresses()) {
+            for (String ipAddress : networkInfo.getIPAddresses()) {
                 map.put("IpAddress" + (counter++), ipAddress);
             }
         } catch (Exception ex) {
@@ -128,7 +140,7 @@ public class InfoRestController {
 
         try {
             counter = 0;
-            for (String fqdn : NetworkInfo.getFQDNs()) {
+            for (String fqdn : networkInfo.getFQDNs()) {
                 map.put("FQDN" + (counter++), fqdn);
             }
         } catch (Exception ex) {
@@ -137,7 +149,7 @@ public class InfoRestController {
 
         try {
             counter = 0;
-            for (String nameserver : NetworkInfo.getNameservers()) {
+            for (String nameserver : networkInfo.getNameservers()) {
                 map.put("Nameserver" + (counter++), nameserver);
             }
         } catch (Exception ex) {
@@ -0,0 +1,114 @@
+package org.dbs.pi4j.myrestgpio.myrest;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.dbs.pi4j.myrestgpio.mygpio.MyGpioController;
+import org.dbs.pi4j.myrestgpio.mygpio.PinHandle;
+import org.dbs.pi4j.myrestgpio.myrest.dto.PinDTO;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Immutable, serialized view of the provisioned pins, rebuilt only when the provision version moves.
+ * <p>The snapshot is rebuilt lazily by the first request which sees a newer version, every other request gets the
+ * cached JSON document and its ETag.</p>
+ */
+@Component
+@Slf4j
+public class ProvisionListSnapshot {
+
+    private final MyGpioController myGpioController;
+    private final ObjectMapper objectMapper;
+
+    private volatile Snapshot current = new Snapshot(-1, Collections.emptyList(), new byte[0]);
+
+    public ProvisionListSnapshot(MyGpioController myGpioController, ObjectMapper objectMapper) {
+        this.myGpioController = myGpioController;
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * @return The snapshot of the current version.
+     */
+    public Snapshot get() {
+        final Snapshot snapshot = current;
+        if (snapshot.getVersion() == myGpioController.getProvisionVersion()) {
+            return snapshot;
+        }
+
+        synchronized (this) {
+            final long version = myGpioController.getProvisionVersion();
+            if (current.getVersion() != version) {
+                final List<PinDTO> pins = buildPins(myGpioController.getProvisionedPins(), Long.MIN_VALUE);
+                current = new Snapshot(version, Collections.unmodifiableList(pins), serialize(pins));
+                log.debug("Provision list snapshot rebuilt for version {}", version);
+            }
+            return current;
+        }
+    }
+
+    /**
+     * Build the list of the pins changed since the given version.
+     *
+     * @param since The version known by the client.
+     * @return The serialized list of the changed pins.
+     */
+    public byte[] getChangedSince(long since) {
+        return serialize(buildPins(myGpioController.getProvisionedPins(), since));
+    }
+
+    private List<PinDTO> buildPins(List<PinHandle> handles, long since) {
+        final List<PinDTO> pins = new ArrayList<>(handles.size());
+
+        for (final PinHandle pin : handles) {
+            if (pin.getVersion() > since) {
+                pins.add(toPinDto(pin));
+            }
+        }
+        return pins;
+    }
+
+    private static PinDTO toPinDto(PinHandle pin) {
+        final PinDTO pinDTO = new PinDTO();
+
+        pinDTO.setAddress(pin.getAddress());
+        pinDTO.setType(pin.getIo().getClass().getName());
+        pinDTO.setName(pin.getIo().getName());
+        pinDTO.setPinName(pin.getIo().getId());
+        pinDTO.setMode(pin.getIo().type().name());
+        pinDTO.setState(pin.getValue(false));
+        pinDTO.setLastChanged(pin.getLastChanged());
+        pinDTO.setVersion(pin.getVersion());
+
+        pinDTO.setGlobalName("ProvisionedPin_" + pin.getAddress());
+        return pinDTO;
+    }
+
+    private byte[] serialize(List<PinDTO> pins) {
+        try {
+            return objectMapper.writeValueAsBytes(pins);
+        } catch (JsonProcessingException ex) {
+            throw new IllegalStateException("Unable to serialize the provision list", ex);
+        }
+    }
+
+    @Getter
+    public static class Snapshot {
+        private final long version;
+        private final List<PinDTO> pins;
+        private final byte[] json;
+        private final String etag;
+
+        Snapshot(long version, List<PinDTO> pins, byte[] json) {
+            this.version = version;
+            this.pins = pins;
+            this.json = json;
+            this.etag = "\"" + version + "\"";
+        }
+    }
+}
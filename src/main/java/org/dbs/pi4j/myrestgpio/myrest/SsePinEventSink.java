@@ -0,0 +1,39 @@
+package org.dbs.pi4j.myrestgpio.myrest;
+
+import org.dbs.pi4j.myrestgpio.mygpio.PinEvent;
+import org.dbs.pi4j.myrestgpio.mygpio.PinEventSink;
+import org.springframework.http.MediaType;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+
+/**
+ * {@link PinEventSink} writing the events as Server-Sent Events, the event id being the sequence number so that
+ * browsers resume with the {@code Last-Event-ID} header when they reconnect.
+ */
+class SsePinEventSink implements PinEventSink {
+
+    private final SseEmitter emitter;
+
+    SsePinEventSink(SseEmitter emitter) {
+        this.emitter = emitter;
+    }
+
+    @Override
+    public void send(PinEvent event) throws IOException {
+        emitter.send(SseEmitter.event()
+            .id(String.valueOf(event.getSeq()))
+            .name("state")
+            .data(event, MediaType.APPLICATION_JSON));
+    }
+
+    @Override
+    public void heartbeat() throws IOException {
+        emitter.send(SseEmitter.event().comment("keep-alive"));
+    }
+
+    @Override
+    public void close() {
+        emitter.complete();
+    }
+}
@@ -0,0 +1,12 @@
+package org.dbs.pi4j.myrestgpio.myrest.dto;
+
+import lombok.Data;
+
+@Data
+public class BatchOperationDTO {
+    /** The {@link BatchOperationType}, kept as text so that an unknown type only fails its own operation. */
+    private String op;
+    private Integer address;
+    private Integer value;
+    private Integer duration;
+}
@@ -0,0 +1,11 @@
+package org.dbs.pi4j.myrestgpio.myrest.dto;
+
+/**
+ * Kind of operation accepted by the batch endpoint.
+ */
+public enum BatchOperationType {
+    SET,
+    TOGGLE,
+    PULSE,
+    READ
+}
@@ -0,0 +1,13 @@
+package org.dbs.pi4j.myrestgpio.myrest.dto;
+
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+public class BatchResponseDTO {
+    private List<BatchResultDTO> results;
+    private int succeeded;
+    private int failed;
+    private long elapsedMicros;
+}
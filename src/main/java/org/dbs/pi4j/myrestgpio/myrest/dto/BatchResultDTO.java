@@ -0,0 +1,13 @@
+package org.dbs.pi4j.myrestgpio.myrest.dto;
+
+import lombok.Data;
+
+@Data
+public class BatchResultDTO {
+    private int index;
+    private BatchOperationType op;
+    private Integer address;
+    private boolean success;
+    private Number value;
+    private String error;
+}
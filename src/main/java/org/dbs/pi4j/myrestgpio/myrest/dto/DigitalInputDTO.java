@@ -0,0 +1,19 @@
+package org.dbs.pi4j.myrestgpio.myrest.dto;
+
+import lombok.Data;
+
+@Data
+public class DigitalInputDTO {
+    /** UP, DOWN or OFF, DOWN when not set. */
+    private String pull;
+    /** Debounce of the provider in microseconds, 3000 when not set, 0 when counting. */
+    private Long debounce;
+    /** RISING, FALLING or BOTH to count the edges instead of publishing the changes. */
+    private String count;
+    /** Changes lasting less than this many microseconds are dropped. */
+    private long glitch;
+    /** Odd number of reads confirming a change. */
+    private int majority;
+    /** Minimum time in microseconds a state is held before the next change. */
+    private long dwell;
+}
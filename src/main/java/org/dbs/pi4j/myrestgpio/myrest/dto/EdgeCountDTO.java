@@ -0,0 +1,17 @@
+package org.dbs.pi4j.myrestgpio.myrest.dto;
+
+import lombok.Data;
+
+@Data
+public class EdgeCountDTO {
+    private int address;
+    private String mode;
+    private long count;
+    private long rising;
+    private long falling;
+    private long total;
+    private double rate1s;
+    private double rate10s;
+    private double rate60s;
+    private long since;
+}
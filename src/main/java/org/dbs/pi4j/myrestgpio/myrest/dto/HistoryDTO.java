@@ -0,0 +1,16 @@
+package org.dbs.pi4j.myrestgpio.myrest.dto;
+
+import lombok.Data;
+
+@Data
+public class HistoryDTO {
+    private int address;
+    private String kind;
+    private long fromMicros;
+    private long toMicros;
+    private Double initialValue;
+    private long[] timestamps;
+    private double[] values;
+    private boolean more;
+    private boolean truncated;
+}
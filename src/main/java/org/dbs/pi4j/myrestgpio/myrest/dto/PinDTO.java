@@ -11,4 +11,6 @@ public class PinDTO {
     private String pinName;
     private String mode;
     private Number state;
+    private long lastChanged;
+    private long version;
 }
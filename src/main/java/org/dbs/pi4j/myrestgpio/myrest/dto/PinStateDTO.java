@@ -0,0 +1,10 @@
+package org.dbs.pi4j.myrestgpio.myrest.dto;
+
+import lombok.Data;
+
+@Data
+public class PinStateDTO {
+    private int address;
+    private Number state;
+    private long lastChanged;
+}
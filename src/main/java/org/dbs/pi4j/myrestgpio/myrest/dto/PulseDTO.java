@@ -0,0 +1,11 @@
+package org.dbs.pi4j.myrestgpio.myrest.dto;
+
+import lombok.Data;
+
+@Data
+public class PulseDTO {
+    private long id;
+    private int address;
+    private long startedAt;
+    private long remainingMillis;
+}
@@ -0,0 +1,14 @@
+package org.dbs.pi4j.myrestgpio.myrest.dto;
+
+import lombok.Data;
+
+@Data
+public class PwmDTO {
+    private int address;
+    private String type;
+    private float dutyCycle;
+    private int frequency;
+    private long lastChanged;
+    private Float rampTarget;
+    private Float rampProgress;
+}
@@ -0,0 +1,12 @@
+package org.dbs.pi4j.myrestgpio.myrest.dto;
+
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+public class SequenceDTO {
+    private List<SequenceStepDTO> steps;
+    private int repeat = 1;
+    private long periodMicros;
+}
@@ -0,0 +1,21 @@
+package org.dbs.pi4j.myrestgpio.myrest.dto;
+
+import lombok.Data;
+import org.dbs.pi4j.myrestgpio.mygpio.SequenceStatus;
+
+@Data
+public class SequenceStatusDTO {
+    private long id;
+    private SequenceStatus status;
+    private long startedAt;
+    private long endedAt;
+    private int steps;
+    private int repeat;
+    private long periodMicros;
+    private long iterations;
+    private long stepsExecuted;
+    private double jitterMeanMicros;
+    private double jitterMaxMicros;
+    private long jitterP99Micros;
+    private String error;
+}
@@ -0,0 +1,10 @@
+package org.dbs.pi4j.myrestgpio.myrest.dto;
+
+import lombok.Data;
+
+@Data
+public class SequenceStepDTO {
+    private int address;
+    private int value;
+    private long offsetMicros;
+}
@@ -0,0 +1,159 @@
+package org.dbs.pi4j.myrestgpio.myudp;
+
+import lombok.Getter;
+import org.dbs.pi4j.myrestgpio.mygpio.MyGpioController;
+
+import java.nio.ByteBuffer;
+
+import static org.dbs.pi4j.myrestgpio.myudp.UdpProtocol.*;
+
+/**
+ * Decodes the UDP command packets, see {@link UdpProtocol}, and runs them on the {@link MyGpioController}.
+ * <p>Called from a single receiving thread. Nothing is allocated per packet: the last sequence number of each sender
+ * is kept in primitive arrays, scanned linearly since a rig has a few senders.</p>
+ */
+public class UdpCommandHandler {
+
+    private final MyGpioController myGpioController;
+    private final long senderTimeoutNanos;
+
+    private final int[] senders;
+    private final int[] lastSeqs;
+    private final long[] lastSeens;
+    private int senderCount;
+
+    // Written by the receiving thread only, read by the metrics
+    @Getter
+    private volatile long packets;
+    @Getter
+    private volatile long commands;
+    @Getter
+    private volatile long errors;
+    @Getter
+    private volatile long stale;
+    @Getter
+    private volatile long malformed;
+    @Getter
+    private volatile long notReady;
+
+    public UdpCommandHandler(MyGpioController myGpioController, int maxSenders, long senderTimeoutNanos) {
+        this.myGpioController = myGpioController;
+        this.senderTimeoutNanos = senderTimeoutNanos;
+        this.senders = new int[Math.max(1, maxSenders)];
+        this.lastSeqs = new int[senders.length];
+        this.lastSeens = new long[senders.length];
+    }
+
+    /**
+     * Run the commands of a packet.
+     *
+     * @param packet The packet, between its position and its limit.
+     * @param reply Receives the reply, flipped; empty if no reply is due.
+     * @return The number of commands run, -1 if the packet was dropped.
+     */
+    public int handle(final ByteBuffer packet, final ByteBuffer reply) {
+        reply.clear().limit(0);
+        packets++;
+
+        final int start = packet.position();
+        final int length = packet.remaining();
+        if (length < HEADER_SIZE || packet.getShort(start) != MAGIC || packet.get(start + 2) != VERSION) {
+            malformed++;
+            return -1;
+        }
+        final int flags = packet.get(start + 3);
+        final int sender = packet.getInt(start + 4);
+        final int seq = packet.getInt(start + 8);
+        final int count = packet.get(start + 12) & 0xFF;
+        if ((flags & FLAG_REPLY) != 0 || length < HEADER_SIZE + count * COMMAND_SIZE) {
+            malformed++;
+            return -1;
+        }
+        if (!myGpioController.isReady()) {
+            notReady++;
+            return -1;
+        }
+        if (!accept(sender, seq, System.nanoTime())) {
+            stale++;
+            return -1;
+        }
+
+        final boolean ack = (flags & FLAG_ACK) != 0;
+        if (ack) {
+            reply.limit(reply.capacity());
+            putHeader(reply, FLAG_REPLY, sender, seq, count);
+        }
+        int offset = start + HEADER_SIZE;
+        for (int index = 0; index < count; index++, offset += COMMAND_SIZE) {
+            final byte status = execute(packet.get(offset), packet.get(offset + 1) & 0xFF,
+                packet.getShort(offset + 2) & 0xFFFF);
+            if (ack) {
+                reply.put(status);
+            }
+        }
+        commands += count;
+        if (ack) {
+            reply.flip();
+        }
+        return count;
+    }
+
+    private byte execute(final byte operation, final int address, final int value) {
+        try {
+            switch (operation) {
+                case OP_SET:
+                    myGpioController.setPinDigitalState(address, value);
+                    return STATUS_OK;
+                case OP_TOGGLE:
+                    myGpioController.togglePin(address);
+                    return STATUS_OK;
+                case OP_PULSE:
+                    myGpioController.startPulse(address, value);
+                    return STATUS_OK;
+                case OP_PWM_DUTY:
+                    myGpioController.setPwmDutyCycle(address, value / 100f);
+                    return STATUS_OK;
+                default:
+                    errors++;
+                    return STATUS_UNKNOWN_OPERATION;
+            }
+        } catch (RuntimeException ex) {
+            errors++;
+            return STATUS_ERROR;
+        }
+    }
+
+    /**
+     * @return True if the sequence number is after the last one of the sender, or if the sender was silent long enough
+     * to have restarted.
+     */
+    private boolean accept(final int sender, final int seq, final long now) {
+        int slot = -1;
+        for (int index = 0; index < senderCount; index++) {
+            if (senders[index] == sender) {
+                slot = index;
+                break;
+            }
+        }
+        if (slot >= 0 && seq - lastSeqs[slot] <= 0 && now - lastSeens[slot] < senderTimeoutNanos) {
+            return false;
+        }
+        if (slot < 0) {
+            slot = senderCount < senders.length ? senderCount++ : oldestSender();
+            senders[slot] = sender;
+        }
+        lastSeqs[slot] = seq;
+        lastSeens[slot] = now;
+        return true;
+    }
+
+    private int oldestSender() {
+        int oldest = 0;
+        for (int index = 1; index < senderCount; index++) {
+            if (lastSeens[index] - lastSeens[oldest] < 0) {
+                oldest = index;
+            }
+        }
+        return oldest;
+    }
+}
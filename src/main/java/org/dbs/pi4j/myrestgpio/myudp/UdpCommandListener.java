@@ -0,0 +1,141 @@
+package org.dbs.pi4j.myrestgpio.myudp;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.dbs.pi4j.myrestgpio.configuration.UdpProperties;
+import org.dbs.pi4j.myrestgpio.mygpio.MyGpioController;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PreDestroy;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.NetworkInterface;
+import java.net.SocketAddress;
+import java.net.SocketException;
+import java.net.StandardProtocolFamily;
+import java.net.StandardSocketOptions;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.DatagramChannel;
+import java.util.Enumeration;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * Receives the UDP commands of the lighting rigs, see {@link UdpProtocol}, when {@code gpio.udp.enabled} is set.
+ * <p>One {@code gpio-udp} thread receives the packets in a blocking {@link DatagramChannel}, into a direct buffer
+ * reused for every packet, and runs them through the {@link UdpCommandHandler}. With {@code gpio.udp.multicast-group}
+ * the boards of a rig join the same group, so that a single packet switches the outputs of all of them.</p>
+ */
+@Component
+@ConditionalOnProperty(prefix = "gpio.udp", name = "enabled", havingValue = "true")
+@Slf4j
+public class UdpCommandListener {
+
+    private final DatagramChannel channel;
+    private final UdpCommandHandler handler;
+    private final Thread receiver;
+
+    public UdpCommandListener(UdpProperties properties, MyGpioController myGpioController, MeterRegistry meterRegistry)
+        throws IOException {
+        this.handler = new UdpCommandHandler(myGpioController, properties.getMaxSenders(),
+            properties.getSenderTimeout().toNanos());
+        this.channel = open(properties);
+
+        register(meterRegistry, "gpio.udp.packets", UdpCommandHandler::getPackets);
+        register(meterRegistry, "gpio.udp.commands", UdpCommandHandler::getCommands);
+        register(meterRegistry, "gpio.udp.errors", UdpCommandHandler::getErrors);
+        FunctionCounter.builder("gpio.udp.dropped", handler, UdpCommandHandler::getStale).tag("reason", "stale")
+            .register(meterRegistry);
+        FunctionCounter.builder("gpio.udp.dropped", handler, UdpCommandHandler::getMalformed).tag("reason", "malformed")
+            .register(meterRegistry);
+        FunctionCounter.builder("gpio.udp.dropped", handler, UdpCommandHandler::getNotReady).tag("reason", "not-ready")
+            .register(meterRegistry);
+
+        this.receiver = new Thread(this::receive, "gpio-udp");
+        this.receiver.setDaemon(true);
+        this.receiver.setPriority(Thread.MAX_PRIORITY);
+        this.receiver.start();
+        log.info("Listening for UDP commands on port {}", getLocalPort());
+    }
+
+    private void register(MeterRegistry meterRegistry, String name, ToDoubleFunction<UdpCommandHandler> counter) {
+        FunctionCounter.builder(name, handler, counter).register(meterRegistry);
+    }
+
+    private static DatagramChannel open(UdpProperties properties) throws IOException {
+        final DatagramChannel channel = DatagramChannel.open(StandardProtocolFamily.INET);
+        try {
+            channel.setOption(StandardSocketOptions.SO_REUSEADDR, true);
+            channel.setOption(StandardSocketOptions.SO_RCVBUF, properties.getReceiveBufferSize());
+            channel.bind(new InetSocketAddress(properties.getPort()));
+            if (properties.getMulticastGroup() != null && !properties.getMulticastGroup().isEmpty()) {
+                final InetAddress group = InetAddress.getByName(properties.getMulticastGroup());
+                final NetworkInterface networkInterface = multicastInterface(properties.getMulticastInterface());
+                channel.join(group, networkInterface);
+                log.info("Joined the multicast group {} on {}", group.getHostAddress(), networkInterface.getName());
+            }
+            return channel;
+        } catch (IOException | RuntimeException ex) {
+            channel.close();
+            throw ex;
+        }
+    }
+
+    private static NetworkInterface multicastInterface(String name) throws SocketException {
+        if (name != null && !name.isEmpty()) {
+            final NetworkInterface networkInterface = NetworkInterface.getByName(name);
+            if (networkInterface == null) {
+                throw new IllegalArgumentException("No network interface named " + name);
+            }
+            return networkInterface;
+        }
+        final Enumeration<NetworkInterface> interfaces = NetworkInterface.getNetworkInterfaces();
+        while (interfaces.hasMoreElements()) {
+            final NetworkInterface networkInterface = interfaces.nextElement();
+            if (networkInterface.isUp() && networkInterface.supportsMulticast() && !networkInterface.isLoopback()) {
+                return networkInterface;
+            }
+        }
+        throw new IllegalArgumentException("No multicast capable network interface, set gpio.udp.multicast-interface");
+    }
+
+    /**
+     * @return The local UDP port, useful when {@code gpio.udp.port} is 0.
+     */
+    public int getLocalPort() {
+        try {
+            return ((InetSocketAddress) channel.getLocalAddress()).getPort();
+        } catch (IOException ex) {
+            return -1;
+        }
+    }
+
+    private void receive() {
+        final ByteBuffer packet = ByteBuffer.allocateDirect(UdpProtocol.MAX_PACKET_SIZE);
+        final ByteBuffer reply = ByteBuffer.allocateDirect(UdpProtocol.HEADER_SIZE + UdpProtocol.MAX_COMMANDS);
+        while (channel.isOpen()) {
+            try {
+                packet.clear();
+                final SocketAddress source = channel.receive(packet);
+                packet.flip();
+                handler.handle(packet, reply);
+                if (reply.hasRemaining()) {
+                    channel.send(reply, source);
+                }
+            } catch (ClosedChannelException ex) {
+                break;
+            } catch (IOException | RuntimeException ex) {
+                log.warn("UDP command failed: {}", ex.getMessage());
+            }
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() throws IOException, InterruptedException {
+        channel.close();
+        receiver.join(1000);
+    }
+}
@@ -0,0 +1,76 @@
+package org.dbs.pi4j.myrestgpio.myudp;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Binary format of the UDP commands, all numbers big-endian.
+ * <pre>
+ * offset size
+ *  0     2    magic 0x4750 ("GP")
+ *  2     1    version, 1
+ *  3     1    flags, {@link #FLAG_ACK} to get a reply
+ *  4     4    sender id, chosen by the sender
+ *  8     4    sequence number, incremented by the sender for each packet
+ * 12     1    number of commands, at most {@link #MAX_COMMANDS}
+ * 13     4*n  commands: operation (1), address (1), value (2, unsigned)
+ * </pre>
+ * <p>Operations: {@link #OP_SET} with 0 or 1, {@link #OP_TOGGLE}, {@link #OP_PULSE} with a duration in milliseconds,
+ * {@link #OP_PWM_DUTY} with a duty cycle in hundredths of percent. A packet whose sequence number is not after the
+ * last one received from the same sender is dropped as stale or duplicate; the commands of a packet are run in order.
+ * </p>
+ * <p>The reply has the same header with {@link #FLAG_REPLY}, followed by one status byte per command:
+ * {@link #STATUS_OK}, {@link #STATUS_ERROR} or {@link #STATUS_UNKNOWN_OPERATION}.</p>
+ */
+public final class UdpProtocol {
+
+    public static final short MAGIC = 0x4750;
+    public static final byte VERSION = 1;
+
+    public static final int FLAG_ACK = 0x01;
+    public static final int FLAG_REPLY = 0x80;
+
+    public static final byte OP_SET = 1;
+    public static final byte OP_TOGGLE = 2;
+    public static final byte OP_PULSE = 3;
+    public static final byte OP_PWM_DUTY = 4;
+
+    public static final byte STATUS_OK = 0;
+    public static final byte STATUS_ERROR = 1;
+    public static final byte STATUS_UNKNOWN_OPERATION = 2;
+
+    public static final int HEADER_SIZE = 13;
+    public static final int COMMAND_SIZE = 4;
+    public static final int MAX_COMMANDS = 255;
+    public static final int MAX_PACKET_SIZE = HEADER_SIZE + MAX_COMMANDS * COMMAND_SIZE;
+
+    private UdpProtocol() {
+    }
+
+    /**
+     * Write the header of a packet.
+     *
+     * @param buffer The buffer, positioned at the start of the packet.
+     * @param flags The flags.
+     * @param senderId The id of the sender.
+     * @param seq The sequence number.
+     * @param count The number of commands or statuses following.
+     */
+    public static void putHeader(ByteBuffer buffer, int flags, int senderId, int seq, int count) {
+        if (count < 0 || count > MAX_COMMANDS) {
+            throw new IllegalArgumentException("A packet holds at most " + MAX_COMMANDS + " commands");
+        }
+        buffer.putShort(MAGIC).put(VERSION).put((byte) flags).putInt(senderId).putInt(seq).put((byte) count);
+    }
+
+    /**
+     * Write a command after the header.
+     *
+     * @param buffer The buffer.
+     * @param operation The operation.
+     * @param address The address of the GPIO pin.
+     * @param value The value, 0 to 65535.
+     */
+    public static void putCommand(ByteBuffer buffer, byte operation, int address, int value) {
+        buffer.put(operation).put((byte) address).putShort((short) value);
+    }
+}
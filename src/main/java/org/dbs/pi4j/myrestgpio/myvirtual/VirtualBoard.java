@@ -0,0 +1,94 @@
+package org.dbs.pi4j.myrestgpio.myvirtual;
+
+import com.pi4j.io.gpio.digital.DigitalState;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * The in-memory pins of the virtual backend.
+ * <p>Each address holds a level, written by the virtual outputs and by the scripted signals, and read by the virtual
+ * inputs. A change of level at the address of a provisioned input is dispatched to its listeners on the calling
+ * thread. Every call from a virtual pin costs the configured artificial latency, like a native call.</p>
+ */
+public class VirtualBoard {
+
+    public static final int ADDRESS_SPACE = 64;
+
+    private static final long SPIN_NANOS = 50_000;
+
+    private final long latencyNanos;
+    private final AtomicIntegerArray levels = new AtomicIntegerArray(ADDRESS_SPACE);
+    private final AtomicReferenceArray<VirtualDigitalInput> inputs = new AtomicReferenceArray<>(ADDRESS_SPACE);
+
+    public VirtualBoard(Duration latency) {
+        this.latencyNanos = latency.toNanos();
+    }
+
+    /**
+     * Wait for the artificial latency of a native call.
+     */
+    void nativeCall() {
+        if (latencyNanos <= 0) {
+            return;
+        }
+        final long deadline = System.nanoTime() + latencyNanos;
+        if (latencyNanos > SPIN_NANOS) {
+            LockSupport.parkNanos(latencyNanos - SPIN_NANOS);
+        }
+        while (System.nanoTime() < deadline) {
+            Thread.onSpinWait();
+        }
+    }
+
+    /**
+     * @param address The address of the pin.
+     * @return The level of the pin.
+     */
+    public DigitalState read(final int address) {
+        return DigitalState.getState(levels.get(checkAddress(address)));
+    }
+
+    /**
+     * Drive the level of a pin, as an external signal would.
+     *
+     * @param address The address of the pin.
+     * @param state The new level.
+     */
+    public void drive(final int address, final DigitalState state) {
+        final int value = state.isHigh() ? 1 : 0;
+        if (levels.getAndSet(checkAddress(address), value) == value) {
+            return;
+        }
+        final VirtualDigitalInput input = inputs.get(address);
+        if (input != null) {
+            input.onLevel(state);
+        }
+    }
+
+    /**
+     * Toggle the level of a pin.
+     *
+     * @param address The address of the pin.
+     */
+    public void toggle(final int address) {
+        drive(address, read(address).isHigh() ? DigitalState.LOW : DigitalState.HIGH);
+    }
+
+    void attach(VirtualDigitalInput input) {
+        inputs.set(checkAddress(input.address().intValue()), input);
+    }
+
+    void detach(VirtualDigitalInput input) {
+        inputs.compareAndSet(input.address().intValue(), input, null);
+    }
+
+    private static int checkAddress(int address) {
+        if (address < 0 || address >= ADDRESS_SPACE) {
+            throw new IllegalArgumentException("The address must be between 0 and " + (ADDRESS_SPACE - 1));
+        }
+        return address;
+    }
+}
@@ -0,0 +1,48 @@
+package org.dbs.pi4j.myrestgpio.myvirtual;
+
+import com.pi4j.context.Context;
+import com.pi4j.exception.InitializeException;
+import com.pi4j.exception.ShutdownException;
+import com.pi4j.io.gpio.digital.DigitalInput;
+import com.pi4j.io.gpio.digital.DigitalInputBase;
+import com.pi4j.io.gpio.digital.DigitalInputConfig;
+import com.pi4j.io.gpio.digital.DigitalInputProvider;
+import com.pi4j.io.gpio.digital.DigitalState;
+import com.pi4j.io.gpio.digital.DigitalStateChangeEvent;
+
+/**
+ * Digital input reading the level of its address on the {@link VirtualBoard}; the changes of level are dispatched to
+ * its listeners. The pull resistance and the debounce of the configuration are ignored.
+ */
+public class VirtualDigitalInput extends DigitalInputBase {
+
+    private final VirtualBoard board;
+
+    public VirtualDigitalInput(VirtualBoard board, DigitalInputProvider provider, DigitalInputConfig config) {
+        super(provider, config);
+        this.board = board;
+    }
+
+    @Override
+    public DigitalInput initialize(Context context) throws InitializeException {
+        super.initialize(context);
+        board.attach(this);
+        return this;
+    }
+
+    @Override
+    public DigitalInput shutdown(Context context) throws ShutdownException {
+        board.detach(this);
+        return super.shutdown(context);
+    }
+
+    @Override
+    public DigitalState state() {
+        board.nativeCall();
+        return board.read(address().intValue());
+    }
+
+    void onLevel(DigitalState state) {
+        dispatch(new DigitalStateChangeEvent<>(this, state));
+    }
+}
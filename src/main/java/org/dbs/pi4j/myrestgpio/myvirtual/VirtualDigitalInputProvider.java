@@ -0,0 +1,25 @@
+package org.dbs.pi4j.myrestgpio.myvirtual;
+
+import com.pi4j.io.gpio.digital.DigitalInput;
+import com.pi4j.io.gpio.digital.DigitalInputConfig;
+import com.pi4j.io.gpio.digital.DigitalInputProviderBase;
+
+/**
+ * Provider of the {@link VirtualDigitalInput}s.
+ */
+public class VirtualDigitalInputProvider extends DigitalInputProviderBase {
+
+    public static final String ID = "virtual-digital-input";
+
+    private final VirtualBoard board;
+
+    public VirtualDigitalInputProvider(VirtualBoard board) {
+        super(ID, "Virtual Digital Input");
+        this.board = board;
+    }
+
+    @Override
+    public DigitalInput create(DigitalInputConfig config) {
+        return new VirtualDigitalInput(board, this, config);
+    }
+}
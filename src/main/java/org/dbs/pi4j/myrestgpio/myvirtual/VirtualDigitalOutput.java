@@ -0,0 +1,27 @@
+package org.dbs.pi4j.myrestgpio.myvirtual;
+
+import com.pi4j.io.gpio.digital.DigitalOutput;
+import com.pi4j.io.gpio.digital.DigitalOutputBase;
+import com.pi4j.io.gpio.digital.DigitalOutputConfig;
+import com.pi4j.io.gpio.digital.DigitalOutputProvider;
+import com.pi4j.io.gpio.digital.DigitalState;
+
+/**
+ * Digital output writing the level of its address on the {@link VirtualBoard}.
+ */
+public class VirtualDigitalOutput extends DigitalOutputBase {
+
+    private final VirtualBoard board;
+
+    public VirtualDigitalOutput(VirtualBoard board, DigitalOutputProvider provider, DigitalOutputConfig config) {
+        super(provider, config);
+        this.board = board;
+    }
+
+    @Override
+    public DigitalOutput state(DigitalState state) {
+        board.nativeCall();
+        board.drive(address().intValue(), state);
+        return super.state(state);
+    }
+}
@@ -0,0 +1,25 @@
+package org.dbs.pi4j.myrestgpio.myvirtual;
+
+import com.pi4j.io.gpio.digital.DigitalOutput;
+import com.pi4j.io.gpio.digital.DigitalOutputConfig;
+import com.pi4j.io.gpio.digital.DigitalOutputProviderBase;
+
+/**
+ * Provider of the {@link VirtualDigitalOutput}s.
+ */
+public class VirtualDigitalOutputProvider extends DigitalOutputProviderBase {
+
+    public static final String ID = "virtual-digital-output";
+
+    private final VirtualBoard board;
+
+    public VirtualDigitalOutputProvider(VirtualBoard board) {
+        super(ID, "Virtual Digital Output");
+        this.board = board;
+    }
+
+    @Override
+    public DigitalOutput create(DigitalOutputConfig config) {
+        return new VirtualDigitalOutput(board, this, config);
+    }
+}
@@ -0,0 +1,70 @@
+package org.dbs.pi4j.myrestgpio.myvirtual;
+
+import com.pi4j.Pi4J;
+import com.pi4j.context.Context;
+import lombok.extern.slf4j.Slf4j;
+import org.dbs.pi4j.myrestgpio.configuration.VirtualGpioProperties;
+import org.dbs.pi4j.myrestgpio.mygpio.GpioBackend;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PreDestroy;
+
+/**
+ * {@link GpioBackend} of in-memory pins, active with the {@code virtual} Spring profile.
+ * <p>The service runs without any GPIO hardware: outputs and PWM pins keep their values in memory, inputs follow the
+ * signals scripted in {@code gpio.virtual.signals}, and every call to a pin costs {@code gpio.virtual.latency}.</p>
+ */
+@Component
+@Profile("virtual")
+@Slf4j
+public class VirtualGpioBackend implements GpioBackend {
+
+    private final VirtualBoard board;
+    private final VirtualSignalGenerator signalGenerator;
+
+    public VirtualGpioBackend(VirtualGpioProperties properties) {
+        this.board = new VirtualBoard(properties.getLatency());
+        this.signalGenerator = new VirtualSignalGenerator(board, properties.getSignals());
+        log.info("Virtual GPIO backend, latency of {} per call", properties.getLatency());
+    }
+
+    @Override
+    public Context createContext() {
+        final Context context = Pi4J.newContextBuilder()
+            .noAutoDetect()
+            .add(new VirtualDigitalOutputProvider(board), new VirtualDigitalInputProvider(board), new VirtualPwmProvider(board))
+            .add(new VirtualPlatform())
+            .defaultPlatform(VirtualPlatform.ID)
+            .build();
+        signalGenerator.start();
+        return context;
+    }
+
+    /**
+     * @return The in-memory pins, to drive the inputs from outside.
+     */
+    public VirtualBoard getBoard() {
+        return board;
+    }
+
+    @Override
+    public String getDigitalOutputProvider() {
+        return VirtualDigitalOutputProvider.ID;
+    }
+
+    @Override
+    public String getDigitalInputProvider() {
+        return VirtualDigitalInputProvider.ID;
+    }
+
+    @Override
+    public String getPwmProvider() {
+        return VirtualPwmProvider.ID;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        signalGenerator.stop();
+    }
+}
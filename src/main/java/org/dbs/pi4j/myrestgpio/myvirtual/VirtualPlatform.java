@@ -0,0 +1,31 @@
+package org.dbs.pi4j.myrestgpio.myvirtual;
+
+import com.pi4j.context.Context;
+import com.pi4j.platform.PlatformBase;
+
+/**
+ * Pi4J platform of the virtual backend.
+ */
+public class VirtualPlatform extends PlatformBase<VirtualPlatform> {
+
+    public static final String ID = "virtual";
+
+    public VirtualPlatform() {
+        super(ID, "Virtual Platform", "In-memory pins, without any GPIO hardware");
+    }
+
+    @Override
+    public int priority() {
+        return 0;
+    }
+
+    @Override
+    public boolean enabled(Context context) {
+        return true;
+    }
+
+    @Override
+    protected String[] getProviders() {
+        return new String[]{VirtualDigitalOutputProvider.ID, VirtualDigitalInputProvider.ID, VirtualPwmProvider.ID};
+    }
+}
@@ -0,0 +1,38 @@
+package org.dbs.pi4j.myrestgpio.myvirtual;
+
+import com.pi4j.io.pwm.Pwm;
+import com.pi4j.io.pwm.PwmBase;
+import com.pi4j.io.pwm.PwmConfig;
+import com.pi4j.io.pwm.PwmProvider;
+
+/**
+ * PWM pin of the virtual backend, only keeping its duty cycle and frequency.
+ */
+public class VirtualPwm extends PwmBase {
+
+    private final VirtualBoard board;
+
+    public VirtualPwm(VirtualBoard board, PwmProvider provider, PwmConfig config) {
+        super(provider, config);
+        this.board = board;
+    }
+
+    @Override
+    public Pwm on() {
+        board.nativeCall();
+        onState = true;
+        return this;
+    }
+
+    @Override
+    public Pwm off() {
+        board.nativeCall();
+        onState = false;
+        return this;
+    }
+
+    @Override
+    public int getActualFrequency() {
+        return frequency;
+    }
+}
@@ -0,0 +1,25 @@
+package org.dbs.pi4j.myrestgpio.myvirtual;
+
+import com.pi4j.io.pwm.Pwm;
+import com.pi4j.io.pwm.PwmConfig;
+import com.pi4j.io.pwm.PwmProviderBase;
+
+/**
+ * Provider of the {@link VirtualPwm}s.
+ */
+public class VirtualPwmProvider extends PwmProviderBase {
+
+    public static final String ID = "virtual-pwm";
+
+    private final VirtualBoard board;
+
+    public VirtualPwmProvider(VirtualBoard board) {
+        super(ID, "Virtual PWM");
+        this.board = board;
+    }
+
+    @Override
+    public Pwm create(PwmConfig config) {
+        return new VirtualPwm(board, this, config);
+    }
+}
@@ -0,0 +1,117 @@
+package org.dbs.pi4j.myrestgpio.myvirtual;
+
+import lombok.extern.slf4j.Slf4j;
+import org.dbs.pi4j.myrestgpio.configuration.VirtualGpioProperties.Signal;
+import org.dbs.pi4j.myrestgpio.configuration.VirtualGpioProperties.SignalType;
+
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Drives the virtual pins with the scripted signals.
+ * <p>A single thread toggles the pins at their planned times. Each edge is planned from the previous planned time
+ * rather than from the time it actually happened, so the rate of a signal does not drift; a signal which falls more
+ * than a second behind restarts from the current time instead of catching up.</p>
+ */
+@Slf4j
+public class VirtualSignalGenerator {
+
+    private static final long MAX_LAG_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+    private final VirtualBoard board;
+    private final List<Signal> signals;
+    private final ScheduledExecutorService scheduler;
+
+    public VirtualSignalGenerator(VirtualBoard board, List<Signal> signals) {
+        this.board = board;
+        this.signals = signals;
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "gpio-virtual-signal");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Start all the signals.
+     */
+    public void start() {
+        for (final Signal signal : signals) {
+            if (signal.getRate() <= 0) {
+                throw new IllegalArgumentException("The rate of the signal on address " + signal.getAddress()
+                    + " must be strictly positive");
+            }
+            log.info("Virtual {} signal at {} Hz on address {}", signal.getType(), signal.getRate(), signal.getAddress());
+            new SignalTask(signal).start(System.nanoTime());
+        }
+    }
+
+    /**
+     * Stop all the signals, the pins keep their current level.
+     */
+    public void stop() {
+        scheduler.shutdownNow();
+    }
+
+    private class SignalTask implements Runnable {
+
+        private final Signal signal;
+        private final long edgeNanos;
+        private long deadline;
+        private long burstStart;
+        private int burstEdges;
+
+        SignalTask(Signal signal) {
+            this.signal = signal;
+            final double edgesPerSecond = signal.getType() == SignalType.SQUARE
+                ? signal.getRate() * 2 : signal.getRate();
+            this.edgeNanos = Math.max(1, (long) (TimeUnit.SECONDS.toNanos(1) / edgesPerSecond));
+        }
+
+        void start(long now) {
+            burstStart = now;
+            schedule(now);
+        }
+
+        void schedule(long next) {
+            final long now = System.nanoTime();
+            if (now - next > MAX_LAG_NANOS) {
+                next = now;
+                burstStart = now;
+                burstEdges = 0;
+            }
+            deadline = next;
+            scheduler.schedule(this, Math.max(0, next - now), TimeUnit.NANOSECONDS);
+        }
+
+        @Override
+        public void run() {
+            try {
+                board.toggle(signal.getAddress());
+            } catch (RuntimeException ex) {
+                log.error("Virtual signal on address {} failed", signal.getAddress(), ex);
+            }
+            schedule(deadline + nextInterval());
+        }
+
+        private long nextInterval() {
+            switch (signal.getType()) {
+                case NOISE:
+                    return (long) (-Math.log(1 - ThreadLocalRandom.current().nextDouble()) * edgeNanos);
+                case BURST:
+                    if (++burstEdges < signal.getBurstCount()) {
+                        return edgeNanos;
+                    }
+                    burstEdges = 0;
+                    burstStart += signal.getBurstInterval().toNanos();
+                    return Math.max(0, burstStart - deadline);
+                case SQUARE:
+                default:
+                    return edgeNanos;
+            }
+        }
+    }
+}
@@ -0,0 +1,19 @@
+package org.dbs.pi4j.myrestgpio.mywebsocket;
+
+/**
+ * The connection a command frame came from, for the commands acting on the connection itself.
+ */
+public interface CommandSession {
+
+    /**
+     * Push the state changes of the given inputs on the connection, replacing the previous watch if any.
+     *
+     * @param addresses The addresses of the pins to watch, all pins if empty.
+     */
+    void watch(int[] addresses);
+
+    /**
+     * Stop pushing the state changes on the connection.
+     */
+    void unwatch();
+}
@@ -0,0 +1,175 @@
+package org.dbs.pi4j.myrestgpio.mywebsocket;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.dbs.pi4j.myrestgpio.mygpio.MyGpioController;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Executes the command frames of the WebSocket channel on the {@link MyGpioController}.
+ * <p>A frame is a line of space separated tokens: a correlation id chosen by the client, a verb and integer
+ * arguments. The reply starts with the same id, followed by {@code ok} and an optional value, or by {@code err} and a
+ * message. Frames are executed in order, so a client may send several before reading the replies.</p>
+ * <pre>
+ * 7 set 4 1          7 ok
+ * 8 toggle 4         8 ok
+ * 9 pulse 4 250      9 ok 12      the id of the pulse
+ * 10 read 16         10 ok 1      the shadow state, "read 16 1" reads the hardware
+ * 11 watch 16 17     11 ok        no address watches all the inputs
+ * 12 unwatch         12 ok
+ * </pre>
+ * <p>The watched input changes are pushed as {@code evt <seq> <address> <state> <timestamp>}.</p>
+ */
+@Component
+@Slf4j
+public class GpioCommandProcessor {
+
+    private static final int[] NO_ADDRESSES = new int[0];
+
+    private final MyGpioController myGpioController;
+    private final AtomicLong commands = new AtomicLong();
+    private final AtomicLong errors = new AtomicLong();
+
+    public GpioCommandProcessor(MyGpioController myGpioController, MeterRegistry meterRegistry) {
+        this.myGpioController = myGpioController;
+
+        FunctionCounter.builder("gpio.websocket.commands", commands, AtomicLong::get).register(meterRegistry);
+        FunctionCounter.builder("gpio.websocket.errors", errors, AtomicLong::get).register(meterRegistry);
+    }
+
+    /**
+     * Execute a command frame.
+     *
+     * @param payload The frame.
+     * @param session The connection the frame came from.
+     * @return The reply.
+     */
+    public String process(final String payload, final CommandSession session) {
+        commands.incrementAndGet();
+        final Frame frame = new Frame(payload);
+        final String id = frame.hasNext() ? frame.nextToken() : "-";
+        try {
+            final String value = execute(frame, session);
+            return value == null ? id + " ok" : id + " ok " + value;
+        } catch (IllegalArgumentException | IllegalStateException ex) {
+            errors.incrementAndGet();
+            return id + " err " + ex.getMessage();
+        } catch (RuntimeException ex) {
+            errors.incrementAndGet();
+            log.warn("WebSocket command {} failed", payload, ex);
+            return id + " err " + ex.getMessage();
+        }
+    }
+
+    private String execute(final Frame frame, final CommandSession session) {
+        if (!frame.hasNext()) {
+            throw new IllegalArgumentException("Missing command");
+        }
+        final String verb = frame.nextToken();
+        switch (verb) {
+            case "set": {
+                final int address = frame.nextInt();
+                myGpioController.setPinDigitalState(address, frame.nextInt());
+                return null;
+            }
+            case "toggle":
+                myGpioController.togglePin(frame.nextInt());
+                return null;
+            case "pulse": {
+                final int address = frame.nextInt();
+                return String.valueOf(myGpioController.startPulse(address, frame.nextInt()).getId());
+            }
+            case "read": {
+                final int address = frame.nextInt();
+                final boolean fresh = frame.hasNext() && frame.nextInt() == 1;
+                return String.valueOf(myGpioController.getState(address, fresh).getValue().intValue());
+            }
+            case "watch":
+                session.watch(frame.remainingInts());
+                return null;
+            case "unwatch":
+                session.unwatch();
+                return null;
+            default:
+                throw new IllegalArgumentException("Unknown command " + verb);
+        }
+    }
+
+    /**
+     * Tokens of a frame, read in place.
+     */
+    private static final class Frame {
+        private final String payload;
+        private int position;
+
+        Frame(String payload) {
+            this.payload = payload;
+            skipSpaces();
+        }
+
+        boolean hasNext() {
+            return position < payload.length();
+        }
+
+        String nextToken() {
+            final int start = position;
+            while (position < payload.length() && !Character.isWhitespace(payload.charAt(position))) {
+                position++;
+            }
+            final String token = payload.substring(start, position);
+            skipSpaces();
+            return token;
+        }
+
+        int nextInt() {
+            if (!hasNext()) {
+                throw new IllegalArgumentException("Missing argument");
+            }
+            final int start = position;
+            final boolean negative = payload.charAt(position) == '-';
+            if (negative) {
+                position++;
+            }
+            int value = 0;
+            int digits = 0;
+            while (position < payload.length() && !Character.isWhitespace(payload.charAt(position))) {
+                final char c = payload.charAt(position++);
+                if (c < '0' || c > '9' || ++digits > 9) {
+                    position = start;
+                    throw new IllegalArgumentException("Expected an integer, got " + nextToken());
+                }
+                value = value * 10 + (c - '0');
+            }
+            if (digits == 0) {
+                throw new IllegalArgumentException("Expected an integer, got " + payload.substring(start, position));
+            }
+            skipSpaces();
+            return negative ? -value : value;
+        }
+
+        int[] remainingInts() {
+            if (!hasNext()) {
+                return NO_ADDRESSES;
+            }
+            int[] values = new int[4];
+            int count = 0;
+            while (hasNext()) {
+                if (count == values.length) {
+                    values = Arrays.copyOf(values, count * 2);
+                }
+                values[count++] = nextInt();
+            }
+            return Arrays.copyOf(values, count);
+        }
+
+        private void skipSpaces() {
+            while (position < payload.length() && Character.isWhitespace(payload.charAt(position))) {
+                position++;
+            }
+        }
+    }
+}
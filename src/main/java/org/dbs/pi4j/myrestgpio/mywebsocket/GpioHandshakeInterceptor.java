@@ -0,0 +1,42 @@
+package org.dbs.pi4j.myrestgpio.mywebsocket;
+
+import org.dbs.pi4j.myrestgpio.mygpio.MyGpioController;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.stereotype.Component;
+import org.springframework.web.socket.WebSocketHandler;
+import org.springframework.web.socket.server.HandshakeInterceptor;
+
+import java.util.Map;
+
+/**
+ * Refuses the WebSocket handshake with a 503 until the GPIO layer is ready, as the REST calls on the pins.
+ */
+@Component
+public class GpioHandshakeInterceptor implements HandshakeInterceptor {
+
+    private final MyGpioController myGpioController;
+
+    public GpioHandshakeInterceptor(MyGpioController myGpioController) {
+        this.myGpioController = myGpioController;
+    }
+
+    @Override
+    public boolean beforeHandshake(ServerHttpRequest request, ServerHttpResponse response, WebSocketHandler wsHandler,
+                                   Map<String, Object> attributes) {
+        if (myGpioController.isReady()) {
+            return true;
+        }
+        response.setStatusCode(HttpStatus.SERVICE_UNAVAILABLE);
+        response.getHeaders().set(HttpHeaders.RETRY_AFTER, "1");
+        return false;
+    }
+
+    @Override
+    public void afterHandshake(ServerHttpRequest request, ServerHttpResponse response, WebSocketHandler wsHandler,
+                               Exception exception) {
+        // Nothing to do
+    }
+}
@@ -0,0 +1,102 @@
+package org.dbs.pi4j.myrestgpio.mywebsocket;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.dbs.pi4j.myrestgpio.configuration.WebSocketProperties;
+import org.dbs.pi4j.myrestgpio.mygpio.MyGpioController;
+import org.dbs.pi4j.myrestgpio.mygpio.PinEventSubscription;
+import org.springframework.stereotype.Component;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.TextMessage;
+import org.springframework.web.socket.WebSocketSession;
+import org.springframework.web.socket.handler.ConcurrentWebSocketSessionDecorator;
+import org.springframework.web.socket.handler.TextWebSocketHandler;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * WebSocket command channel: a control panel keeps one connection open, sends its commands as compact frames and
+ * gets the replies and the changes of the inputs it watches on the same connection, see {@link GpioCommandProcessor}
+ * for the frames.
+ * <p>The frames of a connection are executed one after the other on the thread reading them. Replies and events are
+ * written through a {@link ConcurrentWebSocketSessionDecorator}: a client reading too slowly is disconnected once
+ * {@code gpio.websocket.buffer-size-limit} bytes are pending or a send takes longer than
+ * {@code gpio.websocket.send-time-limit}.</p>
+ */
+@Component
+@Slf4j
+public class GpioWebSocketHandler extends TextWebSocketHandler {
+
+    private final GpioCommandProcessor processor;
+    private final MyGpioController myGpioController;
+    private final WebSocketProperties properties;
+    private final Map<String, Client> clients = new ConcurrentHashMap<>();
+
+    public GpioWebSocketHandler(GpioCommandProcessor processor, MyGpioController myGpioController,
+                                WebSocketProperties properties, MeterRegistry meterRegistry) {
+        this.processor = processor;
+        this.myGpioController = myGpioController;
+        this.properties = properties;
+
+        Gauge.builder("gpio.websocket.sessions", clients, Map::size).register(meterRegistry);
+    }
+
+    @Override
+    public void afterConnectionEstablished(WebSocketSession session) {
+        final WebSocketSession concurrent = new ConcurrentWebSocketSessionDecorator(session,
+            (int) properties.getSendTimeLimit().toMillis(), properties.getBufferSizeLimit());
+        clients.put(session.getId(), new Client(concurrent));
+        log.info("WebSocket client connected from {}", session.getRemoteAddress());
+    }
+
+    @Override
+    protected void handleTextMessage(WebSocketSession session, TextMessage message) throws IOException {
+        final Client client = clients.get(session.getId());
+        if (client != null) {
+            client.session.sendMessage(new TextMessage(processor.process(message.getPayload(), client)));
+        }
+    }
+
+    @Override
+    public void handleTransportError(WebSocketSession session, Throwable exception) {
+        log.debug("WebSocket transport error on {}: {}", session.getId(), exception.getMessage());
+    }
+
+    @Override
+    public void afterConnectionClosed(WebSocketSession session, CloseStatus status) {
+        final Client client = clients.remove(session.getId());
+        if (client != null) {
+            client.unwatch();
+        }
+        log.info("WebSocket client {} disconnected: {}", session.getRemoteAddress(), status);
+    }
+
+    /**
+     * A connected client and its watch.
+     */
+    private final class Client implements CommandSession {
+        private final WebSocketSession session;
+        private PinEventSubscription subscription;
+
+        Client(WebSocketSession session) {
+            this.session = session;
+        }
+
+        @Override
+        public synchronized void watch(int[] addresses) {
+            unwatch();
+            subscription = myGpioController.subscribe(new WebSocketPinEventSink(session), addresses, 0);
+        }
+
+        @Override
+        public synchronized void unwatch() {
+            if (subscription != null) {
+                myGpioController.unsubscribe(subscription);
+                subscription = null;
+            }
+        }
+    }
+}
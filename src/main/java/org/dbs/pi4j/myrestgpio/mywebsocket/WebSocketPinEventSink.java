@@ -0,0 +1,38 @@
+package org.dbs.pi4j.myrestgpio.mywebsocket;
+
+import org.dbs.pi4j.myrestgpio.mygpio.PinEvent;
+import org.dbs.pi4j.myrestgpio.mygpio.PinEventSink;
+import org.springframework.web.socket.PingMessage;
+import org.springframework.web.socket.TextMessage;
+import org.springframework.web.socket.WebSocketSession;
+
+import java.io.IOException;
+
+/**
+ * {@link PinEventSink} writing the events as {@code evt <seq> <address> <state> <timestamp>} frames on the WebSocket
+ * connection, and the heartbeats as pings.
+ */
+class WebSocketPinEventSink implements PinEventSink {
+
+    private final WebSocketSession session;
+
+    WebSocketPinEventSink(WebSocketSession session) {
+        this.session = session;
+    }
+
+    @Override
+    public void send(PinEvent event) throws IOException {
+        session.sendMessage(new TextMessage("evt " + event.getSeq() + ' ' + event.getAddress() + ' ' + event.getState()
+            + ' ' + event.getTimestamp()));
+    }
+
+    @Override
+    public void heartbeat() throws IOException {
+        session.sendMessage(new PingMessage());
+    }
+
+    @Override
+    public void close() {
+        // The connection outlives its watch
+    }
+}
@@ -0,0 +1,84 @@
+package org.dbs.pi4j.myrestgpio.openapi;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.dbs.pi4j.myrestgpio.MyRestGpioApplication;
+import org.springframework.boot.Banner;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.zip.Deflater;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Generates the OpenAPI document of the REST API at build time.
+ * <p>The service is started quietly with the {@code virtual} and {@code dev} profiles on a random loopback port, the
+ * document built by Springfox is downloaded, stripped of the server it was served from, and written to {@code openapi.json} with a
+ * gzip copy in the given directory. At runtime it is served as a static resource, without any handler scanning.</p>
+ * <p>Run by the {@code prepare-package} phase, skip with {@code -Dopenapi.skip}.</p>
+ */
+public class OpenApiGenerator {
+
+    private static final String DOCUMENT = "openapi.json";
+
+    public static void main(String[] args) throws Exception {
+        if (args.length != 1) {
+            throw new IllegalArgumentException("Usage: OpenApiGenerator <output directory>");
+        }
+        final Path directory = Paths.get(args[0]);
+
+        // The devtools restart would run this method again in a new class loader
+        System.setProperty("spring.devtools.restart.enabled", "false");
+        final ConfigurableApplicationContext context = new SpringApplicationBuilder(MyRestGpioApplication.class)
+            .profiles("virtual", "dev")
+            .bannerMode(Banner.Mode.OFF)
+            .logStartupInfo(false)
+            .run("--server.port=0", "--server.address=127.0.0.1", "--gpio.startup.test-pin=-1",
+                "--gpio.command-log.file=target/openapi-command.log", "--gpio.journal.enabled=false",
+                "--gpio.history.enabled=false", "--logging.level.root=warn", "--logging.level.org.dbs.pi4j=warn");
+        try {
+            final int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+            write(download("http://localhost:" + port + "/v3/api-docs"), directory);
+        } finally {
+            context.close();
+        }
+        System.exit(0);
+    }
+
+    private static byte[] download(String url) throws IOException, InterruptedException {
+        final HttpResponse<byte[]> response = HttpClient.newHttpClient()
+            .send(HttpRequest.newBuilder(URI.create(url)).GET().build(), HttpResponse.BodyHandlers.ofByteArray());
+        if (response.statusCode() != 200) {
+            throw new IOException("Unable to get the OpenAPI document, status " + response.statusCode());
+        }
+
+        final ObjectMapper mapper = new ObjectMapper();
+        final ObjectNode document = (ObjectNode) mapper.readTree(response.body());
+        document.remove("servers");
+        return mapper.writeValueAsBytes(document);
+    }
+
+    private static void write(byte[] document, Path directory) throws IOException {
+        Files.createDirectories(directory);
+        Files.write(directory.resolve(DOCUMENT), document);
+        try (OutputStream output = new GZIPOutputStream(Files.newOutputStream(directory.resolve(DOCUMENT + ".gz"))) {
+            {
+                def.setLevel(Deflater.BEST_COMPRESSION);
+            }
+        }) {
+            output.write(document);
+        }
+        System.out.printf("OpenAPI document written to %s (%d bytes, gzip alongside)%n",
+            directory.resolve(DOCUMENT).toAbsolutePath(), document.length);
+    }
+}
@@ -0,0 +1,46 @@
+package org.dbs.pi4j.myrestgpio.common;
+
+import org.dbs.pi4j.myrestgpio.configuration.ProcessProperties;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ProcessExecutorTest {
+
+    private final ProcessExecutor executor = new ProcessExecutor(properties());
+
+    @AfterEach
+    void stop() {
+        executor.shutdown();
+    }
+
+    @Test
+    void completesACommandWritingMuchMoreThanTheKeptStandardError() throws IOException, InterruptedException {
+        // 1 MB on stderr, far more than the pipe buffer, then a line on stdout
+        final ExecResult result = executor.execute("sh", "-c",
+            "head -c 1048576 /dev/zero | tr '\\0' 'e' >&2; echo done");
+
+        assertThat(result.isTimedOut()).isFalse();
+        assertThat(result.isTruncated()).isFalse();
+        assertThat(result.getExitCode()).isZero();
+        assertThat(result.getLines()).containsExactly("done");
+    }
+
+    @Test
+    void killsACommandWritingTooMuchOnTheStandardOutput() throws IOException, InterruptedException {
+        final ExecResult result = executor.execute("sh", "-c", "head -c 1048576 /dev/zero | tr '\\0' 'o'");
+
+        assertThat(result.isTruncated()).isTrue();
+        assertThat(result.getExitCode()).isEqualTo(-1);
+    }
+
+    private static ProcessProperties properties() {
+        final ProcessProperties properties = new ProcessProperties();
+        properties.setTimeout(Duration.ofSeconds(10));
+        return properties;
+    }
+}
@@ -0,0 +1,62 @@
+package org.dbs.pi4j.myrestgpio.mygpio;
+
+import org.junit.jupiter.api.Test;
+
+import static com.pi4j.io.gpio.digital.DigitalState.HIGH;
+import static com.pi4j.io.gpio.digital.DigitalState.LOW;
+import static org.assertj.core.api.Assertions.assertThat;
+
+class DwellFilterTest {
+
+    private static final long DWELL = 1_000_000;
+
+    private final DwellFilter filter = new DwellFilter(DWELL, LOW);
+    // The initial level counts as held since the creation of the filter
+    private final long start = System.nanoTime() + DWELL;
+
+    @Test
+    void passesTheFirstChangeAtOnce() {
+        assertThat(filter.onState(HIGH, start)).isEqualTo(HIGH);
+        assertThat(filter.isPending()).isFalse();
+    }
+
+    @Test
+    void holdsAChangeArrivingBeforeTheDwellTime() {
+        filter.onState(HIGH, start);
+
+        assertThat(filter.onState(LOW, start + DWELL / 2)).isNull();
+        assertThat(filter.isPending()).isTrue();
+        assertThat(filter.getDeadline()).isEqualTo(start + DWELL);
+        assertThat(filter.poll(start + DWELL)).isEqualTo(LOW);
+    }
+
+    @Test
+    void reducesAChatteringLineToItsLatestLevel() {
+        filter.onState(HIGH, start);
+        filter.onState(LOW, start + 100);
+        filter.onState(HIGH, start + 200);
+        filter.onState(LOW, start + 300);
+
+        assertThat(filter.poll(start + DWELL)).isEqualTo(LOW);
+        // The next change is held for a full dwell time after the one just passed
+        assertThat(filter.onState(HIGH, start + DWELL + 100)).isNull();
+        assertThat(filter.getDeadline()).isEqualTo(start + 2 * DWELL);
+    }
+
+    @Test
+    void passesNothingWhenTheLineIsBackToItsLevel() {
+        filter.onState(HIGH, start);
+        filter.onState(LOW, start + 100);
+        filter.onState(HIGH, start + 200);
+
+        assertThat(filter.poll(start + DWELL)).isNull();
+        assertThat(filter.isPending()).isFalse();
+    }
+
+    @Test
+    void passesAChangeArrivingAfterTheDwellTimeAtOnce() {
+        filter.onState(HIGH, start);
+
+        assertThat(filter.onState(LOW, start + DWELL)).isEqualTo(LOW);
+    }
+}
@@ -0,0 +1,62 @@
+package org.dbs.pi4j.myrestgpio.mygpio;
+
+import com.pi4j.io.gpio.digital.DigitalState;
+import org.junit.jupiter.api.Test;
+
+import static com.pi4j.io.gpio.digital.DigitalState.HIGH;
+import static com.pi4j.io.gpio.digital.DigitalState.LOW;
+import static org.assertj.core.api.Assertions.assertThat;
+
+class GlitchFilterTest {
+
+    private static final long MIN = 1_000;
+
+    private final GlitchFilter filter = new GlitchFilter(MIN, LOW);
+
+    @Test
+    void passesAChangeOnceItHasLastedTheMinimumDuration() {
+        assertThat(filter.onState(HIGH, 0)).isNull();
+        assertThat(filter.isPending()).isTrue();
+        assertThat(filter.getDeadline()).isEqualTo(MIN);
+
+        assertThat(filter.poll(MIN)).isEqualTo(HIGH);
+        assertThat(filter.isPending()).isFalse();
+    }
+
+    @Test
+    void dropsAPulseShorterThanTheMinimumDuration() {
+        filter.onState(HIGH, 0);
+        filter.onState(LOW, MIN - 1);
+
+        assertThat(filter.isPending()).isFalse();
+    }
+
+    @Test
+    void restartsTheWaitOnEachBounce() {
+        filter.onState(HIGH, 0);
+        filter.onState(LOW, 400);
+        filter.onState(HIGH, 600);
+
+        assertThat(filter.getDeadline()).isEqualTo(600 + MIN);
+        assertThat(filter.poll(600 + MIN)).isEqualTo(HIGH);
+    }
+
+    @Test
+    void keepsTheFirstDeadlineWhenTheSameLevelIsReportedAgain() {
+        filter.onState(HIGH, 0);
+        filter.onState(HIGH, 500);
+
+        assertThat(filter.getDeadline()).isEqualTo(MIN);
+    }
+
+    @Test
+    void comparesTheNextChangesWithTheConfirmedLevel() {
+        filter.onState(HIGH, 0);
+        filter.poll(MIN);
+
+        assertThat(filter.onState(HIGH, 2 * MIN)).isNull();
+        assertThat(filter.isPending()).isFalse();
+        filter.onState(LOW, 3 * MIN);
+        assertThat(filter.poll(4 * MIN)).isEqualTo(DigitalState.LOW);
+    }
+}
@@ -0,0 +1,84 @@
+package org.dbs.pi4j.myrestgpio.mygpio;
+
+import com.pi4j.io.gpio.digital.DigitalInput;
+import com.pi4j.io.gpio.digital.DigitalState;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.pi4j.io.gpio.digital.DigitalState.HIGH;
+import static com.pi4j.io.gpio.digital.DigitalState.LOW;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class InputPipelineTest {
+
+    private static final long GLITCH = 1_000;
+    private static final long INTERVAL = 2_000;
+    private static final long DWELL = 1_000_000;
+
+    private final DigitalInput input = mock(DigitalInput.class);
+    private final List<DigitalState> passed = new ArrayList<>();
+    // Past the dwell time of the initial level, whenever the filters are created
+    private final long start = System.nanoTime() + 10 * DWELL;
+
+    @Test
+    void runsAChangeThroughEveryStageInOrder() {
+        final InputPipeline pipeline = pipeline();
+        when(input.state()).thenReturn(HIGH);
+
+        // A glitch, then a real change
+        assertThat(pipeline.onState(HIGH, start)).isFalse();
+        assertThat(pipeline.onState(LOW, start + GLITCH / 2)).isFalse();
+        assertThat(pipeline.onState(HIGH, start + GLITCH)).isFalse();
+        assertThat(pipeline.nanosToNextDeadline(start + GLITCH, Long.MAX_VALUE)).isEqualTo(GLITCH);
+
+        // The glitch filter confirms the change, the majority starts its vote
+        long now = start + 2 * GLITCH;
+        assertThat(pipeline.poll(now)).isZero();
+        assertThat(pipeline.nanosToNextDeadline(now, Long.MAX_VALUE)).isEqualTo(INTERVAL);
+        now += INTERVAL;
+        assertThat(pipeline.poll(now)).isZero();
+        now += INTERVAL;
+
+        // The vote passes the change, which the dwell filter lets through at once
+        assertThat(pipeline.poll(now)).isEqualTo(1);
+        assertThat(passed).containsExactly(HIGH);
+    }
+
+    @Test
+    void holdsTheChangesOfAChatteringLineUntilTheDwellTime() {
+        final InputPipeline pipeline = new InputPipeline(0, input, new InputFilter[]{
+            new GlitchFilter(GLITCH, LOW),
+            new DwellFilter(DWELL, LOW)
+        }, passed::add);
+
+        long now = start;
+        for (int change = 0; change < 6; change++) {
+            pipeline.onState(change % 2 == 0 ? HIGH : LOW, now);
+            now += 2 * GLITCH;
+            pipeline.poll(now);
+        }
+        assertThat(passed).containsExactly(HIGH);
+
+        // Only the final level is passed on once the dwell time is over
+        assertThat(pipeline.nanosToNextDeadline(now, Long.MAX_VALUE)).isEqualTo(start + 2 * GLITCH + DWELL - now);
+        assertThat(pipeline.poll(start + 2 * GLITCH + DWELL)).isEqualTo(1);
+        assertThat(passed).containsExactly(HIGH, LOW);
+    }
+
+    @Test
+    void waitsAtMostTheLimitWhenNothingIsHeld() {
+        assertThat(pipeline().nanosToNextDeadline(start, 5_000)).isEqualTo(5_000);
+    }
+
+    private InputPipeline pipeline() {
+        return new InputPipeline(0, input, new InputFilter[]{
+            new GlitchFilter(GLITCH, LOW),
+            new MajorityFilter(input, 3, INTERVAL, LOW),
+            new DwellFilter(DWELL, LOW)
+        }, passed::add);
+    }
+}
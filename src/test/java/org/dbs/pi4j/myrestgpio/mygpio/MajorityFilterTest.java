@@ -0,0 +1,77 @@
+package org.dbs.pi4j.myrestgpio.mygpio;
+
+import com.pi4j.io.gpio.digital.DigitalInput;
+import org.junit.jupiter.api.Test;
+
+import static com.pi4j.io.gpio.digital.DigitalState.HIGH;
+import static com.pi4j.io.gpio.digital.DigitalState.LOW;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class MajorityFilterTest {
+
+    private static final long INTERVAL = 100_000;
+
+    private final DigitalInput input = mock(DigitalInput.class);
+
+    @Test
+    void spacesTheSamplesByTheInterval() {
+        final MajorityFilter filter = new MajorityFilter(input, 3, INTERVAL, LOW);
+        when(input.state()).thenReturn(HIGH, LOW, HIGH);
+
+        assertThat(filter.onState(HIGH, 0)).isNull();
+        assertThat(filter.isPending()).isTrue();
+        assertThat(filter.getDeadline()).isEqualTo(INTERVAL);
+        verify(input, times(1)).state();
+
+        assertThat(filter.poll(INTERVAL)).isNull();
+        assertThat(filter.getDeadline()).isEqualTo(2 * INTERVAL);
+
+        assertThat(filter.poll(2 * INTERVAL)).isEqualTo(HIGH);
+        assertThat(filter.isPending()).isFalse();
+        verify(input, times(3)).state();
+    }
+
+    @Test
+    void dropsAChangeLosingTheVote() {
+        final MajorityFilter filter = new MajorityFilter(input, 3, INTERVAL, LOW);
+        when(input.state()).thenReturn(HIGH, LOW, LOW);
+
+        filter.onState(HIGH, 0);
+        filter.poll(INTERVAL);
+
+        assertThat(filter.poll(2 * INTERVAL)).isNull();
+        assertThat(filter.isPending()).isFalse();
+    }
+
+    @Test
+    void votesAgainForAChangeArrivingDuringTheVote() {
+        final MajorityFilter filter = new MajorityFilter(input, 3, INTERVAL, LOW);
+        when(input.state()).thenReturn(LOW, LOW, HIGH, HIGH, HIGH, HIGH);
+
+        filter.onState(HIGH, 0);
+        filter.poll(INTERVAL);
+        // The line goes high for good right before the last sample
+        assertThat(filter.onState(HIGH, 2 * INTERVAL - 1)).isNull();
+        assertThat(filter.poll(2 * INTERVAL)).isNull();
+
+        assertThat(filter.isPending()).isTrue();
+        assertThat(filter.poll(3 * INTERVAL)).isNull();
+        assertThat(filter.poll(4 * INTERVAL)).isNull();
+        assertThat(filter.poll(5 * INTERVAL)).isEqualTo(HIGH);
+        assertThat(filter.isPending()).isFalse();
+    }
+
+    @Test
+    void takesTheSamplesBackToBackWithoutAnInterval() {
+        final MajorityFilter filter = new MajorityFilter(input, 5, 0, HIGH);
+        when(input.state()).thenReturn(LOW, HIGH, LOW, LOW, HIGH);
+
+        assertThat(filter.onState(LOW, 0)).isEqualTo(LOW);
+        assertThat(filter.isPending()).isFalse();
+        verify(input, times(5)).state();
+    }
+}
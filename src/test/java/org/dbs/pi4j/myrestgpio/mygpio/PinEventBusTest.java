@@ -0,0 +1,146 @@
+package org.dbs.pi4j.myrestgpio.mygpio;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.dbs.pi4j.myrestgpio.configuration.EventProperties;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.time.Duration;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PinEventBusTest {
+
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final CountDownLatch release = new CountDownLatch(1);
+    private PinEventBus bus;
+
+    @AfterEach
+    void stop() {
+        release.countDown();
+        bus.shutdown();
+    }
+
+    @Test
+    void keepsDeliveringToTheOtherClientsWhileSomeBlock() throws InterruptedException {
+        bus = open(Duration.ofMinutes(1));
+        final BlockingSink[] stalled = new BlockingSink[4];
+        for (int index = 0; index < stalled.length; index++) {
+            stalled[index] = new BlockingSink(false);
+            bus.subscribe(stalled[index], null, 0);
+        }
+        final CollectingSink healthy = new CollectingSink();
+        bus.subscribe(healthy, null, 0);
+
+        bus.publish(17, 1);
+        for (final BlockingSink sink : stalled) {
+            assertThat(sink.blocked.await(5, TimeUnit.SECONDS)).isTrue();
+        }
+        bus.publish(17, 0);
+
+        assertThat(healthy.next()).extracting(PinEvent::getState).isEqualTo(1);
+        assertThat(healthy.next()).extracting(PinEvent::getState).isEqualTo(0);
+    }
+
+    @Test
+    void closesASubscriptionWhoseWriteBlocksPastTheTimeout() throws InterruptedException {
+        bus = open(Duration.ofMillis(200));
+        final BlockingSink interruptible = new BlockingSink(true);
+        final BlockingSink stuck = new BlockingSink(false);
+        final PinEventSubscription first = bus.subscribe(interruptible, null, 0);
+        final PinEventSubscription second = bus.subscribe(stuck, null, 0);
+
+        bus.publish(17, 1);
+
+        assertThat(interruptible.closed.await(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(interruptible.interrupted).isTrue();
+        assertThat(first.isClosed()).isTrue();
+        // A write ignoring the interrupt keeps its thread, but the subscription is closed all the same
+        assertThat(stuck.closed.await(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(second.isClosed()).isTrue();
+        assertThat(meterRegistry.get("gpio.events.expired").functionCounter().count()).isEqualTo(2);
+        assertThat(meterRegistry.get("gpio.events.subscribers").gauge().value()).isZero();
+
+        // Nothing more is written to the expired clients
+        bus.publish(17, 0);
+        release.countDown();
+        Thread.sleep(100);
+        assertThat(interruptible.sent).isEqualTo(1);
+        assertThat(stuck.sent).isEqualTo(1);
+    }
+
+    private PinEventBus open(Duration writeTimeout) {
+        final EventProperties properties = new EventProperties();
+        properties.setWriteTimeout(writeTimeout);
+        return new PinEventBus(properties, meterRegistry);
+    }
+
+    /**
+     * A client which never reads: each write blocks until the end of the test.
+     */
+    private class BlockingSink implements PinEventSink {
+        private final boolean interruptible;
+        private final CountDownLatch blocked = new CountDownLatch(1);
+        private final CountDownLatch closed = new CountDownLatch(1);
+        private volatile boolean interrupted;
+        private volatile int sent;
+
+        BlockingSink(boolean interruptible) {
+            this.interruptible = interruptible;
+        }
+
+        @Override
+        public void send(PinEvent event) throws IOException {
+            sent++;
+            blocked.countDown();
+            while (true) {
+                try {
+                    release.await();
+                    return;
+                } catch (InterruptedException ex) {
+                    if (interruptible) {
+                        interrupted = true;
+                        throw new InterruptedIOException();
+                    }
+                }
+            }
+        }
+
+        @Override
+        public void heartbeat() {
+        }
+
+        @Override
+        public void close() {
+            closed.countDown();
+        }
+    }
+
+    private static class CollectingSink implements PinEventSink {
+        private final BlockingQueue<PinEvent> events = new LinkedBlockingQueue<>();
+
+        PinEvent next() throws InterruptedException {
+            return events.poll(5, TimeUnit.SECONDS);
+        }
+
+        @Override
+        public void send(PinEvent event) {
+            events.add(event);
+        }
+
+        @Override
+        public void heartbeat() {
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+}
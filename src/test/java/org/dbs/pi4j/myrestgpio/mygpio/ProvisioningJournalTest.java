@@ -0,0 +1,226 @@
+package org.dbs.pi4j.myrestgpio.mygpio;
+
+import com.pi4j.io.gpio.digital.PullResistance;
+import com.pi4j.io.pwm.PwmType;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.dbs.pi4j.myrestgpio.configuration.JournalProperties;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ProvisioningJournalTest {
+
+    private static final int HEADER_SIZE = 8;
+
+    @TempDir
+    Path directory;
+
+    private final List<ProvisioningJournal> opened = new ArrayList<>();
+    private MeterRegistry meterRegistry;
+
+    @AfterEach
+    void closeAll() throws IOException {
+        for (final ProvisioningJournal journal : opened) {
+            journal.shutdown();
+        }
+    }
+
+    @Test
+    void replaysTheProvisioningAndTheLevelsInOrder() throws IOException {
+        final InputConfig config = InputConfig.builder()
+            .pull(PullResistance.PULL_UP)
+            .counting(EdgeMode.BOTH)
+            .glitch(Duration.ofNanos(250_000))
+            .majority(3)
+            .build();
+
+        final ProvisioningJournal journal = open();
+        journal.provisionedOutput(17, "o17");
+        journal.provisionedInput(16, "i16", config);
+        journal.provisionedPwm(18, "p18", PwmType.HARDWARE, 1000);
+        journal.outputLevel(17, true);
+        journal.dutyCycle(18, 42.5f);
+        journal.frequency(18, 500);
+        close(journal);
+
+        assertThat(restore(open())).containsExactly(
+            "output 17 o17 true",
+            "input 16 i16 " + config,
+            "pwm 18 p18 HARDWARE 500 42.5");
+    }
+
+    @Test
+    void stopsTheReplayAtARecordFailingItsCrc() throws IOException {
+        final ProvisioningJournal journal = open();
+        journal.provisionedOutput(17, "o17");
+        journal.outputLevel(17, true);
+        journal.outputLevel(17, false);
+        close(journal);
+
+        final byte[] bytes = Files.readAllBytes(journalFile());
+        bytes[lastRecordEnd(bytes) - 1] ^= 0x01;
+        Files.write(journalFile(), bytes);
+
+        assertThat(restore(open())).containsExactly("output 17 o17 true");
+    }
+
+    @Test
+    void stopsTheReplayAtATornRecord() throws IOException {
+        final ProvisioningJournal journal = open();
+        journal.provisionedOutput(17, "o17");
+        journal.provisionedOutput(20, "o20");
+        close(journal);
+
+        // Only the first bytes of the last record reached the disk
+        final byte[] bytes = Files.readAllBytes(journalFile());
+        final int end = lastRecordEnd(bytes);
+        for (int index = end - 8; index < end; index++) {
+            bytes[index] = 0;
+        }
+        Files.write(journalFile(), bytes);
+
+        assertThat(restore(open())).containsExactly("output 17 o17 false");
+    }
+
+    @Test
+    void ignoresTheRecordsLeftOverFromAnEarlierEpoch() throws IOException {
+        final ProvisioningJournal first = open();
+        first.provisionedOutput(17, "o17");
+        first.outputLevel(17, true);
+        close(first);
+
+        // The startup compaction restarts the journal in a new epoch, over the records of the previous one
+        final ProvisioningJournal second = open();
+        assertThat(restore(second)).containsExactly("output 17 o17 true");
+        second.provisionedOutput(17, "o17");
+        close(second);
+
+        // Drop the end marker: the level record of the previous epoch is intact right behind it
+        final byte[] bytes = Files.readAllBytes(journalFile());
+        final int end = lastRecordEnd(bytes);
+        assertThat(ByteBuffer.wrap(bytes).getShort(end)).isZero();
+        ByteBuffer.wrap(bytes).putShort(end, (short) 3);
+        Files.write(journalFile(), bytes);
+
+        assertThat(restore(open())).containsExactly("output 17 o17 false");
+    }
+
+    @Test
+    void keepsTheChangesAppendedDuringTheCompactions() throws Exception {
+        final ProvisioningJournal journal = open(properties -> {
+            properties.setSize(DataSize.ofBytes(1));
+            properties.setCompactionThreshold(10);
+            properties.setSyncInterval(Duration.ofMillis(1));
+        });
+        final boolean[] levels = new boolean[8];
+        for (int address = 0; address < levels.length; address++) {
+            journal.provisionedOutput(address, "o" + address);
+        }
+        for (int change = 0; change < 200_000; change++) {
+            final int address = change % levels.length;
+            levels[address] = (change / levels.length + address) % 3 == 0;
+            journal.outputLevel(address, levels[address]);
+        }
+        assertThat(meterRegistry.get("gpio.journal.compactions").functionCounter().count()).isGreaterThan(1);
+        close(journal);
+
+        final List<String> expected = new ArrayList<>();
+        for (int address = 0; address < levels.length; address++) {
+            expected.add("output " + address + " o" + address + " " + levels[address]);
+        }
+        assertThat(restore(open())).containsExactlyElementsOf(expected);
+    }
+
+    @Test
+    void keepsTheChangesWhichDidNotFitInAFullJournal() throws IOException {
+        final ProvisioningJournal journal = open(properties -> {
+            properties.setSize(DataSize.ofBytes(1));
+            properties.setSyncInterval(Duration.ofHours(1));
+        });
+        journal.provisionedOutput(17, "o17");
+        journal.provisionedPwm(18, "p18", PwmType.SOFTWARE, 1000);
+        for (int change = 0; change < 50_000; change++) {
+            journal.outputLevel(17, change % 2 == 0);
+        }
+        journal.dutyCycle(18, 12.5f);
+        close(journal);
+
+        assertThat(restore(open())).containsExactly("output 17 o17 false", "pwm 18 p18 SOFTWARE 1000 12.5");
+    }
+
+    private ProvisioningJournal open() throws IOException {
+        return open(properties -> {
+        });
+    }
+
+    private ProvisioningJournal open(Consumer<JournalProperties> tuning) throws IOException {
+        final JournalProperties properties = new JournalProperties();
+        properties.setDirectory(directory.toString());
+        tuning.accept(properties);
+        meterRegistry = new SimpleMeterRegistry();
+        final ProvisioningJournal journal = new ProvisioningJournal(properties, meterRegistry);
+        opened.add(journal);
+        return journal;
+    }
+
+    private void close(ProvisioningJournal journal) throws IOException {
+        opened.remove(journal);
+        journal.shutdown();
+    }
+
+    private static List<String> restore(ProvisioningJournal journal) {
+        final List<String> restored = new ArrayList<>();
+        journal.restore(new ProvisioningJournal.Restorer() {
+            @Override
+            public void output(int address, String name, boolean high) {
+                restored.add("output " + address + " " + name + " " + high);
+                journal.provisionedOutput(address, name);
+                journal.outputLevel(address, high);
+            }
+
+            @Override
+            public void input(int address, String name, InputConfig config) {
+                restored.add("input " + address + " " + name + " " + config);
+                journal.provisionedInput(address, name, config);
+            }
+
+            @Override
+            public void pwm(int address, String name, PwmType type, int frequency, float dutyCycle) {
+                restored.add("pwm " + address + " " + name + " " + type + " " + frequency + " " + dutyCycle);
+                journal.provisionedPwm(address, name, type, frequency);
+                journal.dutyCycle(address, dutyCycle);
+            }
+        });
+        return restored;
+    }
+
+    private Path journalFile() {
+        return directory.resolve("provisioning.journal");
+    }
+
+    /**
+     * @return The offset right after the last record of the journal, where its end marker is.
+     */
+    private static int lastRecordEnd(byte[] bytes) {
+        final ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        int position = HEADER_SIZE;
+        int length;
+        while ((length = buffer.getShort(position) & 0xFFFF) != 0) {
+            position += 2 + length + 4;
+        }
+        return position;
+    }
+}
@@ -0,0 +1,120 @@
+package org.dbs.pi4j.myrestgpio.mygpio;
+
+import com.pi4j.io.gpio.digital.DigitalOutput;
+import com.pi4j.io.gpio.digital.DigitalState;
+import com.pi4j.io.pwm.PwmType;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.dbs.pi4j.myrestgpio.configuration.JournalProperties;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.InOrder;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+
+class PulseSchedulerTest {
+
+    private static final int ADDRESS = 17;
+
+    @TempDir
+    Path directory;
+
+    private final PulseScheduler scheduler = new PulseScheduler(new SimpleMeterRegistry());
+    private final DigitalOutput output = mock(DigitalOutput.class);
+    private ProvisioningJournal journal;
+
+    @AfterEach
+    void stop() throws IOException {
+        scheduler.shutdown();
+        if (journal != null) {
+            journal.shutdown();
+        }
+    }
+
+    @Test
+    void restoresTheLevelWrittenBeforeAPulseInFlight() throws IOException {
+        journal = openJournal();
+        final DigitalOutputHandle handle = provision(journal);
+        handle.set(false);
+
+        scheduler.start(handle, 60_000);
+        assertThat(handle.getState()).isEqualTo(DigitalState.HIGH);
+
+        // Restart in the middle of the pulse, without the scheduler getting a chance to end it
+        journal.shutdown();
+        journal = openJournal();
+
+        assertThat(restore(journal)).containsExactly("output 17 o17 false");
+    }
+
+    @Test
+    void keepsAHighLevelWrittenBeforeAPulse() throws IOException {
+        journal = openJournal();
+        final DigitalOutputHandle handle = provision(journal);
+        handle.set(true);
+
+        scheduler.start(handle, 60_000);
+        journal.shutdown();
+        journal = openJournal();
+
+        assertThat(restore(journal)).containsExactly("output 17 o17 true");
+    }
+
+    @Test
+    void setsThePendingPulsesLowOnShutdown() throws IOException {
+        journal = openJournal();
+        final DigitalOutputHandle handle = provision(journal);
+
+        final Pulse pulse = scheduler.start(handle, 60_000);
+        scheduler.shutdown();
+
+        assertThat(handle.getState()).isEqualTo(DigitalState.LOW);
+        assertThat(scheduler.getPending()).isEmpty();
+        assertThat(scheduler.cancel(pulse.getId())).isFalse();
+        final InOrder order = inOrder(output);
+        order.verify(output).state(DigitalState.HIGH);
+        order.verify(output).state(DigitalState.LOW);
+    }
+
+    private ProvisioningJournal openJournal() throws IOException {
+        final JournalProperties properties = new JournalProperties();
+        properties.setDirectory(directory.toString());
+        return new ProvisioningJournal(properties, new SimpleMeterRegistry());
+    }
+
+    private DigitalOutputHandle provision(ProvisioningJournal journal) {
+        final PinRegistry registry = new PinRegistry(journal, null);
+        final DigitalOutputHandle handle = registry.provision(ADDRESS,
+            address -> new DigitalOutputHandle(address, output, DigitalState.LOW));
+        journal.provisionedOutput(ADDRESS, "o" + ADDRESS);
+        return handle;
+    }
+
+    private static List<String> restore(ProvisioningJournal journal) {
+        final List<String> restored = new ArrayList<>();
+        journal.restore(new ProvisioningJournal.Restorer() {
+            @Override
+            public void output(int address, String name, boolean high) {
+                restored.add("output " + address + " " + name + " " + high);
+            }
+
+            @Override
+            public void input(int address, String name, InputConfig config) {
+                restored.add("input " + address + " " + name);
+            }
+
+            @Override
+            public void pwm(int address, String name, PwmType type, int frequency, float dutyCycle) {
+                restored.add("pwm " + address + " " + name);
+            }
+        });
+        return restored;
+    }
+}
@@ -0,0 +1,43 @@
+package org.dbs.pi4j.myrestgpio.mygpio;
+
+import com.pi4j.io.pwm.Pwm;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.dbs.pi4j.myrestgpio.configuration.PwmProperties;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+import static org.mockito.ArgumentMatchers.anyFloat;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+class PwmHandleTest {
+
+    private final Pwm pwm = mock(Pwm.class);
+    private final PwmHandle handle = new PwmHandle(18, pwm, 1000, 25);
+
+    @ParameterizedTest
+    @ValueSource(floats = {Float.NaN, Float.POSITIVE_INFINITY, Float.NEGATIVE_INFINITY, -0.5f, 100.5f})
+    void rejectsADutyCycleOutOfRange(float dutyCycle) {
+        assertThatIllegalArgumentException().isThrownBy(() -> handle.setDutyCycle(dutyCycle));
+
+        assertThat(handle.getDutyCycle()).isEqualTo(25);
+        verify(pwm, never()).on(anyFloat(), anyInt());
+    }
+
+    @ParameterizedTest
+    @ValueSource(floats = {Float.NaN, Float.POSITIVE_INFINITY, -1})
+    void rejectsARampToADutyCycleOutOfRange(float dutyCycle) {
+        final PwmFader fader = new PwmFader(new PwmProperties(), new SimpleMeterRegistry());
+        try {
+            assertThatIllegalArgumentException().isThrownBy(() -> fader.start(handle, dutyCycle, 1000));
+            assertThatIllegalArgumentException().isThrownBy(() -> fader.start(handle, dutyCycle, 0));
+        } finally {
+            fader.shutdown();
+        }
+        assertThat(handle.getDutyCycle()).isEqualTo(25);
+    }
+}